@@ -0,0 +1,26 @@
+package com.mx.cache.annotation;
+
+import java.lang.annotation.*;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheEvict {
+    // 只按 tags 删除时可以不指定
+    String[] cacheNames() default {};
+    // 单个 key 的 SpEL 表达式，与 @Cacheable 的 key 对应（不含 cacheName:: 前缀）
+    String key() default "";
+    // 返回集合或数组的 SpEL 表达式，每个元素对应一个 key，整批通过一次流水线 UNLINK 删除
+    String keys() default "";
+    // 清空整个缓存（按 cacheName 删除，不影响其他缓存）
+    boolean allEntries() default false;
+    // 标签的 SpEL 表达式（字符串、集合或数组），删除带有这些标签的全部 key（不限于 cacheNames）
+    String tags() default "";
+    String condition() default "";
+    String cacheLevels() default "local,remote";
+
+    // 在方法执行前删除（默认方法成功返回后删除，方法抛异常时不删除）
+    boolean beforeInvocation() default false;
+    // 存在事务时在事务提交后删除，没有事务时立即删除
+    boolean afterCommit() default false;
+}
@@ -0,0 +1,18 @@
+package com.mx.cache.annotation;
+
+import java.lang.annotation.*;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CachePut {
+    // 写入格式（过期时间、压缩、缓存层级等）以同名 @Cacheable 为准，没有同名 @Cacheable 时退化为删除
+    String[] cacheNames();
+    // key 的 SpEL 表达式，与 @Cacheable 的 key 对应（不含 cacheName:: 前缀）
+    String key();
+    String condition() default "";
+    // 方法返回 null 时是否删除缓存（默认删除，避免残留旧值）
+    boolean evictOnNull() default true;
+    // 存在事务时在事务提交后写入，没有事务时立即写入
+    boolean afterCommit() default false;
+}
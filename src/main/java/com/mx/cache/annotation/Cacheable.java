@@ -1,5 +1,7 @@
 package com.mx.cache.annotation;
 
+import com.mx.cache.cache.ValueCopier;
+
 import java.lang.annotation.*;
 import java.util.concurrent.TimeUnit;
 
@@ -9,22 +11,57 @@ import java.util.concurrent.TimeUnit;
 public @interface Cacheable {
     String[] cacheNames();
     String key() default "";
+    // 自定义 KeyGenerator Bean 名称，配置后忽略 key
+    String keyGenerator() default "";
     String condition() default "";
+    // 标签的 SpEL 表达式（字符串、集合或数组），可跨缓存名称按标签删除，如 "'tenant:' + #tenantId"
+    String tags() default "";
 
     // 过期时间配置（远程缓存）
     long expire() default 3600;
     TimeUnit expireUnit() default TimeUnit.SECONDS;
     String spelExpire() default "";
     String resultFieldExpire() default "";
+    // stale-while-revalidate 窗口（单位同 expireUnit）：逻辑过期后仍可返回旧值并在后台刷新，0 表示不启用
+    long staleWhileRevalidate() default 0;
+    // 概率提前刷新（XFetch）系数 beta，按回源耗时和剩余有效期随机提前在后台刷新，0 表示不启用
+    double earlyRefreshBeta() default 0;
+    // 过期时间随机抖动比例（0~1），本地和远程缓存的过期时间在 [expire * (1 - jitter), expire] 之间
+    double expireJitter() default 0;
 
-    // 本地缓存配置
+    // 本地缓存配置：localExpire 为最长存活时间，条目实际过期时间取远程过期时间（含 spelExpire / resultFieldExpire）与它的较小值
     long localExpire() default 600;
     TimeUnit localExpireUnit() default TimeUnit.SECONDS;
+    // 空值标记在本地缓存中的最长存活时间（单位同 localExpireUnit）
+    long localNullExpire() default 10;
+    // 本地缓存写入后超过该时间（单位同 localExpireUnit）的条目在下次读取时后台刷新（先重新读取远程缓存，未命中时回源），
+    // 刷新期间继续返回旧值，0 表示不启用
+    long localRefresh() default 0;
+    // 缓存层级：local（Caffeine）、disk（内存映射磁盘缓存，需 cache.disk.enabled=true）、remote（Redis），按此顺序查找
     String cacheLevels() default "local,remote";
+    // 版本化命名空间：key 中嵌入缓存代数，整体失效只需一次 INCR，旧数据随 TTL 过期
+    boolean generational() default false;
+
+    // 本地缓存存储模式：BYTES 存序列化结果，OBJECT 存反序列化后的对象（命中时免解压、免反序列化），
+    // OFF_HEAP 把序列化结果存在堆外 slab 中（大量数据不进入老年代，不增加 GC 停顿）
+    enum LocalStoreMode {
+        BYTES, OBJECT, OFF_HEAP
+    }
+    LocalStoreMode localStoreMode() default LocalStoreMode.BYTES;
+    // OBJECT 模式下的对象拷贝器，默认直接共享对象（所有调用方拿到同一实例，只适用于不可变对象），
+    // ValueCopier.Kryo 写入时深拷贝并冻结为只读形式
+    Class<? extends ValueCopier> localCopier() default ValueCopier.Identity.class;
+
+    // 序列化器：内置 kryo、protobuf、json、raw，或自定义 CacheSerializer Bean 名称，
+    // 为空时使用 cache.serialization.default-serializer
+    String serializer() default "";
 
     // 压缩配置
     boolean zip() default false;
     int zipThreshold() default 1024;
+    // 压缩算法：lz4、zstd（需 zstd-jni）、gzip 或自定义 CompressionCodec 名称，为空时使用 cache.compression.default-codec
+    // 压缩数据带有算法头部，读取时无论 zip 是否开启都按头部解压，更换算法或关闭压缩后已有数据仍可读取
+    String zipCodec() default "";
 
     // 淘汰策略
     enum EvictionPolicy {
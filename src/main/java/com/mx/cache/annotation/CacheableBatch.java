@@ -14,7 +14,11 @@ public @interface CacheableBatch {
 
     long expire() default 3600;
     TimeUnit expireUnit() default TimeUnit.SECONDS;
+    // 序列化器：内置 kryo、protobuf、json、raw，或自定义 CacheSerializer Bean 名称，为空时使用默认序列化器
+    String serializer() default "";
     boolean zip() default false;
     int zipThreshold() default 1024;
+    // 压缩算法：lz4、zstd（需 zstd-jni）、gzip 或自定义 CompressionCodec 名称，为空时使用默认算法
+    String zipCodec() default "";
     int maxKeySize() default 256;
 }
@@ -2,10 +2,11 @@ package com.mx.cache.aspect;
 
 import com.mx.cache.annotation.CacheableBatch;
 import com.mx.cache.cache.MultiLevelCacheManager;
+import com.mx.cache.codec.CompressionCodecRegistry;
 import com.mx.cache.metadata.CacheAnnotationScanner;
 import com.mx.cache.metadata.CacheMethodMetadata;
-import com.mx.cache.util.CompressUtils;
-import com.mx.cache.util.SerializerUtils;
+import com.mx.cache.serializer.CacheSerializerRegistry;
+import com.mx.cache.util.PooledBuffer;
 import com.mx.cache.util.SpelUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +26,8 @@ public class BatchCacheAspect {
 
     private final CacheAnnotationScanner annotationScanner;
     private final MultiLevelCacheManager cacheManager;
+    private final CacheSerializerRegistry serializerRegistry;
+    private final CompressionCodecRegistry codecRegistry;
 
     @Around("@annotation(cacheableBatch)")
     public Object aroundBatch(ProceedingJoinPoint joinPoint, CacheableBatch cacheableBatch) throws Throwable {
@@ -337,25 +340,30 @@ public class BatchCacheAspect {
             return null;
         }
 
+        PooledBuffer buffer = PooledBuffer.acquire();
         try {
-            byte[] data = SerializerUtils.serialize(result);
-            if (data == null) {
+            if (!serializerRegistry.get(batch.serializer()).serialize(result, buffer)) {
                 log.warn("Serialization returned null for object: {}", result.getClass().getName());
                 return null;
             }
 
-            if (batch.zip() && data.length >= batch.zipThreshold()) {
-                try {
-                    return CompressUtils.compress(data);
-                } catch (Exception e) {
-                    log.error("Compression failed, using uncompressed data, error: {}", e.getMessage(), e);
-                    return data;
+            if (batch.zip()) {
+                // 开启压缩的缓存总是写入头部：未达到阈值、压缩后不比原始数据小或压缩失败时写入未压缩数据
+                if (buffer.size() >= batch.zipThreshold()) {
+                    try {
+                        return codecRegistry.compress(buffer.array(), 0, buffer.size(), batch.zipCodec());
+                    } catch (Exception e) {
+                        log.error("Compression failed, using uncompressed data, error: {}", e.getMessage(), e);
+                    }
                 }
+                return codecRegistry.stored(buffer.array(), 0, buffer.size());
             }
-            return data;
+            return buffer.toByteArray();
         } catch (Exception e) {
             log.error("Serialization failed for object: {}, error: {}", result.getClass().getName(), e.getMessage(), e);
             return null;
+        } finally {
+            buffer.release();
         }
     }
 
@@ -381,8 +389,9 @@ public class BatchCacheAspect {
         }
 
         try {
-            byte[] uncompressed = batch.zip() ? CompressUtils.decompress(data) : data;
-            return SerializerUtils.deserialize(uncompressed, type);
+            // 开启压缩时按头部选择解压算法，与当前 zipCodec 配置无关
+            byte[] uncompressed = codecRegistry.decompress(data, batch.zip());
+            return serializerRegistry.get(batch.serializer()).deserialize(uncompressed, type);
         } catch (Exception e) {
             log.error("Deserialization failed for type: {}, error: {}", type.getName(), e.getMessage(), e);
             return null;
@@ -1,13 +1,20 @@
 package com.mx.cache.aspect;
 
-import com.mx.cache.annotation.Cacheable;
+import com.mx.cache.cache.CacheEnvelope;
+import com.mx.cache.cache.HotKeyNotifier;
+import com.mx.cache.cache.LocalCache;
 import com.mx.cache.cache.MultiLevelCacheManager;
+import com.mx.cache.codec.CompressionCodecRegistry;
 import com.mx.cache.config.CacheProperties;
+import com.mx.cache.key.KeyGenerator;
+import com.mx.cache.key.KeyGeneratorRegistry;
 import com.mx.cache.metadata.CacheAnnotationScanner;
-import com.mx.cache.metadata.CacheMethodMetadata;
+import com.mx.cache.metadata.CachePlan;
+import com.mx.cache.metadata.CachePutPlan;
+import com.mx.cache.serializer.CacheSerializer;
+import com.mx.cache.serializer.CacheSerializerRegistry;
 import com.mx.cache.util.BloomFilterUtils;
-import com.mx.cache.util.CompressUtils;
-import com.mx.cache.util.SerializerUtils;
+import com.mx.cache.util.PooledBuffer;
 import com.mx.cache.util.SpelUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,44 +23,69 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.expression.Expression;
+import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
 @Slf4j
 @Aspect
 @RequiredArgsConstructor
 public class CacheAspect {
+    /**
+     * 缓存未命中标记（区别于缓存的 null 值）
+     */
+    private static final Object MISS = new Object();
+
+    /**
+     * 回源结果及写入缓存的数据（已序列化、压缩；结果为 null 或未写入时为 null）
+     * 进程内合并回源时交给等待线程，等待线程各自反序列化一份副本，不再读取缓存
+     */
+    private record Loaded(Object value, byte[] data) {
+    }
+
     private final CacheAnnotationScanner annotationScanner;
     private final MultiLevelCacheManager cacheManager;
     private final RedisTemplate<String, String> redisTemplate;
     private final BloomFilterUtils bloomFilterUtils;
     private final CacheProperties properties;
+    private final KeyGeneratorRegistry keyGeneratorRegistry;
+    private final HotKeyNotifier hotKeyNotifier;
+    private final CacheSerializerRegistry serializerRegistry;
+    private final CompressionCodecRegistry codecRegistry;
 
     @Around("@annotation(com.mx.cache.annotation.Cacheable)")
     public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
         Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
-        CacheMethodMetadata metadata = annotationScanner.getMetadata(method);
-        if (metadata == null || metadata.getCacheable() == null) {
+        // 优化：直接获取预编译的执行计划，热路径不再拼接签名字符串、不再读取注解
+        CachePlan plan = annotationScanner.getPlan(method);
+        if (plan == null) {
             return joinPoint.proceed();
         }
 
-        Cacheable cacheable = metadata.getCacheable();
         Object[] args = joinPoint.getArgs();
-        String[] paramNames = metadata.getParamNames();
 
         // 1. 检查缓存条件
-        if (!isConditionMet(cacheable.condition(), args, paramNames)) {
+        if (!isConditionMet(plan, args)) {
             return joinPoint.proceed();
         }
 
         // 2. 生成缓存key
-        String cacheKey = generateCacheKey(cacheable, args, paramNames, method);
+        String cacheKey = generateCacheKey(plan, args);
 
         // 3. 大key校验
-        if (!validateKeySize(cacheKey, cacheable)) {
-            if (cacheable.rejectLargeKey()) {
+        if (!validateKeySize(cacheKey, plan)) {
+            if (plan.isRejectLargeKey()) {
                 log.warn("Cache key exceeds max size, key: {}", cacheKey);
                 return joinPoint.proceed();
             } else {
@@ -62,55 +94,332 @@ public class CacheAspect {
         }
 
         // 4. 布隆过滤器检查（防止缓存穿透）
-        String cacheName = cacheable.cacheNames()[0];
-        if (!cacheable.cacheNull() && !bloomFilterUtils.mightContain(cacheName, cacheKey)) {
+        String cacheName = plan.getCacheName();
+        if (!plan.isCacheNull() && !bloomFilterUtils.mightContain(cacheName, cacheKey)) {
             log.debug("Bloom filter indicates key not exists, key: {}", cacheKey);
-            return null;
+            return plan.isAsync() ? toAsyncResult(plan, () -> CompletableFuture.completedFuture(null)) : null;
+        }
+
+        // CompletableFuture / Mono / Flux：缓存解析后的值，远程读写不阻塞调用线程
+        if (plan.isAsync()) {
+            return toAsyncResult(plan, () -> getAsync(joinPoint, plan, cacheKey));
+        }
+
+        // 5. 本地对象缓存查询（OBJECT 模式，命中时免解压和反序列化）
+        Object localValue = cacheManager.getLocalValue(plan, cacheKey);
+        if (localValue != null) {
+            registerRefreshSource(joinPoint, plan, cacheKey);
+            return localValue == LocalCache.NULL_VALUE ? null : localValue;
         }
 
-        // 5. 多级缓存查询
-        byte[] cachedData = cacheManager.get(cacheName, cacheKey, cacheable);
+        // 6. 多级缓存查询（启用 stale-while-revalidate / 概率提前刷新时，需要刷新的数据照常返回并在后台刷新）
+        long stamp = cacheManager.invalidationStamp(cacheKey);
+        byte[] cachedData = plan.isEnveloped()
+                ? cacheManager.get(plan, cacheKey, () -> revalidate(joinPoint, plan, cacheKey))
+                : cacheManager.get(plan, cacheKey);
         if (cachedData != null) {
-            // 检查是否是空值标记
-            if (isNullOrEmptyMarker(cachedData)) {
-                return null;
+            Object value = resolveCachedData(plan, cacheKey, cachedData, stamp);
+            if (value != MISS) {
+                registerRefreshSource(joinPoint, plan, cacheKey);
+                return value;
+            }
+        }
+
+        // 7. 缓存未命中（含无法解析的缓存数据）：同一 JVM 内相同 key 的并发回源合并为一次
+        // BYTES 模式的等待线程各自从执行线程交来的数据反序列化一份副本，不与执行线程共享返回值实例
+        Loaded loaded = cacheManager.loadOnce(cacheKey, () -> {
+            // 热点 key 保护逻辑
+            if (plan.isHotKey() && redisTemplate != null) {
+                return handleHotKeyProtection(joinPoint, plan, cacheKey);
+            } else {
+                // 非热点key或没有Redis支持，直接处理
+                return processCacheMiss(joinPoint, plan, cacheKey);
+            }
+        }, plan.isLocalObjectMode() ? null : shared -> {
+            if (shared.value() == null || shared.data() == null) {
+                return shared;
+            }
+            Object copy = deserialize(shared.data(), plan);
+            return copy != MISS ? new Loaded(copy, shared.data()) : shared;
+        });
+        registerRefreshSource(joinPoint, plan, cacheKey);
+        return loaded.value();
+    }
+
+    @Around("@annotation(com.mx.cache.annotation.CachePut)")
+    public Object aroundPut(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        // 预编译的执行计划：热路径不再读取注解、不再查找表达式缓存
+        CachePutPlan plan = annotationScanner.getPutPlan(method);
+        if (plan == null) {
+            return joinPoint.proceed();
+        }
+
+        Object[] args = joinPoint.getArgs();
+        if (plan.getConditionExpression() != null && !Boolean.TRUE.equals(
+                SpelUtils.evaluate(plan.getConditionExpression(), args, plan.getParamNames(), Boolean.class))) {
+            return joinPoint.proceed();
+        }
+        // 与 @Cacheable 相同的 key 生成方式，保证写入的是读取时使用的 key
+        String key = plan.getKeyGenerator().generate(method, args);
+
+        long loadStart = System.nanoTime();
+        Object result = joinPoint.proceed();
+        long loadCostMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadStart);
+        if (key == null) {
+            log.warn("Cache put key evaluated to null, method: {}", method.getName());
+            return result;
+        }
+
+        TransactionSupport.run(plan.isAfterCommit(), () -> {
+            for (String cacheName : plan.getCacheNames()) {
+                try {
+                    putResult(plan, cacheName, key, args, result, loadCostMillis);
+                } catch (Exception e) {
+                    log.error("Cache put failed, cacheName: {}, error: {}", cacheName, e.getMessage(), e);
+                }
             }
-            // 解压+反序列化
-            return deserialize(cachedData, method.getReturnType(), cacheable);
+        });
+        return result;
+    }
+
+    /**
+     * 按同名 @Cacheable 的格式写入 @CachePut 的结果，无法写入时删除旧值；
+     * 写入后通知其他节点失效本地缓存（其他节点的本地副本仍是旧值）
+     *
+     * @param putPlan 执行计划
+     * @param cacheName 缓存名称
+     * @param key key（不含 cacheName:: 前缀）
+     * @param args 方法参数
+     * @param result 方法返回值
+     * @param loadCostMillis 方法耗时（毫秒）
+     */
+    private void putResult(CachePutPlan putPlan, String cacheName, String key, Object[] args, Object result,
+                           long loadCostMillis) {
+        CachePlan readerPlan = annotationScanner.getPlan(cacheName);
+        String cacheKey = (readerPlan != null ? cacheManager.keyPrefix(readerPlan) : cacheName + "::") + key;
+        // 异步返回值的结果尚未完成，直接删除，由下一次读取回源
+        boolean evict = readerPlan == null || result instanceof CompletionStage
+                || (result == null && putPlan.isEvictOnNull())
+                || (result != null
+                && !ClassUtils.resolvePrimitiveIfNecessary(readerPlan.getValueType()).isInstance(result));
+        if (evict) {
+            if (readerPlan != null) {
+                cacheManager.evict(cacheName, cacheKey, readerPlan.getCacheable());
+            } else {
+                cacheManager.evict(cacheName, Collections.singletonList(cacheKey), "local,remote");
+            }
+            return;
+        }
+        storeResult(readerPlan, cacheKey, args, result, loadCostMillis,
+                cacheManager.hasAsyncRemote());
+        cacheManager.invalidateOtherNodes(readerPlan, cacheKey);
+    }
+
+    /**
+     * 将缓存中读到的数据还原为返回值，并回填 OBJECT 模式的本地缓存
+     *
+     * @param plan 执行计划
+     * @param cacheKey 缓存 key
+     * @param cachedData 缓存数据
+     * @param stamp 读取缓存前的失效序号，读取期间 key 被失效时不回填本地缓存
+     * @return 返回值；数据无法解压或反序列化时删除该 key 并返回 {@link #MISS}，由调用方回源
+     */
+    private Object resolveCachedData(CachePlan plan, String cacheKey, byte[] cachedData, long stamp) {
+        // 检查是否是空值标记
+        if (isNullOrEmptyMarker(cachedData)) {
+            cacheManager.backfillLocalValue(plan, cacheKey, LocalCache.NULL_VALUE, stamp);
+            return null;
+        }
+        // 解压+反序列化
+        Object value = deserialize(cachedData, plan);
+        if (value == MISS) {
+            cacheManager.evict(plan.getCacheName(), cacheKey, plan.getCacheable());
+            return MISS;
+        }
+        cacheManager.backfillLocalValue(plan, cacheKey, value, stamp);
+        return value;
+    }
+
+    /**
+     * 将异步查询结果适配为方法声明的返回类型
+     * CompletableFuture / CompletionStage 立即执行查询；Mono / Flux 在每次订阅时执行
+     *
+     * @param plan 执行计划
+     * @param supplier 异步查询
+     * @return 与方法返回类型一致的结果
+     */
+    private Object toAsyncResult(CachePlan plan, Supplier<CompletableFuture<Object>> supplier) {
+        if (plan.getReturnKind() == CachePlan.ReturnKind.FUTURE) {
+            return supplier.get();
+        }
+        return ReactiveCacheSupport.fromFuture(plan.getReturnKind(), supplier);
+    }
+
+    /**
+     * 异步返回值的缓存查询
+     * 命中时返回已完成的 future；未命中时同一 JVM 内相同 key 的并发回源合并为一次。
+     * 分布式热点锁需要同步等待，异步返回值不使用 hotKey 保护
+     *
+     * @param joinPoint 切点
+     * @param plan 执行计划
+     * @param cacheKey 缓存 key
+     * @return 解析后的值
+     */
+    private CompletableFuture<Object> getAsync(ProceedingJoinPoint joinPoint, CachePlan plan, String cacheKey) {
+        Object localValue = cacheManager.getLocalValue(plan, cacheKey);
+        if (localValue != null) {
+            return CompletableFuture.completedFuture(localValue == LocalCache.NULL_VALUE ? null : localValue);
+        }
+
+        Runnable revalidator = plan.isEnveloped() ? () -> revalidateAsync(joinPoint, plan, cacheKey) : null;
+        long stamp = cacheManager.invalidationStamp(cacheKey);
+        CompletableFuture<Object> result = cacheManager.getAsync(plan, cacheKey, revalidator)
+                .thenCompose(cachedData -> {
+                    Object value = cachedData != null ? resolveCachedData(plan, cacheKey, cachedData, stamp) : MISS;
+                    return value != MISS
+                            ? CompletableFuture.completedFuture(value)
+                            : cacheManager.loadOnceAsync(cacheKey, () -> loadAsync(joinPoint, plan, cacheKey));
+                });
+        if (plan.isLocalRefresh()) {
+            result.thenRun(() -> registerRefreshSource(joinPoint, plan, cacheKey));
+        }
+        return result;
+    }
+
+    /**
+     * 异步回源：执行目标方法，在结果完成后写入缓存
+     *
+     * @param joinPoint 切点
+     * @param plan 执行计划
+     * @param cacheKey 缓存 key
+     * @return 解析后的值
+     */
+    private CompletableFuture<Object> loadAsync(ProceedingJoinPoint joinPoint, CachePlan plan, String cacheKey) {
+        long loadStart = System.nanoTime();
+        CompletableFuture<Object> source;
+        try {
+            source = toFuture(plan, joinPoint.proceed());
+        } catch (Throwable t) {
+            return CompletableFuture.failedFuture(t);
+        }
+        return source.thenApply(result -> {
+            long loadCostMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadStart);
+            storeResult(plan, cacheKey, joinPoint.getArgs(), result, loadCostMillis, true);
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Object> toFuture(CachePlan plan, Object returned) {
+        if (returned == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (plan.getReturnKind() == CachePlan.ReturnKind.FUTURE) {
+            return ((CompletionStage<Object>) returned).toCompletableFuture();
+        }
+        return ReactiveCacheSupport.toFuture(returned);
+    }
+
+    /**
+     * 后台刷新异步返回值的缓存（在 cacheExecutor 线程池中执行）
+     *
+     * @param joinPoint 切点
+     * @param plan 执行计划
+     * @param cacheKey 缓存 key
+     */
+    private void revalidateAsync(ProceedingJoinPoint joinPoint, CachePlan plan, String cacheKey) {
+        try {
+            loadAsync(joinPoint, plan, cacheKey).join();
+            log.debug("Stale cache revalidated, key: {}", cacheKey);
+        } catch (Exception e) {
+            log.error("Stale cache revalidation failed, key: {}, error: {}", cacheKey, e.getMessage(), e);
         }
+    }
+
+    /**
+     * 登记本地缓存条目的刷新数据源（缓存切点），仅 localRefresh 大于 0 时生效
+     *
+     * @param joinPoint 切点
+     * @param plan 执行计划
+     * @param cacheKey 缓存 key
+     */
+    private void registerRefreshSource(ProceedingJoinPoint joinPoint, CachePlan plan, String cacheKey) {
+        if (plan.isLocalRefresh()) {
+            cacheManager.registerRefreshSource(plan, cacheKey, () -> reloadLocal(joinPoint, plan, cacheKey));
+        }
+    }
 
-        // 热点 key 保护逻辑
-        if (cacheable.hotKey() && redisTemplate != null) {
-            return handleHotKeyProtection(joinPoint, cacheable, cacheName, cacheKey, method);
+    /**
+     * 本地缓存 refreshAfterWrite 刷新（在 cacheExecutor 线程池中执行）
+     * 先重新读取远程缓存（其他节点可能已更新），未命中时通过缓存的切点回源，回源结果由 storeResult 写入各级缓存
+     *
+     * @param joinPoint 切点
+     * @param plan 执行计划
+     * @param cacheKey 缓存 key
+     * @return 本地缓存的新值，回源后返回 null（本地缓存已被回源结果覆盖，未写入时删除条目）
+     */
+    private Object reloadLocal(ProceedingJoinPoint joinPoint, CachePlan plan, String cacheKey) throws Throwable {
+        byte[] data = cacheManager.getBelowLocal(plan, cacheKey);
+        if (data != null) {
+            if (!plan.isLocalObjectMode()) {
+                return data;
+            }
+            byte[] payload = plan.isEnveloped() ? CacheEnvelope.unwrap(data) : data;
+            if (isNullOrEmptyMarker(payload)) {
+                return LocalCache.NULL_VALUE;
+            }
+            Object value = deserialize(payload, plan);
+            if (value != MISS) {
+                return value;
+            }
+            cacheManager.evict(plan.getCacheName(), cacheKey, plan.getCacheable());
+        }
+        if (plan.isAsync()) {
+            loadAsync(joinPoint, plan, cacheKey).join();
         } else {
-            // 非热点key或没有Redis支持，直接处理
-            return processCacheMiss(joinPoint, cacheable, cacheName, cacheKey, method);
+            processCacheMiss(joinPoint, plan, cacheKey, false);
+        }
+        log.debug("Local cache refreshed from source, key: {}", cacheKey);
+        return null;
+    }
+
+    /**
+     * 后台刷新逻辑过期或被选中提前刷新的缓存（在 cacheExecutor 线程池中执行）
+     *
+     * @param joinPoint 切点
+     * @param plan 执行计划
+     * @param cacheKey 缓存 key
+     */
+    private void revalidate(ProceedingJoinPoint joinPoint, CachePlan plan, String cacheKey) {
+        try {
+            processCacheMiss(joinPoint, plan, cacheKey);
+            log.debug("Stale cache revalidated, key: {}", cacheKey);
+        } catch (Throwable t) {
+            log.error("Stale cache revalidation failed, key: {}, error: {}", cacheKey, t.getMessage(), t);
         }
     }
 
     /**
      * 处理热点 key 保护逻辑
-     * 使用分布式锁防止缓存击穿，未获取锁的线程会重试等待缓存写入
+     * 使用分布式锁防止缓存击穿，未获取锁的线程等待持锁节点的回源完成通知
      *
      * @param joinPoint 切点
-     * @param cacheable 缓存注解
-     * @param cacheName 缓存名称
+     * @param plan 执行计划
      * @param cacheKey 缓存 key
-     * @param method 方法
-     * @return 缓存结果或 null
+     * @return 回源或从缓存读到的结果
      */
-    private Object handleHotKeyProtection(ProceedingJoinPoint joinPoint, Cacheable cacheable,
-                                         String cacheName, String cacheKey, Method method) throws Throwable {
+    private Loaded handleHotKeyProtection(ProceedingJoinPoint joinPoint, CachePlan plan,
+                                          String cacheKey) throws Throwable {
         if (redisTemplate == null) {
             log.warn("Redis template is null, cannot protect hot key: {}", cacheKey);
-            return processCacheMiss(joinPoint, cacheable, cacheName, cacheKey, method);
+            return processCacheMiss(joinPoint, plan, cacheKey);
         }
 
         String lockKey = "hot_key_lock:" + cacheKey;
         Boolean locked = false;
         CacheProperties.HotKeyProtection config = properties.getHotKeyProtection();
-        int retryCount = config != null ? config.getRetryCount() : 10;
-        long retryIntervalMs = config != null ? config.getRetryIntervalMs() : 50L;
+        long waitTimeoutMs = config != null ? config.getWaitTimeoutMs() : 5000L;
         long lockTimeoutSeconds = config != null ? config.getLockTimeoutSeconds() : 5L;
 
         try {
@@ -121,65 +430,100 @@ public class CacheAspect {
             if (Boolean.TRUE.equals(locked)) {
                 // 获取锁成功：执行回源
                 log.debug("Hot key lock acquired, proceeding to cache miss, key: {}", cacheKey);
-                return processCacheMiss(joinPoint, cacheable, cacheName, cacheKey, method);
-            } else {
-                // 获取锁失败：等待其他线程回源完成
-                log.debug("Hot key lock failed, entering retry loop, key: {}", cacheKey);
-                return retryCacheQuery(cacheName, cacheKey, cacheable, method, retryCount, retryIntervalMs);
+                // 等待远程写入完成后再释放锁，保证被唤醒的等待者能读到数据
+                return processCacheMiss(joinPoint, plan, cacheKey, false);
             }
         } catch (Exception e) {
             log.error("Hot key protection error, key: {}, error: {}", cacheKey, e.getMessage(), e);
             // 异常情况下降级为直接回源
-            return processCacheMiss(joinPoint, cacheable, cacheName, cacheKey, method);
+            return processCacheMiss(joinPoint, plan, cacheKey);
         } finally {
-            // 只有获取了锁的线程才能释放锁
+            // 只有获取了锁的线程才能释放锁并通知等待者
             if (Boolean.TRUE.equals(locked)) {
-                try {
-                    redisTemplate.delete(lockKey);
-                    log.debug("Hot key lock released, key: {}", cacheKey);
-                } catch (Exception e) {
-                    log.error("Failed to release hot key lock, key: {}, error: {}", lockKey, e.getMessage(), e);
-                }
+                releaseHotKeyLock(lockKey, cacheKey);
             }
         }
+
+        // 获取锁失败：等待持锁节点回源完成
+        log.debug("Hot key lock failed, waiting for loader notification, key: {}", cacheKey);
+        Loaded loaded = awaitHotKeyLoaded(plan, cacheKey, waitTimeoutMs);
+        if (loaded != null) {
+            return loaded;
+        }
+        // 等待超时或持锁节点未写入缓存：自行回源，不返回假的 null
+        log.warn("Hot key wait got no value within {}ms, loading directly. key: {}", waitTimeoutMs, cacheKey);
+        return processCacheMiss(joinPoint, plan, cacheKey);
     }
 
     /**
-     * 重试缓存查询
-     * 等待其他线程完成回源并写入缓存
+     * 释放热点 key 锁并发布回源完成通知
+     * 无论回源成功与否都会通知，等待者被唤醒后自行判断是否需要回源
      *
-     * @param cacheName 缓存名称
+     * @param lockKey 锁 key
      * @param cacheKey 缓存 key
-     * @param cacheable 缓存注解
-     * @param method 方法
-     * @param retryCount 重试次数
-     * @param retryIntervalMs 重试间隔（毫秒）
-     * @return 缓存结果或 null
      */
-    private Object retryCacheQuery(String cacheName, String cacheKey, Cacheable cacheable,
-                                   Method method, int retryCount, long retryIntervalMs) {
-        for (int i = 0; i < retryCount; i++) {
-            // 优化：使用 LockSupport.parkNanos() 替代 Thread.sleep()，避免阻塞线程
-            // LockSupport 是更底层的 API，性能更好，不会浪费线程资源
-            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(retryIntervalMs));
-            
-            // 检查中断状态
-            if (Thread.currentThread().isInterrupted()) {
-                log.warn("Hot key retry interrupted, key: {}", cacheKey);
-                return null;
-            }
+    private void releaseHotKeyLock(String lockKey, String cacheKey) {
+        try {
+            redisTemplate.delete(lockKey);
+            log.debug("Hot key lock released, key: {}", cacheKey);
+        } catch (Exception e) {
+            log.error("Failed to release hot key lock, key: {}, error: {}", lockKey, e.getMessage(), e);
+        }
+        if (hotKeyNotifier != null) {
+            hotKeyNotifier.publish(cacheKey);
+        }
+    }
 
-            // 重试缓存查询
-            byte[] retryData = cacheManager.get(cacheName, cacheKey, cacheable);
-            if (retryData != null) {
-                log.debug("Hot key retry successful at attempt {}, key: {}", i + 1, cacheKey);
-                return deserialize(retryData, method.getReturnType(), cacheable);
+    /**
+     * 等待其他节点完成回源并写入缓存
+     * 优化：挂起在共享 future 上等待 pub/sub 通知，而不是按固定间隔轮询 Redis
+     *
+     * @param plan 执行计划
+     * @param cacheKey 缓存 key
+     * @param waitTimeoutMs 最长等待时间（毫秒）
+     * @return 缓存结果，仍未命中时返回 null
+     */
+    private Loaded awaitHotKeyLoaded(CachePlan plan, String cacheKey, long waitTimeoutMs) {
+        if (hotKeyNotifier == null) {
+            // 没有通知通道时只能等待一个锁周期后再查一次
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs));
+            return readLoaded(plan, cacheKey);
+        }
+
+        CompletableFuture<Void> signal = hotKeyNotifier.register(cacheKey);
+        try {
+            // 订阅后先查一次，避免在登记前已发布的通知被错过
+            Loaded loaded = readLoaded(plan, cacheKey);
+            if (loaded != null) {
+                return loaded;
             }
+            signal.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Hot key wait timed out after {}ms, key: {}", waitTimeoutMs, cacheKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Hot key wait interrupted, key: {}", cacheKey);
+        } catch (ExecutionException e) {
+            log.warn("Hot key wait failed, key: {}, error: {}", cacheKey, e.getMessage());
+        } finally {
+            hotKeyNotifier.unregister(cacheKey, signal);
         }
+        return readLoaded(plan, cacheKey);
+    }
 
-        // 重试失败，返回 null（防止缓存击穿）
-        log.warn("Hot key retry failed after {} retries, returning null. key: {}", retryCount, cacheKey);
-        return null;
+    /**
+     * 读取其他节点回源写入的缓存
+     *
+     * @return 缓存结果及缓存数据，未命中或无法解析时返回 null
+     */
+    private Loaded readLoaded(CachePlan plan, String cacheKey) {
+        long stamp = cacheManager.invalidationStamp(cacheKey);
+        byte[] data = cacheManager.get(plan, cacheKey);
+        if (data == null) {
+            return null;
+        }
+        Object value = resolveCachedData(plan, cacheKey, data, stamp);
+        return value != MISS ? new Loaded(value, isNullOrEmptyMarker(data) ? null : data) : null;
     }
 
     /**
@@ -187,60 +531,107 @@ public class CacheAspect {
      * 执行目标方法，序列化结果并存入缓存
      *
      * @param joinPoint 切点
-     * @param cacheable 缓存注解
-     * @param cacheName 缓存名称
+     * @param plan 执行计划
      * @param cacheKey 缓存 key
-     * @param method 方法
-     * @return 方法执行结果
+     * @return 方法执行结果及写入缓存的数据
      */
-    private Object processCacheMiss(ProceedingJoinPoint joinPoint, Cacheable cacheable,
-                                    String cacheName, String cacheKey, Method method) throws Throwable {
-        // 执行目标方法
+    private Loaded processCacheMiss(ProceedingJoinPoint joinPoint, CachePlan plan, String cacheKey) throws Throwable {
+        // 已配置 Lettuce 原生异步连接时，远程写入只发出命令不等待返回，省去一次 Redis 往返
+        return processCacheMiss(joinPoint, plan, cacheKey, cacheManager.hasAsyncRemote());
+    }
+
+    private Loaded processCacheMiss(ProceedingJoinPoint joinPoint, CachePlan plan, String cacheKey,
+                                    boolean asyncRemoteWrite) throws Throwable {
+        // 执行目标方法（记录回源耗时，供概率提前刷新使用）
+        long loadStart = System.nanoTime();
         Object result = joinPoint.proceed();
+        long loadCostMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadStart);
+        byte[] data = storeResult(plan, cacheKey, joinPoint.getArgs(), result, loadCostMillis, asyncRemoteWrite);
+        return new Loaded(result, data);
+    }
 
+    /**
+     * 将回源结果写入多级缓存
+     *
+     * @param plan 执行计划
+     * @param cacheKey 缓存 key
+     * @param args 方法参数
+     * @param result 回源结果（异步返回值为解析后的值）
+     * @param loadCostMillis 回源耗时（毫秒）
+     * @param async 是否异步写入远程缓存
+     * @return 写入缓存的数据（已序列化、压缩），结果为 null 或序列化失败时返回 null
+     */
+    private byte[] storeResult(CachePlan plan, String cacheKey, Object[] args, Object result,
+                               long loadCostMillis, boolean async) {
+        List<String> tags = resolveTags(plan, args);
         // 处理空结果
         if (result == null) {
-            if (cacheable.cacheNull()) {
+            if (plan.isCacheNull()) {
                 // 存储空值标记
-                cacheManager.put(cacheName, cacheKey, getNullOrEmptyMarker(),
-                        60, TimeUnit.SECONDS, cacheable);
+                if (async) {
+                    cacheManager.putAsync(plan, cacheKey, getNullOrEmptyMarker(), 60, TimeUnit.SECONDS, 0, tags);
+                } else {
+                    cacheManager.put(plan, cacheKey, getNullOrEmptyMarker(), 60, TimeUnit.SECONDS, 0, tags);
+                }
+                cacheManager.putLocalValue(plan, cacheKey, LocalCache.NULL_VALUE, TimeUnit.SECONDS.toMillis(60));
             }
             return null;
         }
 
         // 计算过期时间
-        long expire = calculateExpire(cacheable, joinPoint.getArgs(),
-                annotationScanner.getMetadata(method).getParamNames(), result);
+        long expire = calculateExpire(plan, args, result);
 
         // 序列化+压缩
-        byte[] dataToCache = serializeAndCompress(result, cacheable);
+        byte[] dataToCache = serializeAndCompress(result, plan);
         if (dataToCache != null) {
             // 更新布隆过滤器
-            bloomFilterUtils.add(cacheName, cacheKey);
+            bloomFilterUtils.add(plan.getCacheName(), cacheKey);
             // 存入多级缓存
-            cacheManager.put(cacheName, cacheKey, dataToCache, expire, cacheable.expireUnit(), cacheable);
+            if (async) {
+                cacheManager.putAsync(plan, cacheKey, dataToCache, expire, plan.getExpireUnit(), loadCostMillis, tags);
+            } else {
+                cacheManager.put(plan, cacheKey, dataToCache, expire, plan.getExpireUnit(), loadCostMillis, tags);
+            }
+            cacheManager.putLocalValue(plan, cacheKey, result, plan.getExpireUnit().toMillis(expire));
         }
+        return dataToCache;
+    }
 
-        return result;
+    /**
+     * 计算缓存标签
+     *
+     * @param plan 执行计划
+     * @param args 方法参数
+     * @return 标签，未配置或计算失败时为 null
+     */
+    private List<String> resolveTags(CachePlan plan, Object[] args) {
+        Expression tagsExpression = plan.getTagsExpression();
+        if (tagsExpression == null) {
+            return null;
+        }
+        List<String> tags = SpelUtils.toStringList(
+                SpelUtils.evaluate(tagsExpression, args, plan.getParamNames(), Object.class));
+        return tags.isEmpty() ? null : tags;
     }
 
     /**
      * 检查缓存条件是否满足
      *
-     * @param condition 条件表达式
+     * @param plan 执行计划
      * @param args 方法参数
-     * @param paramNames 参数名称
      * @return 是否满足条件
      */
-    private boolean isConditionMet(String condition, Object[] args, String[] paramNames) {
-        if (condition == null || condition.isEmpty()) {
+    private boolean isConditionMet(CachePlan plan, Object[] args) {
+        Expression condition = plan.getConditionExpression();
+        if (condition == null) {
             return true;
         }
         try {
-            Boolean result = SpelUtils.evaluate(condition, args, paramNames, Boolean.class);
+            Boolean result = SpelUtils.evaluate(condition, args, plan.getParamNames(), Boolean.class);
             return result != null && result;
         } catch (Exception e) {
-            log.error("Failed to evaluate cache condition: {}, error: {}", condition, e.getMessage(), e);
+            log.error("Failed to evaluate cache condition: {}, error: {}",
+                    condition.getExpressionString(), e.getMessage(), e);
             return false;
         }
     }
@@ -248,76 +639,73 @@ public class CacheAspect {
     /**
      * 生成缓存 key
      *
-     * @param cacheable 缓存注解
+     * @param plan 执行计划
      * @param args 方法参数
-     * @param paramNames 参数名称
-     * @param method 方法
      * @return 缓存 key
      */
-    private String generateCacheKey(Cacheable cacheable, Object[] args, String[] paramNames, Method method) {
-        if (cacheable == null || cacheable.cacheNames() == null || cacheable.cacheNames().length == 0) {
-            throw new IllegalArgumentException("Cacheable annotation must have at least one cache name");
-        }
-
-        String keySpel = cacheable.key().isEmpty() ? "#root.methodName + '_' + #root.args" : cacheable.key();
+    private String generateCacheKey(CachePlan plan, Object[] args) {
+        KeyGenerator keyGenerator = plan.getKeyGeneratorName() != null
+                ? keyGeneratorRegistry.get(plan.getKeyGeneratorName()) : plan.getKeyGenerator();
         try {
-            String key = SpelUtils.evaluate(keySpel, args, paramNames, String.class);
+            String key = keyGenerator.generate(plan.getMethod(), args);
             if (key == null) {
                 throw new IllegalArgumentException("Cache key evaluation returned null");
             }
-            return cacheable.cacheNames()[0] + "::" + key;
+            return cacheManager.keyPrefix(plan) + key;
         } catch (Exception e) {
-            log.error("Failed to generate cache key, spel: {}, error: {}", keySpel, e.getMessage(), e);
+            log.error("Failed to generate cache key, method: {}, error: {}",
+                    plan.getMethod().getName(), e.getMessage(), e);
             throw new RuntimeException("Failed to generate cache key", e);
         }
     }
 
     /**
      * 验证缓存 key 大小
+     * 优化：UTF-8 每个字符最多 3 字节，长度足够短时无需编码即可判定
      *
      * @param key 缓存 key
-     * @param cacheable 缓存注解
+     * @param plan 执行计划
      * @return 是否有效
      */
-    private boolean validateKeySize(String key, Cacheable cacheable) {
+    private boolean validateKeySize(String key, CachePlan plan) {
         if (key == null) {
             return false;
         }
-        int keySize = key.getBytes().length;
-        return keySize <= cacheable.maxKeySize();
+        int maxKeySize = plan.getMaxKeySize();
+        if ((long) key.length() * 3 <= maxKeySize) {
+            return true;
+        }
+        int keySize = key.getBytes(StandardCharsets.UTF_8).length;
+        return keySize <= maxKeySize;
     }
 
     /**
      * 计算缓存过期时间
      * 支持 SpEL 表达式和结果字段两种方式
      *
-     * @param cacheable 缓存注解
+     * @param plan 执行计划
      * @param args 方法参数
-     * @param paramNames 参数名称
      * @param result 方法结果
      * @return 过期时间（秒）
      */
-    private long calculateExpire(Cacheable cacheable, Object[] args, String[] paramNames, Object result) {
-        if (cacheable == null) {
-            return properties.getDefaultExpire();
-        }
-
+    private long calculateExpire(CachePlan plan, Object[] args, Object result) {
         // 优先使用 SpEL 表达式计算过期时间
-        if (cacheable.spelExpire() != null && !cacheable.spelExpire().isEmpty()) {
+        Expression spelExpire = plan.getSpelExpireExpression();
+        if (spelExpire != null) {
             try {
-                Long spelExpire = SpelUtils.evaluate(cacheable.spelExpire(), args, paramNames, Long.class);
-                if (spelExpire != null && spelExpire > 0) {
-                    return spelExpire;
+                Long expire = SpelUtils.evaluate(spelExpire, args, plan.getParamNames(), Long.class);
+                if (expire != null && expire > 0) {
+                    return expire;
                 }
             } catch (Exception e) {
-                log.warn("Failed to evaluate spel expire: {}, using default", cacheable.spelExpire(), e);
+                log.warn("Failed to evaluate spel expire: {}, using default", spelExpire.getExpressionString(), e);
             }
         }
 
         // 使用结果字段计算过期时间
-        if (cacheable.resultFieldExpire() != null && !cacheable.resultFieldExpire().isEmpty() && result != null) {
+        if (plan.getResultFieldExpire() != null && result != null) {
             try {
-                Object fieldValue = SpelUtils.extractField(result, cacheable.resultFieldExpire());
+                Object fieldValue = SpelUtils.extractField(result, plan.getResultFieldExpire());
                 if (fieldValue instanceof Long) {
                     long timestamp = (Long) fieldValue;
                     long expire = (timestamp - System.currentTimeMillis()) / 1000;
@@ -326,68 +714,87 @@ public class CacheAspect {
                     }
                 }
             } catch (Exception e) {
-                log.warn("Failed to extract expire field: {}, using default", cacheable.resultFieldExpire(), e);
+                log.warn("Failed to extract expire field: {}, using default", plan.getResultFieldExpire(), e);
             }
         }
 
         // 使用默认过期时间
-        return cacheable.expire() > 0 ? cacheable.expire() : properties.getDefaultExpire();
+        return plan.getExpire() > 0 ? plan.getExpire() : properties.getDefaultExpire();
     }
 
     /**
      * 序列化并压缩对象
+     * 优化：序列化和压缩都写入池化缓冲区，只在最后拷贝一次得到写入缓存的数组
      *
      * @param result 待序列化的对象
-     * @param cacheable 缓存注解
+     * @param plan 执行计划
      * @return 序列化后的字节数组
      */
-    private byte[] serializeAndCompress(Object result, Cacheable cacheable) {
+    private byte[] serializeAndCompress(Object result, CachePlan plan) {
         if (result == null) {
             return null;
         }
 
+        PooledBuffer buffer = PooledBuffer.acquire();
         try {
-            byte[] data = SerializerUtils.serialize(result);
-            if (data == null) {
+            if (!serializer(plan).serialize(result, buffer)) {
                 log.warn("Serialization returned null for object: {}", result.getClass().getName());
                 return null;
             }
 
             // 根据配置决定是否压缩
-            if (cacheable.zip() && data.length >= cacheable.zipThreshold()) {
-                try {
-                    return CompressUtils.compress(data);
-                } catch (Exception e) {
-                    log.error("Compression failed, using uncompressed data, error: {}", e.getMessage(), e);
-                    return data;
+            if (plan.isZip()) {
+                // 开启压缩的缓存总是写入头部：未达到阈值、压缩后不比原始数据小或压缩失败时写入未压缩数据
+                if (buffer.size() >= plan.getZipThreshold()) {
+                    try {
+                        return codecRegistry.compress(buffer.array(), 0, buffer.size(), plan.getCompressionCodec());
+                    } catch (Exception e) {
+                        log.error("Compression failed, using uncompressed data, error: {}", e.getMessage(), e);
+                    }
                 }
+                return codecRegistry.stored(buffer.array(), 0, buffer.size());
             }
-            return data;
+            return buffer.toByteArray();
         } catch (Exception e) {
             log.error("Serialization failed for object: {}, error: {}", result.getClass().getName(), e.getMessage(), e);
             return null;
+        } finally {
+            buffer.release();
         }
     }
 
+    /**
+     * 执行计划解析后的序列化器；启动后才创建的 Bean（如懒加载）的执行计划在首次使用时解析
+     *
+     * @param plan 执行计划
+     * @return 序列化器
+     */
+    private CacheSerializer serializer(CachePlan plan) {
+        CacheSerializer serializer = plan.getSerializer();
+        return serializer != null ? serializer : plan.bind(serializerRegistry, codecRegistry).getSerializer();
+    }
+
     /**
      * 反序列化对象
      *
      * @param data 序列化的字节数组
-     * @param returnType 返回类型
-     * @param cacheable 缓存注解
-     * @return 反序列化后的对象
+     * @param plan 执行计划
+     * @return 反序列化后的对象，无法解压或反序列化时返回 {@link #MISS}
      */
-    private Object deserialize(byte[] data, Class<?> returnType, Cacheable cacheable) {
+    private Object deserialize(byte[] data, CachePlan plan) {
         if (data == null || data.length == 0) {
-            return null;
+            return MISS;
         }
 
+        Class<?> valueType = plan.getValueType();
         try {
-            byte[] uncompressed = cacheable.zip() ? CompressUtils.decompress(data) : data;
-            return SerializerUtils.deserialize(uncompressed, returnType);
+            // 按头部选择解压算法，与当前 zip / zipCodec 配置无关
+            byte[] uncompressed = codecRegistry.decompress(data, plan.isZip());
+            Object value = serializer(plan).deserialize(uncompressed, valueType, plan.getValueGenericType());
+            return value != null ? value : MISS;
         } catch (Exception e) {
-            log.error("Deserialization failed for type: {}, error: {}", returnType.getName(), e.getMessage(), e);
-            return null;
+            log.error("Deserialization failed for type: {}, error: {}", valueType.getName(), e.getMessage(), e);
+            return MISS;
         }
     }
 
@@ -0,0 +1,116 @@
+package com.mx.cache.aspect;
+
+import com.mx.cache.cache.MultiLevelCacheManager;
+import com.mx.cache.key.KeyGenerators;
+import com.mx.cache.metadata.CacheAnnotationScanner;
+import com.mx.cache.metadata.CacheEvictPlan;
+import com.mx.cache.util.SpelUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Slf4j
+@Aspect
+@RequiredArgsConstructor
+public class CacheEvictAspect {
+
+    private final CacheAnnotationScanner annotationScanner;
+    private final MultiLevelCacheManager cacheManager;
+
+    @Around("@annotation(com.mx.cache.annotation.CacheEvict)")
+    public Object aroundEvict(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        // 预编译的执行计划：热路径不再读取注解、不再查找表达式缓存
+        CacheEvictPlan plan = annotationScanner.getEvictPlan(method);
+        if (plan == null) {
+            return joinPoint.proceed();
+        }
+
+        Object[] args = joinPoint.getArgs();
+        if (!isConditionMet(plan, args)) {
+            return joinPoint.proceed();
+        }
+
+        // 在方法执行前计算 key，避免方法修改参数后删除错误的 key
+        List<String> keys = plan.isAllEntries() ? null : resolveKeys(plan, method, args);
+        List<String> tags = plan.getTagsExpression() == null ? Collections.emptyList()
+                : SpelUtils.toStringList(SpelUtils.evaluate(plan.getTagsExpression(), args, plan.getParamNames(),
+                Object.class));
+        if (plan.isBeforeInvocation()) {
+            evict(plan, keys, tags);
+            return joinPoint.proceed();
+        }
+
+        Object result = joinPoint.proceed();
+        evict(plan, keys, tags);
+        return result;
+    }
+
+    private void evict(CacheEvictPlan plan, List<String> keys, List<String> tags) {
+        TransactionSupport.run(plan.isAfterCommit(), () -> {
+            if (!tags.isEmpty()) {
+                try {
+                    cacheManager.evictByTag(tags);
+                } catch (Exception e) {
+                    log.error("Cache evict by tags failed, tags: {}, error: {}", tags, e.getMessage(), e);
+                }
+            }
+            for (String cacheName : plan.getCacheNames()) {
+                try {
+                    if (plan.isAllEntries()) {
+                        cacheManager.clear(cacheName, plan.getCacheLevels());
+                        continue;
+                    }
+                    String keyPrefix = cacheManager.keyPrefix(cacheName);
+                    List<String> cacheKeys = new ArrayList<>(keys.size());
+                    for (String key : keys) {
+                        cacheKeys.add(keyPrefix + key);
+                    }
+                    // 批量删除：远程缓存一次往返 UNLINK 全部 key
+                    cacheManager.evict(cacheName, cacheKeys, plan.getCacheLevels());
+                } catch (Exception e) {
+                    log.error("Cache evict failed, cacheName: {}, error: {}", cacheName, e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 计算要删除的 key（不含 cacheName:: 前缀），与 @Cacheable 生成的 key 一致
+     *
+     * @param plan 执行计划
+     * @param method 方法
+     * @param args 方法参数
+     * @return key 列表
+     */
+    private List<String> resolveKeys(CacheEvictPlan plan, Method method, Object[] args) {
+        List<String> keys = new ArrayList<>();
+        if (plan.getKeyGenerator() != null) {
+            String key = plan.getKeyGenerator().generate(method, args);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        if (plan.getKeysExpression() != null) {
+            keys.addAll(KeyGenerators.toKeyStrings(
+                    SpelUtils.evaluate(plan.getKeysExpression(), args, plan.getParamNames(), Object.class)));
+        }
+        return keys;
+    }
+
+    private boolean isConditionMet(CacheEvictPlan plan, Object[] args) {
+        if (plan.getConditionExpression() == null) {
+            return true;
+        }
+        Boolean result = SpelUtils.evaluate(plan.getConditionExpression(), args, plan.getParamNames(), Boolean.class);
+        return result != null && result;
+    }
+}
@@ -0,0 +1,52 @@
+package com.mx.cache.aspect;
+
+import com.mx.cache.metadata.CachePlan;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Reactor 返回值适配
+ * 只在方法返回 Mono/Flux 时才会被加载，classpath 中没有 reactor-core 时不影响其他功能
+ */
+final class ReactiveCacheSupport {
+
+    private ReactiveCacheSupport() {
+    }
+
+    /**
+     * 将 Mono/Flux 转为 future，Flux 收集为 List 后作为一个缓存值
+     *
+     * @param publisher 目标方法返回的 Mono/Flux
+     * @return 解析后的值，Mono 为空时完成为 null
+     */
+    @SuppressWarnings("unchecked")
+    static CompletableFuture<Object> toFuture(Object publisher) {
+        if (publisher instanceof Mono) {
+            return ((Mono<Object>) publisher).toFuture();
+        }
+        if (publisher instanceof Flux) {
+            return ((Flux<Object>) publisher).collectList().<Object>map(list -> list).toFuture();
+        }
+        return CompletableFuture.completedFuture(publisher);
+    }
+
+    /**
+     * 将缓存查询包装为 Mono/Flux，每次订阅执行一次查询
+     * 取消订阅不会取消共享的回源 future，避免影响合并在同一次回源上的其他调用方
+     *
+     * @param kind 返回值形态
+     * @param supplier 缓存查询
+     * @return Mono 或 Flux
+     */
+    @SuppressWarnings("unchecked")
+    static Object fromFuture(CachePlan.ReturnKind kind, Supplier<CompletableFuture<Object>> supplier) {
+        Mono<Object> mono = Mono.fromFuture(supplier, true);
+        if (kind == CachePlan.ReturnKind.FLUX) {
+            return mono.flatMapIterable(value -> (Iterable<Object>) value);
+        }
+        return mono;
+    }
+}
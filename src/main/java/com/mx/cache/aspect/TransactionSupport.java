@@ -0,0 +1,49 @@
+package com.mx.cache.aspect;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 事务提交后执行缓存操作（spring-tx 不在类路径或当前没有事务时立即执行）
+ */
+@Slf4j
+final class TransactionSupport {
+    private static final boolean TX_PRESENT = ClassUtils.isPresent(
+            "org.springframework.transaction.support.TransactionSynchronizationManager",
+            TransactionSupport.class.getClassLoader());
+
+    private TransactionSupport() {
+    }
+
+    /**
+     * 执行缓存操作
+     *
+     * @param afterCommit 是否延迟到事务提交后执行
+     * @param action 缓存操作
+     */
+    static void run(boolean afterCommit, Runnable action) {
+        if (afterCommit && TX_PRESENT && registerAfterCommit(action)) {
+            return;
+        }
+        action.run();
+    }
+
+    private static boolean registerAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    action.run();
+                } catch (Exception e) {
+                    log.error("Cache operation after commit failed, error: {}", e.getMessage(), e);
+                }
+            }
+        });
+        return true;
+    }
+}
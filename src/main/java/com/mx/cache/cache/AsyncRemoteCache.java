@@ -0,0 +1,306 @@
+package com.mx.cache.cache;
+
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 基于 Lettuce 原生异步命令的远程缓存
+ * 所有方法立即返回 CompletionStage，调用线程不等待 Redis 往返；
+ * 同一连接上的命令由 Lettuce 自动流水线发送，多个读写可以重叠执行；已发出但未完成的写入会被登记，
+ * 供删除前 {@link #awaitPendingWrites()} 等待，保证 DEL 不会被更早的 SET 覆盖。
+ * 与 {@link RemoteCache} 一致：key 按 UTF-8 编码，value 为原始字节，出错时记录日志并降级（读返回 null，写忽略）
+ */
+@Slf4j
+public class AsyncRemoteCache implements AutoCloseable {
+    private final LettuceConnectionFactory connectionFactory;
+    private volatile StatefulConnection<byte[], byte[]> connection;
+    private volatile RedisClusterAsyncCommands<byte[], byte[]> commands;
+    private final Set<CompletableFuture<?>> pendingWrites = ConcurrentHashMap.newKeySet();
+    private final Object flushLock = new Object();
+
+    public AsyncRemoteCache(LettuceConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * 获取单个缓存值
+     *
+     * @param key 缓存 key
+     * @return 缓存值，不存在或出错时完成为 null
+     */
+    public CompletionStage<byte[]> get(String key) {
+        if (key == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return commands().get(encode(key)).exceptionally(e -> {
+                log.error("Redis async get error, key: {}, error: {}", key, e.getMessage());
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Redis async get error, key: {}, error: {}", key, e.getMessage(), e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * 批量获取缓存（MGET，集群模式下由 Lettuce 按 slot 拆分后并行发送）
+     *
+     * @param keys 缓存 key 列表
+     * @return key -> value 映射，不存在的 key 不会出现在结果中
+     */
+    public CompletionStage<Map<String, byte[]>> pipelineMget(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> async = commands();
+            byte[][] encoded = new byte[keys.size()][];
+            for (int i = 0; i < keys.size(); i++) {
+                encoded[i] = encode(keys.get(i));
+            }
+            return async.mget(encoded).thenApply(values -> {
+                Map<String, byte[]> resultMap = new HashMap<>();
+                for (int i = 0; i < keys.size() && i < values.size(); i++) {
+                    KeyValue<byte[], byte[]> value = values.get(i);
+                    if (value.hasValue()) {
+                        resultMap.put(keys.get(i), value.getValue());
+                    }
+                }
+                return resultMap;
+            }).exceptionally(e -> {
+                log.error("Redis async mget error, keys count: {}, error: {}", keys.size(), e.getMessage());
+                return Collections.emptyMap();
+            });
+        } catch (Exception e) {
+            log.error("Redis async mget error, keys count: {}, error: {}", keys.size(), e.getMessage(), e);
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+    }
+
+    /**
+     * 写入单个缓存值（SET key value PX expire）
+     *
+     * @param key 缓存 key
+     * @param value 缓存值
+     * @param expire 过期时间
+     * @param unit 时间单位
+     * @return 写入完成（出错时也正常完成）
+     */
+    public CompletionStage<Void> put(String key, byte[] value, long expire, TimeUnit unit) {
+        return put(key, value, expire, unit, Collections.emptyList());
+    }
+
+    /**
+     * 写入缓存值并登记标签索引：SET 与各标签的 EVAL 在关闭自动 flush 的窗口内入队，一次 flush 作为同一流水线发送
+     *
+     * @param key 缓存 key
+     * @param value 缓存值
+     * @param expire 过期时间
+     * @param unit 时间单位
+     * @param tagKeys 标签索引 key，可为空
+     * @return 值与标签全部写入完成（出错时也正常完成）
+     */
+    public CompletionStage<Void> put(String key, byte[] value, long expire, TimeUnit unit, List<String> tagKeys) {
+        if (key == null || value == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long expireMillis = Math.max(1, unit.toMillis(expire));
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> async = commands();
+            if (tagKeys == null || tagKeys.isEmpty()) {
+                return track(set(async, key, value, expireMillis));
+            }
+            List<CompletableFuture<?>> writes = new ArrayList<>(tagKeys.size() + 1);
+            synchronized (flushLock) {
+                StatefulConnection<byte[], byte[]> current = connection;
+                current.setAutoFlushCommands(false);
+                try {
+                    writes.add(set(async, key, value, expireMillis));
+                    writes.addAll(tag(async, key, tagKeys, expireMillis));
+                } finally {
+                    // 先恢复自动 flush 再 flush：窗口内其他线程入队的命令也会随本次 flush 发出
+                    current.setAutoFlushCommands(true);
+                    current.flushCommands();
+                }
+            }
+            return track(CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])));
+        } catch (Exception e) {
+            log.error("Redis async put error, key: {}, error: {}", key, e.getMessage(), e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * 批量写入并设置过期时间，命令由 Lettuce 流水线发送
+     *
+     * @param items key -> value 映射
+     * @param expire 过期时间
+     * @param unit 时间单位
+     * @return 全部写入完成
+     */
+    public CompletionStage<Void> pipelinePut(Map<String, byte[]> items, long expire, TimeUnit unit) {
+        if (items == null || items.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<?>[] writes = items.entrySet().stream()
+                .map(entry -> put(entry.getKey(), entry.getValue(), expire, unit).toCompletableFuture())
+                .toArray(CompletableFuture<?>[]::new);
+        return CompletableFuture.allOf(writes);
+    }
+
+    /**
+     * 等待此前已发出的写入全部完成
+     * 删除走 RedisTemplate 的连接，与本连接上的 SET 没有先后保证；删除前先等待，避免 DEL 被更早的 SET 覆盖。
+     * 最长等待连接工厂的命令超时时间，超时后记录告警并继续
+     */
+    public void awaitPendingWrites() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        long timeoutMillis = Math.max(1, connectionFactory.getTimeout());
+        CompletableFuture<?>[] writes = pendingWrites.toArray(new CompletableFuture<?>[0]);
+        try {
+            CompletableFuture.allOf(writes).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            log.warn("Redis async writes still pending after {} ms, count: {}", timeoutMillis, writes.length);
+        } catch (ExecutionException e) {
+            // 写入失败已在各自的回调中记录
+        }
+    }
+
+    /**
+     * 删除缓存
+     *
+     * @param key 缓存 key
+     * @return 删除完成（出错时也正常完成）
+     */
+    public CompletionStage<Void> evict(String key) {
+        if (key == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return commands().del(encode(key)).handle((count, e) -> {
+                if (e != null) {
+                    log.error("Redis async evict error, key: {}, error: {}", key, e.getMessage());
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Redis async evict error, key: {}, error: {}", key, e.getMessage(), e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    @Override
+    public void close() {
+        StatefulConnection<byte[], byte[]> current = connection;
+        if (current != null) {
+            current.closeAsync();
+            connection = null;
+            commands = null;
+            pendingWrites.clear();
+        }
+    }
+
+    /**
+     * 延迟建立独立的 byte[] 连接，复用 LettuceConnectionFactory 的客户端（地址、认证、超时等配置）
+     */
+    private RedisClusterAsyncCommands<byte[], byte[]> commands() {
+        RedisClusterAsyncCommands<byte[], byte[]> current = commands;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (commands == null) {
+                AbstractRedisClient client = connectionFactory.getRequiredNativeClient();
+                if (client instanceof RedisClusterClient) {
+                    StatefulRedisClusterConnection<byte[], byte[]> clusterConnection =
+                            ((RedisClusterClient) client).connect(ByteArrayCodec.INSTANCE);
+                    connection = clusterConnection;
+                    commands = clusterConnection.async();
+                } else {
+                    StatefulRedisConnection<byte[], byte[]> standaloneConnection =
+                            ((RedisClient) client).connect(ByteArrayCodec.INSTANCE);
+                    connection = standaloneConnection;
+                    commands = standaloneConnection.async();
+                }
+                log.info("AsyncRemoteCache connected, client: {}", client.getClass().getSimpleName());
+            }
+            return commands;
+        }
+    }
+
+    private static CompletableFuture<Void> set(RedisClusterAsyncCommands<byte[], byte[]> async, String key,
+                                               byte[] value, long expireMillis) {
+        return async.set(encode(key), value, SetArgs.Builder.px(expireMillis)).toCompletableFuture()
+                .handle((reply, e) -> {
+                    if (e != null) {
+                        log.error("Redis async put error, key: {}, expire: {} ms, error: {}",
+                                key, expireMillis, e.getMessage());
+                    }
+                    return null;
+                });
+    }
+
+    private static List<CompletableFuture<Void>> tag(RedisClusterAsyncCommands<byte[], byte[]> async, String key,
+                                                     List<String> tagKeys, long expireMillis) {
+        long now = System.currentTimeMillis();
+        byte[][] args = {encode(key), encode(Long.toString(now + expireMillis)), encode(Long.toString(now)),
+                encode(Long.toString(expireMillis))};
+        List<CompletableFuture<Void>> writes = new ArrayList<>(tagKeys.size());
+        for (String tagKey : tagKeys) {
+            writes.add(async.<Long>eval(RemoteCache.TAG_SCRIPT, ScriptOutputType.INTEGER,
+                    new byte[][]{encode(tagKey)}, args).toCompletableFuture().handle((reply, e) -> {
+                        if (e != null) {
+                            log.error("Redis async tag error, key: {}, tag key: {}, error: {}",
+                                    key, tagKey, e.getMessage());
+                        }
+                        return null;
+                    }));
+        }
+        return writes;
+    }
+
+    /**
+     * 登记未完成的写入，完成后自动移除
+     */
+    private CompletableFuture<Void> track(CompletableFuture<Void> write) {
+        if (!write.isDone()) {
+            pendingWrites.add(write);
+            write.whenComplete((reply, e) -> pendingWrites.remove(write));
+        }
+        return write;
+    }
+
+    private static byte[] encode(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,100 @@
+package com.mx.cache.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 缓存值信封：在序列化数据前附加逻辑过期时间和回源耗时
+ * 格式 v2：[MAGIC(1)][VERSION(1)][softExpireAt(8)][loadCostMillis(4)][payload]
+ * 格式 v1：[MAGIC(1)][VERSION(1)][softExpireAt(8)][payload]（仅读取兼容）
+ * 仅启用 staleWhileRevalidate 或 earlyRefreshBeta 的缓存会写入信封
+ */
+public final class CacheEnvelope {
+    private static final byte MAGIC = (byte) 0xCE;
+    private static final byte VERSION_1 = 1;
+    private static final byte VERSION_2 = 2;
+    private static final int HEADER_SIZE_V1 = 10;
+    private static final int HEADER_SIZE_V2 = 14;
+
+    private CacheEnvelope() {
+    }
+
+    /**
+     * 包装缓存值
+     *
+     * @param payload 序列化（及压缩）后的数据
+     * @param softExpireAt 逻辑过期时间戳（毫秒）
+     * @param loadCostMillis 回源耗时（毫秒）
+     * @return 带信封的数据
+     */
+    public static byte[] wrap(byte[] payload, long softExpireAt, long loadCostMillis) {
+        return ByteBuffer.allocate(HEADER_SIZE_V2 + payload.length)
+                .put(MAGIC)
+                .put(VERSION_2)
+                .putLong(softExpireAt)
+                .putInt((int) Math.min(Integer.MAX_VALUE, Math.max(0, loadCostMillis)))
+                .put(payload)
+                .array();
+    }
+
+    /**
+     * 是否为带信封的数据
+     */
+    public static boolean isWrapped(byte[] data) {
+        return headerSize(data) > 0;
+    }
+
+    /**
+     * 读取逻辑过期时间，未包装的数据视为永不逻辑过期
+     *
+     * @param data 缓存数据
+     * @return 逻辑过期时间戳（毫秒）
+     */
+    public static long softExpireAt(byte[] data) {
+        return isWrapped(data) ? ByteBuffer.wrap(data, 2, 8).getLong() : Long.MAX_VALUE;
+    }
+
+    /**
+     * 读取回源耗时，v1 或未包装的数据返回 0
+     *
+     * @param data 缓存数据
+     * @return 回源耗时（毫秒）
+     */
+    public static long loadCostMillis(byte[] data) {
+        return headerSize(data) == HEADER_SIZE_V2 ? ByteBuffer.wrap(data, 10, 4).getInt() : 0;
+    }
+
+    /**
+     * 取出原始数据，未包装的数据原样返回
+     *
+     * @param data 缓存数据
+     * @return 序列化（及压缩）后的数据
+     */
+    public static byte[] unwrap(byte[] data) {
+        int headerSize = headerSize(data);
+        return headerSize > 0 ? Arrays.copyOfRange(data, headerSize, data.length) : data;
+    }
+
+    /**
+     * 原始数据长度，未包装的数据返回整体长度
+     *
+     * @param data 缓存数据
+     * @return 序列化（及压缩）后的数据长度
+     */
+    public static int payloadLength(byte[] data) {
+        return data.length - headerSize(data);
+    }
+
+    private static int headerSize(byte[] data) {
+        if (data == null || data.length < 2 || data[0] != MAGIC) {
+            return 0;
+        }
+        if (data[1] == VERSION_2 && data.length > HEADER_SIZE_V2) {
+            return HEADER_SIZE_V2;
+        }
+        if (data[1] == VERSION_1 && data.length > HEADER_SIZE_V1) {
+            return HEADER_SIZE_V1;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,196 @@
+package com.mx.cache.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 缓存代数（版本化命名空间）
+ * 1. 启用 generational 的缓存，key 格式为 cacheName::g{代数}::key，代数保存在 Redis（keyPrefix + cacheName）
+ * 2. 各节点在内存中持有代数，读路径不增加 Redis 往返；首次使用时读取一次
+ * 3. 整体失效只需一次 INCR，旧代数的数据不再可达，随 TTL 自然过期；新代数通过 pub/sub 推送到其他节点
+ * 4. 定时从 Redis 重新读取代数，兜底丢失的推送
+ */
+@Slf4j
+public class CacheGenerations implements MessageListener {
+    private static final char SEPARATOR = '\n';
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String keyPrefix;
+    private final String channel;
+
+    /**
+     * 缓存名称 -> 本地持有的代数
+     */
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * 代数变化时的本地处理（清空本地缓存中旧代数的数据）
+     */
+    private volatile Consumer<String> changeListener;
+
+    /**
+     * @param redisTemplate Redis 模板
+     * @param keyPrefix 代数在 Redis 中的 key 前缀
+     * @param channel 代数变化的 pub/sub 频道
+     */
+    public CacheGenerations(RedisTemplate<String, String> redisTemplate, String keyPrefix, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.channel = channel;
+    }
+
+    public void setChangeListener(Consumer<String> changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * 启用指定缓存的代数（首次调用时从 Redis 读取）
+     *
+     * @param cacheName 缓存名称
+     */
+    public void enable(String cacheName) {
+        generation(cacheName);
+    }
+
+    /**
+     * 是否已启用代数
+     *
+     * @param cacheName 缓存名称
+     * @return 是否启用
+     */
+    public boolean isEnabled(String cacheName) {
+        return cacheName != null && generations.containsKey(cacheName);
+    }
+
+    /**
+     * 当前代数（内存读取）
+     *
+     * @param cacheName 缓存名称
+     * @return 代数
+     */
+    public long current(String cacheName) {
+        return generation(cacheName).get();
+    }
+
+    /**
+     * 带代数的 key 前缀
+     *
+     * @param cacheName 缓存名称
+     * @return cacheName::g{代数}::
+     */
+    public String keyPrefix(String cacheName) {
+        return cacheName + "::g" + current(cacheName) + "::";
+    }
+
+    /**
+     * 使整个缓存失效：INCR 代数并通知其他节点
+     *
+     * @param cacheName 缓存名称
+     * @return 新的代数，Redis 不可用时只在本节点递增
+     */
+    public long bump(String cacheName) {
+        AtomicLong local = generation(cacheName);
+        long next;
+        try {
+            Long value = redisTemplate.opsForValue().increment(keyPrefix + cacheName);
+            next = value != null ? value : local.get() + 1;
+        } catch (Exception e) {
+            log.error("Failed to increment cache generation, cache: {}, error: {}", cacheName, e.getMessage(), e);
+            next = local.get() + 1;
+        }
+        update(cacheName, next);
+        try {
+            redisTemplate.convertAndSend(channel, cacheName + SEPARATOR + next);
+        } catch (Exception e) {
+            log.error("Failed to publish cache generation, cache: {}, error: {}", cacheName, e.getMessage(), e);
+        }
+        log.info("Cache generation bumped, cache: {}, generation: {}", cacheName, next);
+        return next;
+    }
+
+    /**
+     * 从 Redis 重新读取所有已启用缓存的代数（一次 MGET）
+     */
+    public void refresh() {
+        if (generations.isEmpty()) {
+            return;
+        }
+        List<String> cacheNames = new ArrayList<>(generations.keySet());
+        List<String> keys = new ArrayList<>(cacheNames.size());
+        cacheNames.forEach(cacheName -> keys.add(keyPrefix + cacheName));
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            for (int i = 0; values != null && i < values.size(); i++) {
+                if (values.get(i) != null) {
+                    update(cacheNames.get(i), Long.parseLong(values.get(i)));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to refresh cache generations, error: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int index = body.lastIndexOf(SEPARATOR);
+        if (index <= 0) {
+            return;
+        }
+        String cacheName = body.substring(0, index);
+        // 只更新本节点已启用的缓存
+        if (!isEnabled(cacheName)) {
+            return;
+        }
+        try {
+            update(cacheName, Long.parseLong(body.substring(index + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid cache generation message: {}", body);
+        }
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    private AtomicLong generation(String cacheName) {
+        AtomicLong generation = generations.get(cacheName);
+        return generation != null ? generation : generations.computeIfAbsent(cacheName, this::load);
+    }
+
+    private AtomicLong load(String cacheName) {
+        try {
+            String value = redisTemplate.opsForValue().get(keyPrefix + cacheName);
+            return new AtomicLong(value != null ? Long.parseLong(value) : 0L);
+        } catch (Exception e) {
+            // 读取失败时从 0 开始，由定时刷新修正
+            log.error("Failed to load cache generation, cache: {}, error: {}", cacheName, e.getMessage(), e);
+            return new AtomicLong();
+        }
+    }
+
+    /**
+     * 代数只增不减，乱序到达的旧消息被忽略
+     */
+    private void update(String cacheName, long generation) {
+        AtomicLong local = generation(cacheName);
+        long previous = local.getAndAccumulate(generation, Math::max);
+        if (generation > previous) {
+            log.debug("Cache generation updated, cache: {}, generation: {} -> {}", cacheName, previous, generation);
+            Consumer<String> listener = changeListener;
+            if (listener != null) {
+                listener.accept(cacheName);
+            }
+        }
+    }
+}
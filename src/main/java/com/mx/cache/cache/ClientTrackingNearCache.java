@@ -0,0 +1,221 @@
+package com.mx.cache.cache;
+
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushListener;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * 基于 Redis 6+ 客户端缓存（RESP3 CLIENT TRACKING，BCAST 模式）的本地缓存一致性
+ * 1. 在独立的 Lettuce 连接上按缓存名称前缀（cacheName::）开启广播模式跟踪
+ * 2. Redis 中这些 key 被修改、删除或过期时推送 invalidate 消息，转交给本地缓存清除对应 key
+ * 3. 连接重建后重新开启跟踪并清空本地缓存（断线期间的失效通知已丢失）
+ * 4. 每次失效先递增 key 所在分段的失效序号再清除本地缓存；远程读取前通过 {@link #stamp} 记下序号，
+ *    读取期间收到失效时不回填本地缓存和磁盘缓存，避免把已失效的旧值写回（分段共享序号，冲突时只是少一次回填）
+ * BCAST 模式下本节点写入 Redis 同样会收到失效通知（跟踪连接与数据连接不同，NOLOOP 不生效），
+ * 本节点写入后本地缓存和磁盘缓存中的该 key 也会被清除，下次读取从 Redis 回填
+ * 仅支持单机/哨兵模式，且需要 RESP3 协议（Lettuce 6 默认协商）
+ */
+@Slf4j
+public class ClientTrackingNearCache implements AutoCloseable {
+    private static final String INVALIDATE = "invalidate";
+    private static final String KEY_SEPARATOR = "::";
+    private static final int INVALIDATION_STRIPES = 1024;
+
+    private final LettuceConnectionFactory connectionFactory;
+    private final Consumer<String> keyInvalidator;
+    private final Runnable flushAll;
+
+    /**
+     * 已开启跟踪的 key 前缀
+     */
+    private final Set<String> prefixes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 按 key 哈希分段的失效序号，以及清空全部本地缓存的次数
+     */
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+    private final AtomicLong flushes = new AtomicLong();
+
+    private volatile StatefulRedisConnection<String, String> connection;
+    private volatile RedisConnectionStateListener stateListener;
+
+    /**
+     * @param connectionFactory Lettuce 连接工厂，复用其客户端配置
+     * @param keyInvalidator 清除单个本地缓存 key
+     * @param flushAll 清空全部本地缓存（Redis FLUSHDB/FLUSHALL 或断线重连时）
+     */
+    public ClientTrackingNearCache(LettuceConnectionFactory connectionFactory, Consumer<String> keyInvalidator,
+                                   Runnable flushAll) {
+        this.connectionFactory = connectionFactory;
+        this.keyInvalidator = keyInvalidator;
+        this.flushAll = flushAll;
+    }
+
+    /**
+     * 建立跟踪连接
+     *
+     * @return 是否启用成功（集群模式等不支持时返回 false）
+     */
+    public synchronized boolean start() {
+        if (connection != null) {
+            return true;
+        }
+        AbstractRedisClient client = connectionFactory.getRequiredNativeClient();
+        if (!(client instanceof RedisClient)) {
+            log.warn("Client tracking near cache only supports standalone/sentinel Redis, client: {}",
+                    client.getClass().getSimpleName());
+            return false;
+        }
+        StatefulRedisConnection<String, String> trackingConnection = ((RedisClient) client).connect(StringCodec.UTF8);
+        trackingConnection.addListener((PushListener) this::onPush);
+        RedisConnectionStateListener listener = new RedisConnectionStateListener() {
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress address) {
+                if (handler == connection) {
+                    onReconnected();
+                }
+            }
+        };
+        client.addListener(listener);
+        this.stateListener = listener;
+        this.connection = trackingConnection;
+        prefixes.forEach(this::enableTracking);
+        log.info("Client tracking near cache started");
+        return true;
+    }
+
+    /**
+     * 跟踪指定缓存的全部 key（前缀 cacheName::）
+     *
+     * @param cacheName 缓存名称
+     */
+    public void track(String cacheName) {
+        String prefix = cacheName + KEY_SEPARATOR;
+        if (prefixes.add(prefix) && connection != null) {
+            enableTracking(prefix);
+        }
+    }
+
+    /**
+     * 当前的失效序号，远程读取前调用
+     *
+     * @param key 缓存 key
+     * @return 失效序号
+     */
+    public long stamp(String key) {
+        return flushes.get() + invalidations.get(stripe(key));
+    }
+
+    /**
+     * 记下序号后 key 是否可能已被失效（包括同一分段的其他 key 失效、清空全部本地缓存）
+     *
+     * @param key 缓存 key
+     * @param stamp {@link #stamp} 的结果
+     * @return 是否可能已失效
+     */
+    public boolean isInvalidatedSince(String key, long stamp) {
+        return stamp(key) != stamp;
+    }
+
+    @Override
+    public synchronized void close() {
+        StatefulRedisConnection<String, String> current = connection;
+        connection = null;
+        RedisConnectionStateListener listener = stateListener;
+        if (listener != null) {
+            connectionFactory.getRequiredNativeClient().removeListener(listener);
+            stateListener = null;
+        }
+        if (current != null) {
+            current.closeAsync();
+        }
+    }
+
+    private void enableTracking(String prefix) {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current == null) {
+            return;
+        }
+        // BCAST 模式下重复执行 CLIENT TRACKING ON 会追加前缀
+        current.async().clientTracking(TrackingArgs.Builder.enabled().bcast().prefixes(prefix))
+                .whenComplete((reply, e) -> {
+                    if (e != null) {
+                        log.error("Failed to enable client tracking, prefix: {}, error: {}", prefix, e.getMessage());
+                    } else {
+                        log.debug("Client tracking enabled, prefix: {}", prefix);
+                    }
+                });
+    }
+
+    private void onReconnected() {
+        log.info("Client tracking connection re-established, re-enabling tracking and clearing local caches");
+        prefixes.forEach(this::enableTracking);
+        flush();
+    }
+
+    void onPush(PushMessage message) {
+        if (!INVALIDATE.equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        Object keys = content.size() > 1 ? content.get(1) : null;
+        // keys 为 null 表示 FLUSHDB/FLUSHALL
+        if (!(keys instanceof List)) {
+            flush();
+            return;
+        }
+        for (Object key : (List<?>) keys) {
+            if (key instanceof String) {
+                invalidate((String) key);
+            } else if (key instanceof ByteBuffer) {
+                invalidate(StringCodec.UTF8.decodeKey((ByteBuffer) key));
+            }
+        }
+    }
+
+    /**
+     * 先递增序号再清除：回填方写入后再检查一次序号，两者至少有一方能看到对方
+     */
+    private void invalidate(String key) {
+        invalidations.incrementAndGet(stripe(key));
+        keyInvalidator.accept(key);
+    }
+
+    private void flush() {
+        flushes.incrementAndGet();
+        flushAll.run();
+    }
+
+    private static int stripe(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (INVALIDATION_STRIPES - 1);
+    }
+
+    /**
+     * 从缓存 key 中取出缓存名称（key 格式为 cacheName::...）
+     *
+     * @param key 缓存 key
+     * @return 缓存名称，格式不符时返回 null
+     */
+    public static String cacheNameOf(String key) {
+        int index = key.indexOf(KEY_SEPARATOR);
+        return index > 0 ? key.substring(0, index) : null;
+    }
+}
@@ -0,0 +1,818 @@
+package com.mx.cache.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 基于内存映射文件的本地磁盘缓存（位于本地缓存与 Redis 之间），适合体积大、变化少的数据
+ * 1. 日志结构：写入和删除（墓碑）顺序追加到当前 segment 文件，写满后封存并开启新的 segment
+ * 2. 内存索引 key -> (segment, offset, 过期时间)；segment 封存后在后台线程写出 hint 文件（只含 key 和位置），
+ *    重启时从 hint 文件及最后一个 segment 的记录重建索引，节点重新部署后直接带着数据启动
+ * 3. 停机期间错过的失效消息无法补偿，恢复的数据最多再保留 recoveryTtlMillis，为 0 时重启丢弃全部数据
+ * 4. {@link #compact()} 把失效数据占比超过阈值的 segment 中的存活记录搬到当前 segment 后删除文件；
+ *    总大小超过上限时淘汰最旧的 segment
+ * 5. segment 按引用计数管理映射：读取、封存、压缩期间持有引用，删除后最后一个引用释放时立即解除映射，
+ *    磁盘空间随之归还，不等待 GC 回收 MappedByteBuffer，maxSize 是实际的磁盘占用上限
+ * 记录带 CRC32C 校验，进程崩溃时写了一半的记录在恢复和读取时被丢弃
+ * 所有缓存共享一个实例，key 为完整缓存 key（cacheName::...）
+ */
+@Slf4j
+public class DiskCache implements AutoCloseable {
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String HINT_SUFFIX = ".hint";
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    /**
+     * 记录头：crc(4) + expireAt(8) + keyLength(4) + valueLength(4)，valueLength 为 -1 表示墓碑
+     */
+    private static final int HEADER_SIZE = 20;
+    private static final int TOMBSTONE = -1;
+
+    /**
+     * 解除内存映射（sun.misc.Unsafe#invokeCleaner），不可用时为 null，映射等待 GC 回收
+     */
+    private static final MethodHandle UNMAPPER = unmapper();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final double compactionThreshold;
+    private final long recoveryTtlMillis;
+    private final Executor sealExecutor;
+
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    /**
+     * 尚未解除映射的 segment 数量（包括已删除但仍有读取在进行的 segment）
+     */
+    private final AtomicInteger mappedSegments = new AtomicInteger();
+
+    /**
+     * 追加写入、索引更新、segment 切换互斥，保证索引顺序与日志顺序一致
+     */
+    private final Object writeLock = new Object();
+    private Segment active;
+    private long nextSegmentId;
+    private volatile boolean open;
+
+    /**
+     * @param directory 数据目录
+     * @param segmentSize 单个 segment 文件大小（字节），也是单条记录的最大大小
+     * @param maxSize 磁盘占用上限（字节）
+     * @param compactionThreshold 失效数据占比达到该值的 segment 参与压缩
+     * @param recoveryTtlMillis 重启时恢复的数据最多再保留的时间（毫秒），0 表示重启时丢弃全部数据
+     * @param sealExecutor 封存 segment（刷盘、写 hint 文件）的线程池，不占用写入线程和 writeLock
+     */
+    public DiskCache(String directory, int segmentSize, long maxSize, double compactionThreshold,
+                     long recoveryTtlMillis, Executor sealExecutor) {
+        this.directory = Paths.get(directory);
+        this.segmentSize = Math.max(HEADER_SIZE * 64, segmentSize);
+        this.maxSegments = (int) Math.max(2, maxSize / this.segmentSize);
+        this.compactionThreshold = compactionThreshold > 0 ? Math.min(compactionThreshold, 1.0) : 0.5;
+        this.recoveryTtlMillis = Math.max(0, recoveryTtlMillis);
+        this.sealExecutor = sealExecutor;
+    }
+
+    /**
+     * 打开数据目录并恢复索引
+     *
+     * @return 是否打开成功（目录不可写等情况返回 false）
+     */
+    public boolean open() {
+        synchronized (writeLock) {
+            if (open) {
+                return true;
+            }
+            try {
+                Files.createDirectories(directory);
+                recover();
+                open = true;
+                log.info("Disk cache opened, directory: {}, segments: {}, entries: {}",
+                        directory, segments.size(), index.size());
+                return true;
+            } catch (IOException e) {
+                log.error("Failed to open disk cache, directory: {}, error: {}", directory, e.getMessage(), e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 读取缓存值
+     *
+     * @param key 缓存 key
+     * @return 缓存值，不存在、已过期或记录损坏时返回 null
+     */
+    public byte[] get(String key) {
+        Entry entry = index.get(key);
+        // segment 已被压缩或淘汰时索引已指向新位置或已删除，重新查找一次
+        if (entry != null && !entry.segment.retain()) {
+            entry = index.get(key);
+            if (entry != null && !entry.segment.retain()) {
+                return null;
+            }
+        }
+        if (entry == null) {
+            return null;
+        }
+        try {
+            if (entry.expireAt <= System.currentTimeMillis()) {
+                if (index.remove(key, entry)) {
+                    entry.segment.addGarbage(entry.recordLength());
+                }
+                return null;
+            }
+            ByteBuffer buffer = entry.segment.buffer;
+            if (!checksumValid(buffer, entry.offset, entry.recordLength())) {
+                log.warn("Disk cache record corrupted, key: {}, segment: {}", key, entry.segment.id);
+                if (index.remove(key, entry)) {
+                    entry.segment.addGarbage(entry.recordLength());
+                }
+                return null;
+            }
+            byte[] value = new byte[entry.valueLength];
+            buffer.get(entry.offset + HEADER_SIZE + entry.keyLength, value);
+            return value;
+        } finally {
+            release(entry.segment);
+        }
+    }
+
+    /**
+     * 写入缓存值
+     *
+     * @param key 缓存 key
+     * @param value 缓存值
+     * @param expireMillis 过期时间（毫秒）
+     * @return 是否写入成功（超过 segment 大小或磁盘缓存未打开时返回 false）
+     */
+    public boolean put(String key, byte[] value, long expireMillis) {
+        if (key == null || value == null || expireMillis <= 0) {
+            return false;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (HEADER_SIZE + keyBytes.length + value.length > segmentSize) {
+            return false;
+        }
+        long expireAt = System.currentTimeMillis() + expireMillis;
+        synchronized (writeLock) {
+            if (!open) {
+                return false;
+            }
+            try {
+                Entry entry = append(keyBytes, value, value.length, expireAt);
+                replace(key, entry);
+                return true;
+            } catch (IOException e) {
+                log.error("Disk cache write failed, key: {}, error: {}", key, e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 删除缓存值，写入墓碑保证重启后不会复活
+     *
+     * @param key 缓存 key
+     */
+    public void evict(String key) {
+        if (!index.containsKey(key)) {
+            return;
+        }
+        synchronized (writeLock) {
+            Entry old = index.remove(key);
+            if (old == null) {
+                return;
+            }
+            old.segment.addGarbage(old.recordLength());
+            if (!open || old.expireAt <= System.currentTimeMillis()) {
+                return;
+            }
+            try {
+                // 墓碑只需存活到被覆盖记录的过期时间
+                Entry tombstone = append(key.getBytes(StandardCharsets.UTF_8), null, TOMBSTONE, old.expireAt);
+                tombstone.segment.addGarbage(tombstone.recordLength());
+            } catch (IOException e) {
+                log.error("Disk cache tombstone write failed, key: {}, error: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 删除指定前缀（如 cacheName::）的全部 key
+     *
+     * @param prefix key 前缀
+     * @return 删除的 key 数量
+     */
+    public int clear(String prefix) {
+        int count = 0;
+        for (String key : index.keySet()) {
+            if (key.startsWith(prefix)) {
+                evict(key);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 清空全部数据并删除所有 segment 文件
+     */
+    public void clear() {
+        synchronized (writeLock) {
+            index.clear();
+            for (Segment segment : new ArrayList<>(segments.values())) {
+                deleteSegment(segment);
+            }
+            active = null;
+            if (open) {
+                try {
+                    active = createSegment();
+                } catch (IOException e) {
+                    open = false;
+                    log.error("Failed to create disk cache segment, disk cache disabled, error: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 压缩失效数据占比超过阈值的已封存 segment（由调度线程定时调用）
+     */
+    public void compact() {
+        if (!open) {
+            return;
+        }
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment == active || !segments.containsKey(segment.id)
+                    || segment.garbageBytes.get() < segment.size * compactionThreshold) {
+                continue;
+            }
+            try {
+                compact(segment);
+            } catch (Exception e) {
+                log.error("Disk cache compaction failed, segment: {}, error: {}", segment.id, e.getMessage(), e);
+            }
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * 尚未解除映射的 segment 数量，没有进行中的读取时与 {@link #getSegmentCount()} 相同
+     */
+    int getMappedSegmentCount() {
+        return mappedSegments.get();
+    }
+
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            if (!open) {
+                return;
+            }
+            open = false;
+            // 当前 segment 不封存，重启时扫描其中的记录继续追加
+            if (active != null) {
+                active.buffer.force();
+            }
+            log.info("Disk cache closed, segments: {}, entries: {}", segments.size(), index.size());
+            // 关闭后不再读取，释放全部映射（进行中的读取结束后解除）
+            index.clear();
+            for (Segment segment : new ArrayList<>(segments.values())) {
+                if (segments.remove(segment.id, segment)) {
+                    release(segment);
+                }
+            }
+            active = null;
+        }
+    }
+
+    /**
+     * 恢复索引：按 segment 编号顺序重放，已封存的 segment 读取 hint 文件，
+     * hint 文件缺失或损坏时扫描记录；最后一个未封存的 segment 从扫描结束位置继续追加
+     */
+    private void recover() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> {
+                        try {
+                            ids.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                                    name.length() - SEGMENT_SUFFIX.length())));
+                        } catch (NumberFormatException e) {
+                            log.warn("Ignoring unexpected file in disk cache directory: {}", name);
+                        }
+                    });
+        }
+        ids.sort(null);
+        if (!ids.isEmpty()) {
+            nextSegmentId = ids.get(ids.size() - 1) + 1;
+        }
+        if (recoveryTtlMillis <= 0) {
+            // 停机期间可能错过失效消息，不保留旧数据
+            ids.forEach(this::deleteFiles);
+            active = createSegment();
+            log.info("Disk cache recovery disabled, discarded segments: {}", ids.size());
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        boolean lastSealed = true;
+        for (long id : ids) {
+            Segment segment = mapSegment(id);
+            segments.put(id, segment);
+            lastSealed = loadHints(segment, now);
+            if (!lastSealed) {
+                segment.writePosition = scan(segment, true, (offset, keyLength, valueLength, expireAt) ->
+                        replay(segment, readKey(segment.buffer, offset, keyLength), offset, keyLength,
+                                valueLength, expireAt, now));
+            }
+        }
+        // 最后一个 segment 没有 hint 文件时继续作为当前 segment，否则新建
+        active = lastSealed ? createSegment() : segments.lastEntry().getValue();
+        // 中间未封存的 segment（上次写 hint 前崩溃）补写 hint
+        for (Segment segment : segments.values()) {
+            if (segment != active && !Files.exists(hintPath(segment.id))) {
+                writeHints(segment);
+            }
+        }
+    }
+
+    /**
+     * 重放一条记录，后出现的记录覆盖先出现的；存活记录的过期时间不超过 now + recoveryTtlMillis
+     */
+    private void replay(Segment segment, String key, int offset, int keyLength, int valueLength, long expireAt,
+                        long now) {
+        Entry old;
+        if (valueLength == TOMBSTONE || expireAt <= now) {
+            old = index.remove(key);
+            segment.addGarbage(HEADER_SIZE + keyLength + Math.max(0, valueLength));
+        } else {
+            old = index.put(key, new Entry(segment, offset, keyLength, valueLength,
+                    Math.min(expireAt, now + recoveryTtlMillis)));
+        }
+        if (old != null) {
+            old.segment.addGarbage(old.recordLength());
+        }
+    }
+
+    /**
+     * 追加一条记录（调用方持有 writeLock），当前 segment 剩余空间不足时切换到新的 segment
+     */
+    private Entry append(byte[] keyBytes, byte[] value, int valueLength, long expireAt) throws IOException {
+        int recordLength = HEADER_SIZE + keyBytes.length + Math.max(0, valueLength);
+        if (active == null || active.writePosition + recordLength > active.size) {
+            roll();
+        }
+        Segment segment = active;
+        int offset = segment.writePosition;
+        MappedByteBuffer buffer = segment.buffer;
+        buffer.putLong(offset + 4, expireAt);
+        buffer.putInt(offset + 12, keyBytes.length);
+        buffer.putInt(offset + 16, valueLength);
+        buffer.put(offset + HEADER_SIZE, keyBytes);
+        if (value != null) {
+            buffer.put(offset + HEADER_SIZE + keyBytes.length, value);
+        }
+        // 校验和最后写入，崩溃时写了一半的记录校验失败
+        buffer.putInt(offset, checksum(buffer, offset, recordLength));
+        segment.writePosition = offset + recordLength;
+        return new Entry(segment, offset, keyBytes.length, valueLength, expireAt);
+    }
+
+    private void replace(String key, Entry entry) {
+        Entry old = index.put(key, entry);
+        if (old != null) {
+            old.segment.addGarbage(old.recordLength());
+        }
+    }
+
+    /**
+     * 开启新的 segment 并在后台封存原来的 segment，超过上限时淘汰最旧的 segment
+     */
+    private void roll() throws IOException {
+        Segment previous = active;
+        active = createSegment();
+        if (previous != null) {
+            try {
+                sealExecutor.execute(() -> seal(previous));
+            } catch (RejectedExecutionException e) {
+                // 缺少 hint 文件的 segment 在重启时扫描记录并补写
+                log.warn("Disk cache seal rejected, segment: {}", previous.id);
+            }
+        }
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.firstEntry().getValue();
+            if (oldest == active) {
+                break;
+            }
+            evictSegment(oldest);
+        }
+    }
+
+    /**
+     * 刷盘并写出 hint 文件；segment 封存后不再追加，无需持有 writeLock
+     * 期间 segment 被压缩或淘汰时删除刚写出的 hint 文件
+     */
+    private void seal(Segment segment) {
+        if (!segment.retain()) {
+            return;
+        }
+        try {
+            if (!segments.containsKey(segment.id)) {
+                return;
+            }
+            segment.buffer.force();
+            writeHints(segment);
+            if (!segments.containsKey(segment.id)) {
+                Files.deleteIfExists(hintPath(segment.id));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to seal disk cache segment: {}, error: {}", segment.id, e.getMessage());
+        } finally {
+            release(segment);
+        }
+    }
+
+    /**
+     * 把 segment 中的存活记录搬到当前 segment 后删除文件
+     * 墓碑在更早的 segment 仍存在且未过期时同样需要保留
+     */
+    private void compact(Segment segment) throws IOException {
+        if (!segment.retain()) {
+            return;
+        }
+        try {
+            compactRetained(segment);
+        } finally {
+            release(segment);
+        }
+    }
+
+    private void compactRetained(Segment segment) throws IOException {
+        long now = System.currentTimeMillis();
+        int[] moved = new int[1];
+        IOException[] failure = new IOException[1];
+        scan(segment, false, (offset, keyLength, valueLength, expireAt) -> {
+            if (failure[0] != null || expireAt <= now) {
+                return;
+            }
+            String key = readKey(segment.buffer, offset, keyLength);
+            synchronized (writeLock) {
+                if (!open) {
+                    return;
+                }
+                try {
+                    if (valueLength == TOMBSTONE) {
+                        if (!index.containsKey(key) && segments.firstKey() < segment.id) {
+                            Entry tombstone = append(key.getBytes(StandardCharsets.UTF_8), null, TOMBSTONE, expireAt);
+                            tombstone.segment.addGarbage(tombstone.recordLength());
+                        }
+                        return;
+                    }
+                    Entry entry = index.get(key);
+                    if (entry == null || entry.segment != segment || entry.offset != offset) {
+                        return;
+                    }
+                    byte[] value = new byte[valueLength];
+                    segment.buffer.get(offset + HEADER_SIZE + keyLength, value);
+                    replace(key, append(key.getBytes(StandardCharsets.UTF_8), value, valueLength, entry.expireAt));
+                    moved[0]++;
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        synchronized (writeLock) {
+            deleteSegment(segment);
+        }
+        log.debug("Disk cache segment compacted, segment: {}, moved records: {}", segment.id, moved[0]);
+    }
+
+    /**
+     * 淘汰整个 segment（调用方持有 writeLock），其中的存活 key 直接从索引移除
+     */
+    private void evictSegment(Segment segment) {
+        index.values().removeIf(entry -> entry.segment == segment);
+        deleteSegment(segment);
+        log.debug("Disk cache segment evicted, segment: {}", segment.id);
+    }
+
+    /**
+     * 删除 segment 文件并释放 segments 持有的引用，进行中的读取结束后解除映射
+     */
+    private void deleteSegment(Segment segment) {
+        if (segments.remove(segment.id, segment)) {
+            deleteFiles(segment.id);
+            release(segment);
+        }
+    }
+
+    private void deleteFiles(long id) {
+        try {
+            Files.deleteIfExists(hintPath(id));
+            // 文件删除后映射仍然有效，解除映射时磁盘空间才被归还
+            Files.deleteIfExists(segmentPath(id));
+        } catch (IOException e) {
+            log.warn("Failed to delete disk cache segment: {}, error: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * 释放 segment 的一个引用，最后一个引用释放时解除映射
+     */
+    private void release(Segment segment) {
+        if (segment.release()) {
+            mappedSegments.decrementAndGet();
+            unmap(segment.buffer);
+        }
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (UNMAPPER == null) {
+            return;
+        }
+        try {
+            UNMAPPER.invokeExact(buffer);
+        } catch (Throwable t) {
+            log.warn("Failed to unmap disk cache segment, mapping is released by GC, error: {}", t.getMessage());
+        }
+    }
+
+    private static MethodHandle unmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            MethodHandle invokeCleaner = MethodHandles.lookup().findVirtual(unsafeClass, "invokeCleaner",
+                    MethodType.methodType(void.class, ByteBuffer.class));
+            return invokeCleaner.bindTo(field.get(null))
+                    .asType(MethodType.methodType(void.class, MappedByteBuffer.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("Unmapping disk cache segments is not supported, mappings are released by GC, error: {}",
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private Segment createSegment() throws IOException {
+        long id = nextSegmentId++;
+        try (RandomAccessFile file = new RandomAccessFile(segmentPath(id).toFile(), "rw")) {
+            file.setLength(segmentSize);
+        }
+        Segment segment = mapSegment(id);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private Segment mapSegment(long id) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segmentPath(id).toFile(), "rw");
+             FileChannel channel = file.getChannel()) {
+            // 通道关闭后映射仍然有效
+            Segment segment = new Segment(id, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+            mappedSegments.incrementAndGet();
+            return segment;
+        }
+    }
+
+    /**
+     * 写出 hint 文件：逐条记录的 key、位置和过期时间，末尾附带校验和，先写临时文件再原子替换
+     */
+    private void writeHints(Segment segment) throws IOException {
+        Path hint = hintPath(segment.id);
+        Path tmp = hint.resolveSibling(hint.getFileName() + ".tmp");
+        CheckedOutputStream checked = new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp)), new CRC32C());
+        try (DataOutputStream out = new DataOutputStream(checked)) {
+            IOException[] failure = new IOException[1];
+            scan(segment, false, (offset, keyLength, valueLength, expireAt) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    out.writeInt(offset);
+                    out.writeInt(keyLength);
+                    out.writeInt(valueLength);
+                    out.writeLong(expireAt);
+                    byte[] key = new byte[keyLength];
+                    segment.buffer.get(offset + HEADER_SIZE, key);
+                    out.write(key);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            // 结束标记后附带校验和
+            out.writeInt(-1);
+            out.writeLong(checked.getChecksum().getValue());
+        }
+        Files.move(tmp, hint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 从 hint 文件重放索引
+     *
+     * @return hint 文件不存在或损坏时返回 false，由调用方扫描 segment
+     */
+    private boolean loadHints(Segment segment, long now) {
+        Path hint = hintPath(segment.id);
+        if (!Files.exists(hint)) {
+            return false;
+        }
+        ByteBuffer hints;
+        try {
+            hints = ByteBuffer.wrap(Files.readAllBytes(hint));
+        } catch (IOException e) {
+            log.warn("Failed to read disk cache hint file, rescanning segment: {}, error: {}",
+                    segment.id, e.getMessage());
+            return false;
+        }
+        // 先整体校验再重放，避免损坏的 hint 文件留下一半索引
+        int length = hints.capacity() - Long.BYTES;
+        CRC32C crc = new CRC32C();
+        if (length < Integer.BYTES || hints.getLong(length) != checksumOf(crc, hints.slice(0, length))) {
+            log.warn("Disk cache hint file corrupted, rescanning segment: {}", segment.id);
+            return false;
+        }
+        int end = 0;
+        int offset;
+        while ((offset = hints.getInt()) >= 0) {
+            int keyLength = hints.getInt();
+            int valueLength = hints.getInt();
+            long expireAt = hints.getLong();
+            byte[] key = new byte[keyLength];
+            hints.get(key);
+            replay(segment, new String(key, StandardCharsets.UTF_8), offset, keyLength, valueLength, expireAt, now);
+            end = offset + HEADER_SIZE + keyLength + Math.max(0, valueLength);
+        }
+        segment.writePosition = end;
+        return true;
+    }
+
+    /**
+     * 顺序遍历 segment 中的记录，遇到空白或（validate 时）校验失败的记录停止
+     *
+     * @return 最后一条有效记录的结束位置
+     */
+    private int scan(Segment segment, boolean validate, RecordVisitor visitor) {
+        ByteBuffer buffer = segment.buffer;
+        int limit = validate ? segment.size : segment.writePosition;
+        int offset = 0;
+        while (offset + HEADER_SIZE <= limit) {
+            int keyLength = buffer.getInt(offset + 12);
+            int valueLength = buffer.getInt(offset + 16);
+            if (keyLength <= 0 || valueLength < TOMBSTONE) {
+                break;
+            }
+            long recordLength = (long) HEADER_SIZE + keyLength + Math.max(0, valueLength);
+            if (offset + recordLength > limit
+                    || validate && !checksumValid(buffer, offset, (int) recordLength)) {
+                break;
+            }
+            visitor.visit(offset, keyLength, valueLength, buffer.getLong(offset + 4));
+            offset += (int) recordLength;
+        }
+        return offset;
+    }
+
+    private static boolean checksumValid(ByteBuffer buffer, int offset, int recordLength) {
+        return buffer.getInt(offset) == checksum(buffer, offset, recordLength);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int recordLength) {
+        return (int) checksumOf(new CRC32C(), buffer.slice(offset + 4, recordLength - 4));
+    }
+
+    private static long checksumOf(CRC32C crc, ByteBuffer data) {
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    private static String readKey(ByteBuffer buffer, int offset, int keyLength) {
+        byte[] key = new byte[keyLength];
+        buffer.get(offset + HEADER_SIZE, key);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private Path hintPath(long id) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, id, HINT_SUFFIX));
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(int offset, int keyLength, int valueLength, long expireAt);
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final MappedByteBuffer buffer;
+        private final int size;
+        private final AtomicLong garbageBytes = new AtomicLong();
+        /**
+         * 引用计数：segments 持有一个，读取、封存、压缩期间各持有一个，降为 0 后不能再访问 buffer
+         */
+        private final AtomicInteger refs = new AtomicInteger(1);
+        /**
+         * 追加位置，只在 writeLock 内修改
+         */
+        private int writePosition;
+
+        private Segment(long id, MappedByteBuffer buffer) {
+            this.id = id;
+            this.buffer = buffer;
+            this.size = buffer.capacity();
+        }
+
+        private void addGarbage(int bytes) {
+            garbageBytes.addAndGet(bytes);
+        }
+
+        /**
+         * @return segment 已释放（映射已解除或即将解除）时返回 false
+         */
+        private boolean retain() {
+            for (;;) {
+                int current = refs.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (refs.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return 是否为最后一个引用
+         */
+        private boolean release() {
+            return refs.decrementAndGet() == 0;
+        }
+    }
+
+    private static final class Entry {
+        private final Segment segment;
+        private final int offset;
+        private final int keyLength;
+        private final int valueLength;
+        private final long expireAt;
+
+        private Entry(Segment segment, int offset, int keyLength, int valueLength, long expireAt) {
+            this.segment = segment;
+            this.offset = offset;
+            this.keyLength = keyLength;
+            this.valueLength = valueLength;
+            this.expireAt = expireAt;
+        }
+
+        private int recordLength() {
+            return HEADER_SIZE + keyLength + Math.max(0, valueLength);
+        }
+    }
+}
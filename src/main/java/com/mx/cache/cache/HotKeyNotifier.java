@@ -0,0 +1,81 @@
+package com.mx.cache.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 热点 key 回源完成通知
+ * 持锁节点回源结束后通过 Redis pub/sub 发布 cacheKey，
+ * 各节点等待者挂在同一个 future 上，收到通知即被唤醒，不再轮询 Redis
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class HotKeyNotifier implements MessageListener {
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String channel;
+
+    /**
+     * 本节点等待中的 key -> 共享 future
+     */
+    private final Map<String, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * 登记等待，同一 key 的本地等待者共享同一个 future
+     *
+     * @param cacheKey 缓存 key
+     * @return 回源完成时被完成的 future
+     */
+    public CompletableFuture<Void> register(String cacheKey) {
+        return waiters.computeIfAbsent(cacheKey, k -> new CompletableFuture<>());
+    }
+
+    /**
+     * 取消登记（等待超时或被唤醒后调用）
+     *
+     * @param cacheKey 缓存 key
+     * @param future register 返回的 future
+     */
+    public void unregister(String cacheKey, CompletableFuture<Void> future) {
+        waiters.remove(cacheKey, future);
+    }
+
+    /**
+     * 发布回源完成通知
+     *
+     * @param cacheKey 缓存 key
+     */
+    public void publish(String cacheKey) {
+        // 先唤醒本节点的等待者，省去一次 pub/sub 往返
+        wakeUp(cacheKey);
+        try {
+            redisTemplate.convertAndSend(channel, cacheKey);
+        } catch (Exception e) {
+            log.error("Failed to publish hot key notification, key: {}, error: {}", cacheKey, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        wakeUp(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    private void wakeUp(String cacheKey) {
+        CompletableFuture<Void> future = waiters.remove(cacheKey);
+        if (future != null) {
+            future.complete(null);
+            log.debug("Hot key waiters woken up, key: {}", cacheKey);
+        }
+    }
+}
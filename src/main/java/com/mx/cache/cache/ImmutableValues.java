@@ -0,0 +1,233 @@
+package com.mx.cache.cache;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * 本地对象缓存的不可变形式
+ * 1. 不可变类型：String、包装类型、BigInteger / BigDecimal、UUID、枚举、java.time 类型，以及组件均为不可变类型的 record
+ * 2. 冻结：List / Set / Map 转为只读集合（保持顺序及排序规则），record 的组件递归冻结后重新构造
+ * 3. 冻结结果必须能赋值给声明类型（按泛型参数逐层检查），如声明为 ArrayList / HashMap / EnumSet 时不冻结；
+ *    声明类型为类型变量时只接受与原对象同类型的结果
+ * 其他类型（含 setter 的 Bean、数组等）无法冻结
+ */
+final class ImmutableValues {
+
+    /**
+     * 无法冻结的标记
+     */
+    static final Object MUTABLE = new Object();
+
+    /**
+     * 最大嵌套深度，超过时（包括循环引用）视为无法冻结
+     */
+    private static final int MAX_DEPTH = 32;
+
+    private static final ClassValue<Boolean> IMMUTABLE_TYPES = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return immutableType(type, 0);
+        }
+    };
+
+    private ImmutableValues() {
+    }
+
+    /**
+     * 类型的实例是否不可变（按声明类型判断，结果按类缓存）
+     *
+     * @param type 类型
+     * @return 是否不可变
+     */
+    static boolean isImmutable(Class<?> type) {
+        return IMMUTABLE_TYPES.get(type);
+    }
+
+    /**
+     * 把对象图转为不可变形式，调用方需保证对象图不被其他代码持有（如先深拷贝）
+     *
+     * @param value 对象
+     * @param declared 调用方声明的类型（如方法的泛型返回类型），null 表示对象的实际类型
+     * @return 不可变形式，无法冻结或冻结结果不能赋值给声明类型时返回 {@link #MUTABLE}
+     */
+    static Object freeze(Object value, Type declared) {
+        return freeze(value, declared, 0);
+    }
+
+    private static Object freeze(Object value, Type declared, int depth) {
+        if (value == null || isImmutable(value.getClass())) {
+            return value;
+        }
+        if (depth > MAX_DEPTH) {
+            return MUTABLE;
+        }
+        Object frozen = freezeValue(value, declared != null ? declared : value.getClass(), depth);
+        if (frozen == MUTABLE) {
+            return MUTABLE;
+        }
+        Class<?> raw = rawType(declared != null ? declared : value.getClass());
+        boolean assignable = raw != null ? raw.isInstance(frozen) : frozen.getClass() == value.getClass();
+        return assignable ? frozen : MUTABLE;
+    }
+
+    private static Object freezeValue(Object value, Type declared, int depth) {
+        if (value instanceof List) {
+            List<Object> frozen = new ArrayList<>(((List<?>) value).size());
+            return freezeAll((List<?>) value, frozen, typeArgument(declared, 0), depth)
+                    ? Collections.unmodifiableList(frozen) : MUTABLE;
+        }
+        if (value instanceof SortedSet) {
+            TreeSet<Object> frozen = new TreeSet<>(comparator(((SortedSet<?>) value).comparator()));
+            return freezeAll((Set<?>) value, frozen, typeArgument(declared, 0), depth)
+                    ? Collections.unmodifiableSortedSet(frozen) : MUTABLE;
+        }
+        if (value instanceof Set) {
+            Set<Object> frozen = new LinkedHashSet<>();
+            return freezeAll((Set<?>) value, frozen, typeArgument(declared, 0), depth)
+                    ? Collections.unmodifiableSet(frozen) : MUTABLE;
+        }
+        if (value instanceof SortedMap) {
+            TreeMap<Object, Object> frozen = new TreeMap<>(comparator(((SortedMap<?, ?>) value).comparator()));
+            return freezeAll((Map<?, ?>) value, frozen, typeArgument(declared, 0), typeArgument(declared, 1), depth)
+                    ? Collections.unmodifiableSortedMap(frozen) : MUTABLE;
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> frozen = new LinkedHashMap<>();
+            return freezeAll((Map<?, ?>) value, frozen, typeArgument(declared, 0), typeArgument(declared, 1), depth)
+                    ? Collections.unmodifiableMap(frozen) : MUTABLE;
+        }
+        if (value.getClass().isRecord()) {
+            return freezeRecord(value, depth);
+        }
+        return MUTABLE;
+    }
+
+    /**
+     * record 的组件逐个冻结后通过规范构造器重新构造
+     */
+    private static Object freezeRecord(Object value, int depth) {
+        RecordComponent[] components = value.getClass().getRecordComponents();
+        Object[] args = new Object[components.length];
+        Class<?>[] types = new Class<?>[components.length];
+        try {
+            for (int i = 0; i < components.length; i++) {
+                types[i] = components[i].getType();
+                components[i].getAccessor().setAccessible(true);
+                args[i] = freeze(components[i].getAccessor().invoke(value), components[i].getGenericType(),
+                        depth + 1);
+                if (args[i] == MUTABLE) {
+                    return MUTABLE;
+                }
+            }
+            Constructor<?> constructor = value.getClass().getDeclaredConstructor(types);
+            constructor.setAccessible(true);
+            return constructor.newInstance(args);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return MUTABLE;
+        }
+    }
+
+    private static boolean freezeAll(Collection<?> source, Collection<Object> target, Type elementType, int depth) {
+        for (Object element : source) {
+            Object item = freeze(element, elementType, depth + 1);
+            if (item == MUTABLE) {
+                return false;
+            }
+            target.add(item);
+        }
+        return true;
+    }
+
+    private static boolean freezeAll(Map<?, ?> source, Map<Object, Object> target, Type keyType, Type valueType,
+                                     int depth) {
+        for (Map.Entry<?, ?> entry : source.entrySet()) {
+            Object key = freeze(entry.getKey(), keyType, depth + 1);
+            Object item = freeze(entry.getValue(), valueType, depth + 1);
+            if (key == MUTABLE || item == MUTABLE) {
+                return false;
+            }
+            target.put(key, item);
+        }
+        return true;
+    }
+
+    /**
+     * 声明类型的原始类型，通配符取上界；类型变量等无法确定时返回 null
+     */
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return rawType(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof WildcardType) {
+            return rawType(((WildcardType) type).getUpperBounds()[0]);
+        }
+        return null;
+    }
+
+    /**
+     * 集合声明类型的第 index 个泛型参数，原始类型（如 List）的元素按 Object 处理
+     */
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof WildcardType) {
+            return typeArgument(((WildcardType) type).getUpperBounds()[0], index);
+        }
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            return index < arguments.length ? arguments[index] : Object.class;
+        }
+        return type instanceof Class ? Object.class : null;
+    }
+
+    /**
+     * 排序集合的比较器，null 表示自然顺序
+     */
+    @SuppressWarnings("unchecked")
+    private static Comparator<Object> comparator(Comparator<?> comparator) {
+        return (Comparator<Object>) comparator;
+    }
+
+    private static boolean immutableType(Class<?> type, int depth) {
+        if (type.isPrimitive() || type == String.class || type == Boolean.class || type == Character.class
+                || type == Byte.class || type == Short.class || type == Integer.class || type == Long.class
+                || type == Float.class || type == Double.class || type == BigInteger.class
+                || type == BigDecimal.class || type == UUID.class || type.isEnum()
+                || type.getSuperclass() != null && type.getSuperclass().isEnum()) {
+            return true;
+        }
+        if ("java.time".equals(type.getPackageName())) {
+            return !type.isInterface() && !Modifier.isAbstract(type.getModifiers());
+        }
+        if (type.isRecord() && depth <= MAX_DEPTH) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                if (!immutableType(component.getType(), depth + 1)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
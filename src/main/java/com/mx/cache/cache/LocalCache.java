@@ -1,20 +1,141 @@
 package com.mx.cache.cache;
 
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.mx.cache.annotation.Cacheable;
+import lombok.extern.slf4j.Slf4j;
 
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
+@Slf4j
 public class LocalCache {
-    private final Cache<String, byte[]> cache;
+    /**
+     * OBJECT 模式下的空值标记（Caffeine 不允许存 null）
+     */
+    public static final Object NULL_VALUE = new Object();
+
+    /**
+     * OFF_HEAP 写入时堆外内存不足，最多检查的最冷条目数量
+     */
+    private static final int OFF_HEAP_EVICTION_SCAN = 64;
+
+    private final Cache<String, Object> cache;
+    /**
+     * 按条目指定过期时间的写入入口（时间轮调度）
+     */
+    private final Policy.VarExpiration<String, Object> varExpiration;
+    private final EntryExpiry expiry;
     private final Cacheable.EvictionPolicy evictionPolicy;
+    private final Cacheable.LocalStoreMode storeMode;
+    private final ValueCopier copier;
+
+    /**
+     * OFF_HEAP 模式的堆外分配器，其他模式为 null
+     */
+    private final OffHeapSlabAllocator allocator;
+
+    /**
+     * refreshAfterWrite 的数据源（按 key 登记）及执行刷新的线程池，未启用刷新时为 null
+     */
+    private final Map<String, Registration> refreshSources;
+    private final Executor refreshExecutor;
+    /**
+     * 启用刷新时记录写入时指定的过期时间（纳秒），刷新得到的新值沿用该过期时间，未启用刷新时为 null
+     */
+    private final Map<String, Long> requestedExpireNanos;
+
+    /**
+     * 后台刷新的数据源（如缓存的切点），在刷新线程池中调用
+     */
+    @FunctionalInterface
+    public interface RefreshSource {
+        /**
+         * 重新加载
+         *
+         * @return 新值（BYTES / OFF_HEAP 模式为 byte[]，OBJECT 模式为对象或 {@link #NULL_VALUE}），
+         *         null 表示删除条目（刷新期间条目被重新写入时保留新条目）
+         */
+        Object reload() throws Throwable;
+    }
 
     public LocalCache(long expire, TimeUnit unit, Cacheable.EvictionPolicy policy,
                       long maxSize, long maxWeight) {
+        this(expire, unit, policy, maxSize, maxWeight, Cacheable.LocalStoreMode.BYTES, new ValueCopier.Identity(), 0);
+    }
+
+    public LocalCache(long expire, TimeUnit unit, Cacheable.EvictionPolicy policy,
+                      long maxSize, long maxWeight, Cacheable.LocalStoreMode storeMode, ValueCopier copier,
+                      double expireJitter) {
+        this(expire, unit, policy, maxSize, maxWeight, storeMode, copier, expireJitter, null);
+    }
+
+    public LocalCache(long expire, TimeUnit unit, Cacheable.EvictionPolicy policy,
+                      long maxSize, long maxWeight, Cacheable.LocalStoreMode storeMode, ValueCopier copier,
+                      double expireJitter, OffHeapSlabAllocator allocator) {
+        this(expire, unit, policy, maxSize, maxWeight, storeMode, copier, expireJitter, expire, allocator);
+    }
+
+    /**
+     * @param expire 条目最长存活时间，写入时指定的过期时间不会超过该值
+     * @param nullExpire 空值标记的最长存活时间（单位同 expire）
+     * @param allocator OFF_HEAP 模式使用的堆外分配器（多个本地缓存共享），其他模式忽略
+     */
+    public LocalCache(long expire, TimeUnit unit, Cacheable.EvictionPolicy policy,
+                      long maxSize, long maxWeight, Cacheable.LocalStoreMode storeMode, ValueCopier copier,
+                      double expireJitter, long nullExpire, OffHeapSlabAllocator allocator) {
+        this(expire, unit, policy, maxSize, maxWeight, storeMode, copier, expireJitter, nullExpire, 0, null,
+                allocator);
+    }
+
+    /**
+     * @param expire 条目最长存活时间，写入时指定的过期时间不会超过该值
+     * @param nullExpire 空值标记的最长存活时间（单位同 expire）
+     * @param refreshAfter 写入后超过该时间的条目在下次读取时后台刷新（单位同 expire），0 表示不启用
+     * @param refreshExecutor 执行后台刷新的线程池，不会阻塞读取线程
+     * @param allocator OFF_HEAP 模式使用的堆外分配器（多个本地缓存共享），其他模式忽略
+     */
+    public LocalCache(long expire, TimeUnit unit, Cacheable.EvictionPolicy policy,
+                      long maxSize, long maxWeight, Cacheable.LocalStoreMode storeMode, ValueCopier copier,
+                      double expireJitter, long nullExpire, long refreshAfter, Executor refreshExecutor,
+                      OffHeapSlabAllocator allocator) {
         this.evictionPolicy = policy;
-        Caffeine<Object, Object> builder = Caffeine.newBuilder()
-                .expireAfterWrite(expire, unit);
+        if (allocator == null && storeMode == Cacheable.LocalStoreMode.OFF_HEAP) {
+            log.warn("Local cache OFF_HEAP mode requested without an off-heap allocator, falling back to BYTES");
+        }
+        this.storeMode = allocator == null && storeMode == Cacheable.LocalStoreMode.OFF_HEAP
+                ? Cacheable.LocalStoreMode.BYTES : storeMode;
+        this.copier = copier;
+        this.allocator = this.storeMode == Cacheable.LocalStoreMode.OFF_HEAP ? allocator : null;
+        boolean refresh = refreshAfter > 0 && refreshExecutor != null;
+        this.refreshSources = refresh ? new ConcurrentHashMap<>() : null;
+        this.refreshExecutor = refresh ? refreshExecutor : null;
+        this.requestedExpireNanos = refresh ? new ConcurrentHashMap<>() : null;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (this.allocator != null) {
+            // Caffeine 只保存 key -> 堆外位置的索引，条目被移除（淘汰、过期、覆盖、删除）时同步释放堆外 chunk
+            builder.executor(Runnable::run);
+        }
+        if (this.allocator != null || refresh) {
+            builder.removalListener(this::onRemoval);
+        }
+        if (refresh) {
+            builder.refreshAfterWrite(refreshAfter, unit);
+        }
+        // 按条目过期：写入时传入的过期时间（远程 TTL）与 expire 取较小值，空值标记使用 nullExpire
+        this.expiry = new EntryExpiry(unit.toNanos(expire), Math.min(unit.toNanos(nullExpire), unit.toNanos(expire)),
+                Math.min(Math.max(expireJitter, 0), 1.0), requestedExpireNanos);
+        builder.expireAfter(expiry);
 
         // 根据不同策略配置缓存
         switch (policy) {
@@ -22,10 +143,13 @@ public class LocalCache {
                 builder.maximumSize(maxSize).recordStats();
                 break;
             case FIFO:
-                builder.maximumSize(maxSize).executor(Runnable::run);
+                builder.maximumSize(maxSize);
+                if (this.allocator == null) {
+                    builder.executor(Runnable::run);
+                }
                 break;
             case WEIGHT:
-                builder.maximumWeight(maxWeight).weigher((k, v) -> ((byte[])v).length);
+                builder.maximumWeight(maxWeight).weigher(LocalCache::weigh);
                 break;
             case LRU:
             default:
@@ -33,29 +157,349 @@ public class LocalCache {
                 break;
         }
 
-        this.cache = builder.build();
+        // 启用刷新时使用 AsyncLoadingCache 的同步视图，读取触发的刷新在 refreshExecutor 中执行
+        this.cache = refresh ? builder.buildAsync(new RefreshLoader()).synchronous() : builder.build();
+        this.varExpiration = cache.policy().expireVariably().orElseThrow();
     }
 
     public byte[] get(String key) {
-        return cache.getIfPresent(key);
+        Object value = cache.getIfPresent(key);
+        if (value instanceof OffHeapSlabAllocator.Allocation) {
+            byte[] data = allocator.load((OffHeapSlabAllocator.Allocation) value);
+            if (data == null) {
+                // 读取期间条目已被覆盖或移除
+                cache.asMap().remove(key, value);
+            }
+            return data;
+        }
+        return value instanceof byte[] ? (byte[]) value : null;
     }
 
     public void put(String key, byte[] value) {
-        cache.put(key, value);
+        put(key, value, 0);
+    }
+
+    /**
+     * 写入并指定过期时间
+     *
+     * @param key 缓存 key
+     * @param value 缓存值
+     * @param expireMillis 过期时间（毫秒），不超过本地缓存的 expire，小于等于 0 时使用 expire
+     */
+    public void put(String key, byte[] value, long expireMillis) {
+        recordRequestedExpire(key, expireMillis);
+        long expireNanos = expiry.expireNanos(value, TimeUnit.MILLISECONDS.toNanos(expireMillis));
+        if (allocator == null) {
+            varExpiration.put(key, value, expireNanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+        OffHeapSlabAllocator.Allocation allocation = allocator.store(value);
+        if (allocation == null) {
+            allocation = storeAfterEviction(value);
+        }
+        if (allocation != null) {
+            varExpiration.put(key, allocation, expireNanos, TimeUnit.NANOSECONDS);
+        } else {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * 堆外内存不足时腾出空间后重试
+     * 1. 先执行待处理的淘汰
+     * 2. 仍然失败时从最冷的条目开始，淘汰同一大小级别的条目（释放的 chunk 只能被同级别复用）直到写入成功
+     * 仍然失败则不缓存（调用方同时删除旧值，避免返回过期数据）；分配器由多个本地缓存共享，这里只淘汰本缓存的条目
+     */
+    private OffHeapSlabAllocator.Allocation storeAfterEviction(byte[] value) {
+        cache.cleanUp();
+        OffHeapSlabAllocator.Allocation allocation = allocator.store(value);
+        if (allocation != null) {
+            return allocation;
+        }
+        Policy.Eviction<String, Object> eviction = cache.policy().eviction().orElse(null);
+        if (eviction == null) {
+            return null;
+        }
+        for (Map.Entry<String, Object> entry : eviction.coldest(OFF_HEAP_EVICTION_SCAN).entrySet()) {
+            if (entry.getValue() instanceof OffHeapSlabAllocator.Allocation
+                    && allocator.isSameSizeClass((OffHeapSlabAllocator.Allocation) entry.getValue(), value.length)
+                    && cache.asMap().remove(entry.getKey(), entry.getValue())) {
+                // 移除监听器在当前线程同步释放 chunk
+                allocation = allocator.store(value);
+                if (allocation != null) {
+                    return allocation;
+                }
+            }
+        }
+        log.debug("Off-heap store failed after evicting cold entries, size: {}", value.length);
+        return null;
+    }
+
+    /**
+     * 读取对象（OBJECT 模式）
+     * 命中时只有一次 map 查找 + {@link ValueCopier#read}，不经过解压和反序列化；拷贝在写入时完成
+     *
+     * @param key 缓存 key
+     * @return 缓存对象、{@link #NULL_VALUE} 或 null（未命中）
+     */
+    public Object getValue(String key) {
+        Object value = cache.getIfPresent(key);
+        if (value == null || value == NULL_VALUE) {
+            return value;
+        }
+        return copier.read(value);
+    }
+
+    /**
+     * 写入对象（OBJECT 模式）
+     *
+     * @param key 缓存 key
+     * @param value 缓存对象或 {@link #NULL_VALUE}
+     */
+    public void putValue(String key, Object value) {
+        putValue(key, value, 0, null);
+    }
+
+    /**
+     * 写入对象（OBJECT 模式）并指定过期时间
+     *
+     * @param key 缓存 key
+     * @param value 缓存对象或 {@link #NULL_VALUE}
+     * @param expireMillis 过期时间（毫秒），不超过本地缓存的 expire，小于等于 0 时使用 expire
+     * @param valueType 调用方声明的类型，命中时返回的对象能赋值给该类型，null 表示对象的实际类型
+     */
+    public void putValue(String key, Object value, long expireMillis, Type valueType) {
+        if (value == null) {
+            return;
+        }
+        Object stored = value == NULL_VALUE ? value : copier.copy(value, valueType);
+        if (stored != null) {
+            recordRequestedExpire(key, expireMillis);
+            varExpiration.put(key, stored, expiry.expireNanos(stored, TimeUnit.MILLISECONDS.toNanos(expireMillis)),
+                    TimeUnit.NANOSECONDS);
+        }
     }
 
     public void evict(String key) {
         cache.invalidate(key);
     }
 
-    public Cache<String, byte[]> getCache() {
+    /**
+     * 登记条目的刷新数据源，条目不存在或已登记时忽略（未启用刷新时忽略）
+     *
+     * @param key 缓存 key
+     * @param source 数据源
+     */
+    public void registerRefreshSource(String key, RefreshSource source) {
+        registerRefreshSource(key, source, null);
+    }
+
+    /**
+     * 登记条目的刷新数据源及调用方声明的类型（OBJECT 模式按该类型拷贝刷新结果）
+     *
+     * @param key 缓存 key
+     * @param source 数据源
+     * @param valueType 调用方声明的类型，null 表示对象的实际类型
+     */
+    public void registerRefreshSource(String key, RefreshSource source, Type valueType) {
+        if (refreshSources != null && !refreshSources.containsKey(key) && cache.asMap().containsKey(key)) {
+            refreshSources.putIfAbsent(key, new Registration(source, valueType));
+        }
+    }
+
+    public boolean isRefreshEnabled() {
+        return refreshSources != null;
+    }
+
+    public Cache<String, Object> getCache() {
         return cache;
     }
 
     public Cacheable.EvictionPolicy getEvictionPolicy() {
         return evictionPolicy;
     }
+
+    public boolean isObjectMode() {
+        return storeMode == Cacheable.LocalStoreMode.OBJECT;
+    }
+
+    public boolean isOffHeap() {
+        return allocator != null;
+    }
+
     public void clear() {
         cache.invalidateAll();
+        if (refreshSources != null) {
+            refreshSources.clear();
+            requestedExpireNanos.clear();
+        }
+    }
+
+    private void recordRequestedExpire(String key, long expireMillis) {
+        if (requestedExpireNanos == null) {
+            return;
+        }
+        if (expireMillis > 0) {
+            requestedExpireNanos.put(key, TimeUnit.MILLISECONDS.toNanos(expireMillis));
+        } else {
+            requestedExpireNanos.remove(key);
+        }
+    }
+
+    private void onRemoval(String key, Object value, RemovalCause cause) {
+        if (value instanceof OffHeapSlabAllocator.Allocation) {
+            allocator.free((OffHeapSlabAllocator.Allocation) value);
+        }
+        // 覆盖（包括刷新）时保留数据源
+        if (refreshSources != null && key != null && cause != RemovalCause.REPLACED
+                && !cache.asMap().containsKey(key)) {
+            refreshSources.remove(key);
+            requestedExpireNanos.remove(key);
+        }
+    }
+
+    /**
+     * 刷新结果转换为存储形式：OFF_HEAP 写入堆外，OBJECT 经过拷贝器
+     */
+    private Object toStored(Object value, Type valueType) {
+        if (value == null || value == NULL_VALUE) {
+            return value;
+        }
+        if (allocator != null) {
+            if (!(value instanceof byte[])) {
+                return null;
+            }
+            OffHeapSlabAllocator.Allocation allocation = allocator.store((byte[]) value);
+            return allocation != null ? allocation : storeAfterEviction((byte[]) value);
+        }
+        return storeMode == Cacheable.LocalStoreMode.OBJECT ? copier.copy(value, valueType) : value;
+    }
+
+    /**
+     * 登记的刷新数据源及调用方声明的类型
+     */
+    private record Registration(RefreshSource source, Type valueType) {
+    }
+
+    /**
+     * refreshAfterWrite 的加载器：只用于刷新（读取不经过加载）
+     * 没有数据源、线程池拒绝或刷新失败时以取消结束：Caffeine 保留原条目及其原有过期时间，且不重复记录日志
+     */
+    private final class RefreshLoader implements AsyncCacheLoader<String, Object> {
+        @Override
+        public CompletableFuture<?> asyncLoad(String key, Executor executor) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<?> asyncReload(String key, Object oldValue, Executor executor) {
+            Registration registration = refreshSources.get(key);
+            if (registration == null) {
+                return skipped();
+            }
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            try {
+                refreshExecutor.execute(() -> {
+                    try {
+                        future.complete(toStored(registration.source.reload(), registration.valueType));
+                    } catch (Throwable t) {
+                        // 刷新失败保留原值，等待下次读取或过期
+                        log.warn("Local cache refresh failed, key: {}, error: {}", key, t.getMessage());
+                        future.cancel(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.warn("Local cache refresh rejected by executor, key: {}", key);
+                return skipped();
+            }
+            return future;
+        }
+
+        private CompletableFuture<?> skipped() {
+            CompletableFuture<?> future = new CompletableFuture<>();
+            future.cancel(false);
+            return future;
+        }
+    }
+
+    /**
+     * WEIGHT 策略的权重：字节数组及堆外条目按数据长度计算，OBJECT 模式无法廉价估算对象大小，每个对象按 1 计权
+     */
+    private static int weigh(Object key, Object value) {
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        if (value instanceof OffHeapSlabAllocator.Allocation) {
+            return ((OffHeapSlabAllocator.Allocation) value).getLength();
+        }
+        return 1;
+    }
+
+    /**
+     * 空值标记：OBJECT 模式的 {@link #NULL_VALUE}，BYTES 模式的单字节 0x00（可能带信封）
+     */
+    private static boolean isNullMarker(Object value) {
+        if (value == NULL_VALUE) {
+            return true;
+        }
+        if (!(value instanceof byte[])) {
+            return false;
+        }
+        byte[] data = (byte[]) value;
+        return data.length > 0 && data[data.length - 1] == 0x00
+                && (data.length == 1 || CacheEnvelope.payloadLength(data) == 1);
+    }
+
+    /**
+     * 按条目过期（Caffeine 分层时间轮调度）
+     * 1. 最长存活时间为 expire，配置抖动时在 [expire * (1 - jitter), expire] 之间随机
+     * 2. 写入时指定的过期时间（远程 TTL）只会缩短存活时间，空值标记最长存活 nullExpire
+     * 3. 未指定过期时间的写入（远程回填）按值计算，读取不影响过期时间
+     * 4. 刷新得到的新值沿用该条目写入时指定的过期时间，与一次正常写入相同
+     */
+    private static final class EntryExpiry implements Expiry<Object, Object> {
+        private final long expireNanos;
+        private final long nullExpireNanos;
+        private final double jitter;
+        private final Map<String, Long> requestedExpireNanos;
+
+        private EntryExpiry(long expireNanos, long nullExpireNanos, double jitter,
+                            Map<String, Long> requestedExpireNanos) {
+            this.expireNanos = expireNanos;
+            this.nullExpireNanos = nullExpireNanos;
+            this.jitter = jitter;
+            this.requestedExpireNanos = requestedExpireNanos;
+        }
+
+        /**
+         * @param value 缓存值
+         * @param requestedNanos 写入时指定的过期时间，小于等于 0 表示未指定
+         * @return 实际过期时间
+         */
+        private long expireNanos(Object value, long requestedNanos) {
+            long max = isNullMarker(value) ? nullExpireNanos : expireNanos;
+            if (jitter > 0) {
+                // 每个条目的过期时间随机缩短，避免同批写入的条目同时过期
+                max -= (long) (max * jitter * ThreadLocalRandom.current().nextDouble());
+            }
+            return Math.max(1, requestedNanos > 0 ? Math.min(requestedNanos, max) : max);
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return expireNanos(value, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            // 显式写入通过 VarExpiration 指定过期时间，只有刷新会走到这里
+            Long requested = requestedExpireNanos != null ? requestedExpireNanos.get(key) : null;
+            return expireNanos(value, requested != null ? requested : 0);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,113 @@
+package com.mx.cache.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地缓存的标签索引（Redis 标签索引在本节点的镜像）
+ * 1. 每个标签记录成员 key 及其本地过期时间，标签本身在最后一个成员过期时过期
+ * 2. 成员数超过 PRUNE_THRESHOLD 时顺带清理已过期的成员，避免长期写入的标签无限增长
+ * 3. 标签总数受 maxTags 限制，超出时按 Caffeine 策略淘汰（被淘汰的标签只影响按标签删除本地缓存，本地缓存仍会按 TTL 过期）
+ */
+public class LocalTagIndex {
+    private static final int PRUNE_THRESHOLD = 256;
+
+    private final Cache<String, Members> tags;
+
+    public LocalTagIndex(long maxTags) {
+        this.tags = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxTags))
+                .expireAfter(new MembersExpiry())
+                .build();
+    }
+
+    /**
+     * 把 key 登记到标签
+     *
+     * @param tagNames 标签
+     * @param key 缓存 key
+     * @param ttlMillis key 在本地缓存中的有效期（毫秒）
+     */
+    public void add(Collection<String> tagNames, String key, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        long expireAt = now + Math.max(1, ttlMillis);
+        for (String tag : tagNames) {
+            tags.asMap().compute(tag, (t, members) -> {
+                Members target = members != null ? members : new Members();
+                target.add(key, expireAt, now);
+                return target;
+            });
+        }
+    }
+
+    /**
+     * 移除标签并返回仍有效的成员 key
+     *
+     * @param tag 标签
+     * @return 成员 key
+     */
+    public Set<String> remove(String tag) {
+        Members members = tags.asMap().remove(tag);
+        if (members == null) {
+            return Collections.emptySet();
+        }
+        long now = System.currentTimeMillis();
+        Set<String> keys = new HashSet<>();
+        members.expireAt.forEach((key, expireAt) -> {
+            if (expireAt > now) {
+                keys.add(key);
+            }
+        });
+        return keys;
+    }
+
+    public void clear() {
+        tags.invalidateAll();
+    }
+
+    private static final class Members {
+        private final Map<String, Long> expireAt = new HashMap<>();
+        private long maxExpireAt;
+
+        private void add(String key, long keyExpireAt, long now) {
+            expireAt.put(key, keyExpireAt);
+            maxExpireAt = Math.max(maxExpireAt, keyExpireAt);
+            if (expireAt.size() > PRUNE_THRESHOLD) {
+                expireAt.values().removeIf(value -> value <= now);
+            }
+        }
+    }
+
+    /**
+     * 标签在最后一个成员过期时过期
+     */
+    private static final class MembersExpiry implements Expiry<String, Members> {
+        @Override
+        public long expireAfterCreate(String tag, Members members, long currentTime) {
+            return remainingNanos(members);
+        }
+
+        @Override
+        public long expireAfterUpdate(String tag, Members members, long currentTime, long currentDuration) {
+            return remainingNanos(members);
+        }
+
+        @Override
+        public long expireAfterRead(String tag, Members members, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static long remainingNanos(Members members) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, members.maxExpireAt - System.currentTimeMillis()));
+        }
+    }
+}
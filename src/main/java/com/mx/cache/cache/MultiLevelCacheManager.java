@@ -1,12 +1,29 @@
 package com.mx.cache.cache;
 
 import com.mx.cache.annotation.Cacheable;
+import com.mx.cache.invalidation.InvalidationBus;
+import com.mx.cache.invalidation.InvalidationMessage;
+import com.mx.cache.metadata.CachePlan;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * 多级缓存管理器
@@ -22,8 +39,17 @@ public class MultiLevelCacheManager {
      * 优化：使用 ConcurrentHashMap 保证线程安全
      */
     private final Map<String, LocalCache> localCaches = new ConcurrentHashMap<>();
+    /**
+     * 已知的缓存名称（注解扫描登记及运行期间写入过的缓存）
+     */
+    private final Set<String> cacheNames = ConcurrentHashMap.newKeySet();
     
     private final RemoteCache remoteCache;
+
+    /**
+     * 后台刷新（stale-while-revalidate）及异步返回值的远程缓存读写使用的线程池
+     */
+    private final Executor refreshExecutor;
     
     /**
      * 优化：缓存 cacheLevels 分割结果，避免频繁 split
@@ -34,35 +60,212 @@ public class MultiLevelCacheManager {
     /**
      * 缓存层级标志位
      */
-    private static final int LOCAL_FLAG = 1;
-    private static final int REMOTE_FLAG = 2;
+    private static final int LOCAL_FLAG = CachePlan.LOCAL_FLAG;
+    private static final int REMOTE_FLAG = CachePlan.REMOTE_FLAG;
+    private static final int DISK_FLAG = CachePlan.DISK_FLAG;
+    /**
+     * 节点本地的层级（本地缓存和磁盘缓存），删除时需要通知其他节点
+     */
+    private static final int NODE_LOCAL_FLAGS = LOCAL_FLAG | DISK_FLAG;
     
     /**
      * 缓存层级标志位缓存
      */
     private final Map<String, Integer> cacheLevelsFlagsCache = new ConcurrentHashMap<>();
 
+    /**
+     * 对象拷贝器实例缓存，同一实现类共享一个实例
+     */
+    private final Map<Class<? extends ValueCopier>, ValueCopier> copiers = new ConcurrentHashMap<>();
+
+    /**
+     * 进程内回源合并，防止同一 JVM 内的缓存击穿
+     */
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    /**
+     * 正在后台刷新的 key，保证每个 key 同时最多一个刷新任务
+     */
+    private final Set<String> revalidatingKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 基于 Lettuce 原生异步命令的远程缓存，为 null 时异步读写退化为在线程池中调用 {@link RemoteCache}
+     */
+    private volatile AsyncRemoteCache asyncRemoteCache;
+
+    /**
+     * 远程写入 write-behind 队列，为 null 时未启用
+     */
+    private volatile WriteBehindQueue writeBehindQueue;
+
+    /**
+     * 跨节点本地缓存失效总线，为 null 时删除只影响本节点的本地缓存
+     */
+    private volatile InvalidationBus invalidationBus;
+
+    /**
+     * Redis 客户端缓存跟踪（CLIENT TRACKING），为 null 时未启用
+     */
+    private volatile ClientTrackingNearCache clientTracking;
+
+    /**
+     * 缓存代数（版本化命名空间），为 null 时 generational 缓存退化为普通 key
+     */
+    private volatile CacheGenerations cacheGenerations;
+
+    /**
+     * 本地缓存的标签索引（Redis 标签索引的镜像）
+     */
+    private volatile LocalTagIndex localTagIndex = new LocalTagIndex(100000);
+
+    /**
+     * OFF_HEAP 本地缓存共享的堆外分配器，为 null 时 OFF_HEAP 退化为 BYTES
+     */
+    private volatile OffHeapSlabAllocator offHeapAllocator;
+
+    /**
+     * 内存映射磁盘缓存（cacheLevels 包含 disk 时使用），为 null 时未启用
+     */
+    private volatile DiskCache diskCache;
+
+    public MultiLevelCacheManager(RemoteCache remoteCache) {
+        this(remoteCache, ForkJoinPool.commonPool());
+    }
+
     public void init() {
         remoteCache.checkHealth();
         log.info("MultiLevelCacheManager initialized, remote cache available: {}", remoteCache.isAvailable());
     }
 
+    /**
+     * 登记缓存名称，{@link #clearAll()} 按名称前缀清空远程缓存
+     *
+     * @param cacheName 缓存名称
+     */
+    public void registerCacheName(String cacheName) {
+        if (cacheName != null && !cacheNames.contains(cacheName)) {
+            cacheNames.add(cacheName);
+        }
+    }
+
     public LocalCache getLocalCache(String cacheName, Cacheable cacheable) {
-        return localCaches.computeIfAbsent(cacheName, k ->
-                new LocalCache(
-                        cacheable.localExpire(),
-                        cacheable.localExpireUnit(),
-                        cacheable.evictionPolicy(),
-                        cacheable.maxSize(),
-                        cacheable.maxWeight()
-                )
-        );
+        return localCaches.computeIfAbsent(cacheName, k -> {
+            registerCacheName(cacheName);
+            // 新的本地缓存加入客户端缓存跟踪
+            ClientTrackingNearCache tracking = clientTracking;
+            if (tracking != null) {
+                tracking.track(cacheName);
+            }
+            return new LocalCache(
+                    cacheable.localExpire(),
+                    cacheable.localExpireUnit(),
+                    cacheable.evictionPolicy(),
+                    cacheable.maxSize(),
+                    cacheable.maxWeight(),
+                    cacheable.localStoreMode(),
+                    copiers.computeIfAbsent(cacheable.localCopier(), BeanUtils::instantiateClass),
+                    cacheable.expireJitter(),
+                    cacheable.localNullExpire(),
+                    cacheable.localRefresh(),
+                    refreshExecutor,
+                    offHeapAllocator
+            );
+        });
     }
 
     public RemoteCache getRemoteCache() {
         return remoteCache;
     }
 
+    public void setAsyncRemoteCache(AsyncRemoteCache asyncRemoteCache) {
+        this.asyncRemoteCache = asyncRemoteCache;
+    }
+
+    public void setWriteBehindQueue(WriteBehindQueue writeBehindQueue) {
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    /**
+     * 设置失效总线并订阅其他节点的失效消息
+     *
+     * @param invalidationBus 失效总线
+     */
+    public void setInvalidationBus(InvalidationBus invalidationBus) {
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(this::applyInvalidation);
+    }
+
+    /**
+     * 设置客户端缓存跟踪，已创建的本地缓存立即加入跟踪
+     *
+     * @param clientTracking 客户端缓存跟踪
+     */
+    public void setClientTracking(ClientTrackingNearCache clientTracking) {
+        this.clientTracking = clientTracking;
+        localCaches.keySet().forEach(clientTracking::track);
+    }
+
+    public void setCacheGenerations(CacheGenerations cacheGenerations) {
+        this.cacheGenerations = cacheGenerations;
+        // 代数变化后旧代数的本地数据不再可达，直接清空释放内存
+        cacheGenerations.setChangeListener(this::clearLocal);
+    }
+
+    public void setOffHeapAllocator(OffHeapSlabAllocator offHeapAllocator) {
+        this.offHeapAllocator = offHeapAllocator;
+    }
+
+    public void setDiskCache(DiskCache diskCache) {
+        this.diskCache = diskCache;
+    }
+
+    public void setLocalTagIndex(LocalTagIndex localTagIndex) {
+        this.localTagIndex = localTagIndex;
+    }
+
+    /**
+     * 启用指定缓存的版本化命名空间
+     *
+     * @param cacheName 缓存名称
+     */
+    public void enableGeneration(String cacheName) {
+        CacheGenerations generations = cacheGenerations;
+        if (generations != null) {
+            generations.enable(cacheName);
+        }
+    }
+
+    /**
+     * 执行计划对应的 key 前缀，generational 缓存包含当前代数（内存读取，无 Redis 往返）
+     *
+     * @param plan 执行计划
+     * @return key 前缀
+     */
+    public String keyPrefix(CachePlan plan) {
+        CacheGenerations generations = cacheGenerations;
+        return plan.isGenerational() && generations != null
+                ? generations.keyPrefix(plan.getCacheName()) : plan.getKeyPrefix();
+    }
+
+    /**
+     * 缓存名称对应的 key 前缀（@CacheEvict / @CachePut 使用）
+     *
+     * @param cacheName 缓存名称
+     * @return key 前缀
+     */
+    public String keyPrefix(String cacheName) {
+        CacheGenerations generations = cacheGenerations;
+        return generations != null && generations.isEnabled(cacheName)
+                ? generations.keyPrefix(cacheName) : cacheName + "::";
+    }
+
+    /**
+     * 是否可以不等待 Redis 返回即完成远程写入（已启用 write-behind 队列或 Lettuce 原生异步连接）
+     */
+    public boolean hasAsyncRemote() {
+        return (writeBehindQueue != null || asyncRemoteCache != null) && remoteCache.isAvailable();
+    }
+
     /**
      * 获取缓存值
      * 优化：使用缓存层级标志位，避免频繁字符串比较
@@ -74,9 +277,202 @@ public class MultiLevelCacheManager {
      */
     public byte[] get(String cacheName, String key, Cacheable cacheable) {
         int levels = getCacheLevelsFlags(cacheable.cacheLevels());
+        byte[] data = get(cacheName, key, levels, isLocalObjectMode(cacheable, levels), cacheable);
+        boolean enveloped = cacheable.staleWhileRevalidate() > 0 || cacheable.earlyRefreshBeta() > 0;
+        return enveloped ? CacheEnvelope.unwrap(data) : data;
+    }
 
-        // 先查本地缓存
-        if ((levels & LOCAL_FLAG) != 0) {
+    /**
+     * 按执行计划获取缓存值
+     * 优化：层级标志位和存储模式在扫描阶段已解析，不再查表
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @return 缓存值
+     */
+    public byte[] get(CachePlan plan, String key) {
+        return get(plan, key, null);
+    }
+
+    /**
+     * 按执行计划获取缓存值，支持 stale-while-revalidate 和概率提前刷新（XFetch）
+     * 1. 超过逻辑过期时间的数据仍然返回，同时在后台触发一次刷新
+     * 2. 未过期时按 now - delta * beta * ln(rand) >= expiry 的概率提前在后台刷新，
+     *    回源越慢、越接近过期，提前刷新的概率越大，避免同批写入的 key 同时过期
+     * 每个 key 同时最多一个刷新任务
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @param revalidator 后台刷新任务，为 null 时不触发刷新
+     * @return 缓存值（已去除信封）
+     */
+    public byte[] get(CachePlan plan, String key, Runnable revalidator) {
+        byte[] data = get(plan.getCacheName(), key, plan.getLevels(), plan.isLocalObjectMode(), plan.getCacheable());
+        return openEnvelope(plan, key, data, revalidator);
+    }
+
+    /**
+     * 按执行计划异步获取缓存值（供 CompletableFuture / Mono / Flux 返回值使用）
+     * 本地缓存同步读取；远程读取优先使用 Lettuce 原生异步命令，否则提交到线程池执行，
+     * 调用线程（如 WebFlux 的事件循环线程）不会阻塞在 Redis 上。
+     * 读取结果在线程池中处理，业务回源不会运行在 Lettuce 的 I/O 线程上
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @param revalidator 后台刷新任务，为 null 时不触发刷新
+     * @return 缓存值（已去除信封），未命中时完成为 null
+     */
+    public CompletableFuture<byte[]> getAsync(CachePlan plan, String key, Runnable revalidator) {
+        long stamp = invalidationStamp(key);
+        boolean localBytes = plan.hasLocal() && !plan.isLocalObjectMode();
+        if (localBytes) {
+            byte[] data = getLocalCache(plan.getCacheName(), plan.getCacheable()).get(key);
+            if (data != null) {
+                return CompletableFuture.completedFuture(openEnvelope(plan, key, data, revalidator));
+            }
+        }
+        // 磁盘缓存为内存映射读取，同步执行
+        DiskCache disk = plan.hasDisk() ? diskCache : null;
+        if (disk != null) {
+            byte[] data = disk.get(key);
+            if (data != null) {
+                backfill(plan.getCacheName(), plan.getCacheable(), key, data, localBytes, null, stamp);
+                return CompletableFuture.completedFuture(openEnvelope(plan, key, data, revalidator));
+            }
+        }
+        if (!plan.hasRemote()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Function<byte[], byte[]> onRemote = data -> {
+            // 远程命中后同步到本地和磁盘
+            if (data != null) {
+                backfill(plan.getCacheName(), plan.getCacheable(), key, data, localBytes, disk, stamp);
+            }
+            return openEnvelope(plan, key, data, revalidator);
+        };
+        byte[] pendingData = peekPendingWrite(key);
+        if (pendingData != null) {
+            return CompletableFuture.completedFuture(onRemote.apply(pendingData));
+        }
+        AsyncRemoteCache async = asyncRemoteCache;
+        if (async != null && remoteCache.isAvailable()) {
+            return async.get(key).toCompletableFuture().thenApplyAsync(onRemote, refreshExecutor);
+        }
+        return supplyRemote(() -> remoteCache.get(key)).thenApply(onRemote);
+    }
+
+    /**
+     * 只读取本地缓存的下一级（远程缓存，未启用时为磁盘缓存），供本地缓存后台刷新使用
+     * write-behind 队列中尚未刷新的值视为远程已存在
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @return 缓存值（未去除信封），不存在时返回 null
+     */
+    public byte[] getBelowLocal(CachePlan plan, String key) {
+        if (plan.hasRemote()) {
+            byte[] data = peekPendingWrite(key);
+            return data != null ? data : remoteCache.get(key);
+        }
+        DiskCache disk = plan.hasDisk() ? diskCache : null;
+        return disk != null ? disk.get(key) : null;
+    }
+
+    /**
+     * 登记本地缓存条目的后台刷新数据源（仅 localRefresh 大于 0 的缓存生效）
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @param source 数据源
+     */
+    public void registerRefreshSource(CachePlan plan, String key, LocalCache.RefreshSource source) {
+        if (plan.isLocalRefresh()) {
+            getLocalCache(plan.getCacheName(), plan.getCacheable())
+                    .registerRefreshSource(key, source, plan.getValueGenericType());
+        }
+    }
+
+    /**
+     * 去除信封，并按逻辑过期时间判断是否需要后台刷新
+     */
+    private byte[] openEnvelope(CachePlan plan, String key, byte[] data, Runnable revalidator) {
+        if (data == null || !plan.isEnveloped()) {
+            return data;
+        }
+        if (revalidator != null && shouldRevalidate(plan, data)) {
+            scheduleRevalidation(key, revalidator);
+        }
+        return CacheEnvelope.unwrap(data);
+    }
+
+    /**
+     * 删除远程缓存前等待异步连接上已发出的写入完成（删除走另一条连接，否则 DEL 可能先于旧的 SET 到达）
+     */
+    private void awaitAsyncWrites() {
+        AsyncRemoteCache async = asyncRemoteCache;
+        if (async != null) {
+            async.awaitPendingWrites();
+        }
+    }
+
+    /**
+     * 在线程池中执行远程缓存调用，线程池拒绝时退化为在当前线程执行
+     */
+    private <T> CompletableFuture<T> supplyRemote(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, refreshExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Async remote cache call rejected by executor, running inline");
+            return CompletableFuture.completedFuture(call.get());
+        }
+    }
+
+    private boolean shouldRevalidate(CachePlan plan, byte[] data) {
+        long softExpireAt = CacheEnvelope.softExpireAt(data);
+        long now = System.currentTimeMillis();
+        if (now >= softExpireAt) {
+            return true;
+        }
+        double beta = plan.getEarlyRefreshBeta();
+        if (beta <= 0) {
+            return false;
+        }
+        long delta = CacheEnvelope.loadCostMillis(data);
+        // 1 - nextDouble() 取值 (0, 1]，避免 ln(0)
+        double gap = -delta * beta * Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return now + gap >= softExpireAt;
+    }
+
+    /**
+     * 提交后台刷新任务，同一 key 已在刷新时直接忽略
+     *
+     * @param key 缓存 key
+     * @param revalidator 刷新任务
+     */
+    private void scheduleRevalidation(String key, Runnable revalidator) {
+        if (!revalidatingKeys.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    revalidator.run();
+                } finally {
+                    revalidatingKeys.remove(key);
+                }
+            });
+            log.debug("Cache revalidation scheduled, key: {}", key);
+        } catch (RejectedExecutionException e) {
+            revalidatingKeys.remove(key);
+            log.warn("Revalidation rejected by executor, key: {}", key);
+        }
+    }
+
+    private byte[] get(String cacheName, String key, int levels, boolean localObjectMode, Cacheable cacheable) {
+        // 先查本地缓存（OBJECT 模式的本地缓存由 getLocalValue 读取）
+        long stamp = invalidationStamp(key);
+        boolean localBytes = (levels & LOCAL_FLAG) != 0 && !localObjectMode;
+        if (localBytes) {
             LocalCache localCache = getLocalCache(cacheName, cacheable);
             byte[] data = localCache.get(key);
             if (data != null) {
@@ -84,12 +480,25 @@ public class MultiLevelCacheManager {
             }
         }
 
-        // 再查远程缓存
+        // 再查磁盘缓存，命中后同步到本地
+        DiskCache disk = (levels & DISK_FLAG) != 0 ? diskCache : null;
+        if (disk != null) {
+            byte[] data = disk.get(key);
+            if (data != null) {
+                backfill(cacheName, cacheable, key, data, localBytes, null, stamp);
+                return data;
+            }
+        }
+
+        // 最后查远程缓存（write-behind 队列中尚未刷新的值视为远程已存在）
         if ((levels & REMOTE_FLAG) != 0) {
-            byte[] data = remoteCache.get(key);
-            // 远程命中后同步到本地
-            if (data != null && (levels & LOCAL_FLAG) != 0) {
-                getLocalCache(cacheName, cacheable).put(key, data);
+            byte[] data = peekPendingWrite(key);
+            if (data == null) {
+                data = remoteCache.get(key);
+            }
+            // 远程命中后同步到本地和磁盘
+            if (data != null) {
+                backfill(cacheName, cacheable, key, data, localBytes, disk, stamp);
             }
             return data;
         }
@@ -97,6 +506,58 @@ public class MultiLevelCacheManager {
         return null;
     }
 
+    /**
+     * 读取前记下 key 的失效序号（启用客户端缓存跟踪时），回填前后各检查一次，读取期间 key 被失效时不回填
+     *
+     * @param key 缓存 key
+     * @return 失效序号，未启用跟踪时为 0
+     */
+    public long invalidationStamp(String key) {
+        ClientTrackingNearCache tracking = clientTracking;
+        return tracking != null ? tracking.stamp(key) : 0;
+    }
+
+    /**
+     * 把下一级读到的数据回填到本地缓存（BYTES / OFF_HEAP 模式）和磁盘缓存
+     * 读取期间收到失效通知时不回填；回填后再检查一次，期间收到失效时删除刚回填的旧值
+     */
+    private void backfill(String cacheName, Cacheable cacheable, String key, byte[] data, boolean local,
+                          DiskCache disk, long stamp) {
+        ClientTrackingNearCache tracking = clientTracking;
+        if (tracking != null && tracking.isInvalidatedSince(key, stamp)) {
+            return;
+        }
+        if (local) {
+            getLocalCache(cacheName, cacheable).put(key, data, backfillExpireMillis(cacheable, data));
+        }
+        if (disk != null) {
+            disk.put(key, data, diskExpireMillis(cacheable, data));
+        }
+        if (tracking != null && tracking.isInvalidatedSince(key, stamp)) {
+            evictLocal(cacheName, key);
+        }
+    }
+
+    /**
+     * 回填本地缓存的过期时间：带信封的数据按逻辑过期时间 + stale 窗口计算，
+     * 其他数据的远程剩余有效期未知，返回 0 使用 localExpire（空值标记使用 localNullExpire）
+     */
+    private static long backfillExpireMillis(Cacheable cacheable, byte[] data) {
+        long staleWindowMillis = cacheable.expireUnit().toMillis(cacheable.staleWhileRevalidate());
+        if (staleWindowMillis <= 0 && cacheable.earlyRefreshBeta() <= 0) {
+            return 0;
+        }
+        return Math.max(1, CacheEnvelope.softExpireAt(data) - System.currentTimeMillis() + staleWindowMillis);
+    }
+
+    /**
+     * 远程命中回填磁盘缓存时的过期时间（带信封的数据按逻辑过期时间计算，其他数据使用注解的 expire）
+     */
+    private static long diskExpireMillis(Cacheable cacheable, byte[] data) {
+        long expireMillis = backfillExpireMillis(cacheable, data);
+        return expireMillis > 0 ? expireMillis : cacheable.expireUnit().toMillis(cacheable.expire());
+    }
+
     /**
      * 写入缓存值
      * 优化：使用缓存层级标志位
@@ -111,16 +572,304 @@ public class MultiLevelCacheManager {
     public void put(String cacheName, String key, byte[] value, long expire,
                     TimeUnit unit, Cacheable cacheable) {
         int levels = getCacheLevelsFlags(cacheable.cacheLevels());
+        long staleWindowMillis = cacheable.expireUnit().toMillis(cacheable.staleWhileRevalidate());
+        boolean enveloped = staleWindowMillis > 0 || cacheable.earlyRefreshBeta() > 0;
+        put(cacheName, key, value, expire, unit, 0, enveloped, staleWindowMillis, cacheable.expireJitter(),
+                levels, isLocalObjectMode(cacheable, levels), cacheable, false, null);
+    }
 
-        // 更新本地缓存
-        if ((levels & LOCAL_FLAG) != 0) {
-            getLocalCache(cacheName, cacheable).put(key, value);
+    /**
+     * 按执行计划写入缓存值
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @param value 缓存值
+     * @param expire 过期时间
+     * @param unit 时间单位
+     */
+    public void put(CachePlan plan, String key, byte[] value, long expire, TimeUnit unit) {
+        put(plan, key, value, expire, unit, 0);
+    }
+
+    /**
+     * 按执行计划写入缓存值，并记录回源耗时（供概率提前刷新使用）
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @param value 缓存值
+     * @param expire 过期时间
+     * @param unit 时间单位
+     * @param loadCostMillis 回源耗时（毫秒）
+     */
+    public void put(CachePlan plan, String key, byte[] value, long expire, TimeUnit unit, long loadCostMillis) {
+        put(plan, key, value, expire, unit, loadCostMillis, null);
+    }
+
+    /**
+     * 按执行计划写入缓存值，并把 key 登记到标签索引
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @param value 缓存值
+     * @param expire 过期时间
+     * @param unit 时间单位
+     * @param loadCostMillis 回源耗时（毫秒）
+     * @param tags 标签，可为 null
+     */
+    public void put(CachePlan plan, String key, byte[] value, long expire, TimeUnit unit, long loadCostMillis,
+                    Collection<String> tags) {
+        put(plan.getCacheName(), key, value, expire, unit, loadCostMillis, plan.isEnveloped(),
+                plan.getStaleWindowMillis(), plan.getExpireJitter(),
+                plan.getLevels(), plan.isLocalObjectMode(), plan.getCacheable(), false, tags);
+    }
+
+    /**
+     * 按执行计划写入缓存值，远程写入提交到线程池执行，不等待 Redis 返回
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @param value 缓存值
+     * @param expire 过期时间
+     * @param unit 时间单位
+     * @param loadCostMillis 回源耗时（毫秒）
+     */
+    public void putAsync(CachePlan plan, String key, byte[] value, long expire, TimeUnit unit, long loadCostMillis) {
+        putAsync(plan, key, value, expire, unit, loadCostMillis, null);
+    }
+
+    /**
+     * 按执行计划异步写入缓存值，并把 key 登记到标签索引
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @param value 缓存值
+     * @param expire 过期时间
+     * @param unit 时间单位
+     * @param loadCostMillis 回源耗时（毫秒）
+     * @param tags 标签，可为 null
+     */
+    public void putAsync(CachePlan plan, String key, byte[] value, long expire, TimeUnit unit, long loadCostMillis,
+                         Collection<String> tags) {
+        put(plan.getCacheName(), key, value, expire, unit, loadCostMillis, plan.isEnveloped(),
+                plan.getStaleWindowMillis(), plan.getExpireJitter(),
+                plan.getLevels(), plan.isLocalObjectMode(), plan.getCacheable(), true, tags);
+    }
+
+    /**
+     * 应用过期抖动和信封后写入
+     * 1. 抖动只缩短过期时间（最多 jitter 比例），不会超过配置的过期时间
+     * 2. 信封中记录逻辑过期时间和回源耗时，物理过期时间延长 stale 窗口
+     */
+    private void put(String cacheName, String key, byte[] value, long expire, TimeUnit unit,
+                     long loadCostMillis, boolean enveloped, long staleWindowMillis, double jitter,
+                     int levels, boolean localObjectMode, Cacheable cacheable, boolean asyncRemote,
+                     Collection<String> tags) {
+        if (!enveloped && jitter <= 0) {
+            put(cacheName, key, value, expire, unit, levels, localObjectMode, cacheable, asyncRemote, tags);
+            return;
+        }
+        long expireMillis = unit.toMillis(expire);
+        if (jitter > 0) {
+            expireMillis -= (long) (expireMillis * Math.min(jitter, 1.0) * ThreadLocalRandom.current().nextDouble());
+            expireMillis = Math.max(1, expireMillis);
+        }
+        byte[] data = enveloped
+                ? CacheEnvelope.wrap(value, System.currentTimeMillis() + expireMillis, loadCostMillis)
+                : value;
+        put(cacheName, key, data, expireMillis + staleWindowMillis, TimeUnit.MILLISECONDS,
+                levels, localObjectMode, cacheable, asyncRemote, tags);
+    }
+
+    private void put(String cacheName, String key, byte[] value, long expire, TimeUnit unit,
+                     int levels, boolean localObjectMode, Cacheable cacheable, boolean asyncRemote,
+                     Collection<String> tags) {
+        registerCacheName(cacheName);
+        boolean tagged = tags != null && !tags.isEmpty();
+        // 更新本地缓存（OBJECT 模式的本地缓存由 putLocalValue 写入）
+        if ((levels & LOCAL_FLAG) != 0 && !localObjectMode) {
+            getLocalCache(cacheName, cacheable).put(key, value, unit.toMillis(expire));
+        }
+        DiskCache disk = (levels & DISK_FLAG) != 0 ? diskCache : null;
+        if (disk != null) {
+            disk.put(key, value, unit.toMillis(expire));
+        }
+        if (tagged && (levels & NODE_LOCAL_FLAGS) != 0) {
+            long tagExpireMillis = disk != null
+                    ? unit.toMillis(expire) : cacheable.localExpireUnit().toMillis(cacheable.localExpire());
+            localTagIndex.add(tags, key, tagExpireMillis);
         }
 
-        // 更新远程缓存
+        // 更新远程缓存（标签索引与值在同一次流水线 / 同一连接上写入）
         if ((levels & REMOTE_FLAG) != 0) {
-            remoteCache.put(key, value, expire, unit);
+            WriteBehindQueue queue = writeBehindQueue;
+            AsyncRemoteCache async = asyncRemoteCache;
+            if (asyncRemote && queue != null && remoteCache.isAvailable()) {
+                // 进入合并队列，由后台线程批量流水线写入
+                queue.put(key, value, expire, unit, tags);
+            } else if (asyncRemote && async != null && remoteCache.isAvailable()) {
+                // 只发出命令，不等待 Redis 返回
+                async.put(key, value, expire, unit, tagged ? remoteCache.tagKeys(tags) : null);
+            } else if (asyncRemote) {
+                supplyRemote(() -> {
+                    remoteCache.put(key, value, expire, unit, tags);
+                    return null;
+                });
+            } else {
+                // 同步写入前取消队列中的旧值，避免之后被覆盖
+                if (queue != null) {
+                    queue.cancel(key);
+                }
+                awaitAsyncWrites();
+                remoteCache.put(key, value, expire, unit, tags);
+            }
+        }
+    }
+
+    /**
+     * 从 OBJECT 模式的本地缓存读取对象
+     * 命中时无需解压和反序列化；BYTES 模式或未启用本地缓存时始终返回 null
+     *
+     * @param cacheName 缓存名称
+     * @param key 缓存 key
+     * @param cacheable 缓存注解
+     * @return 缓存对象、{@link LocalCache#NULL_VALUE} 或 null（未命中）
+     */
+    public Object getLocalValue(String cacheName, String key, Cacheable cacheable) {
+        if (!isLocalObjectMode(cacheable, getCacheLevelsFlags(cacheable.cacheLevels()))) {
+            return null;
+        }
+        return getLocalCache(cacheName, cacheable).getValue(key);
+    }
+
+    /**
+     * 按执行计划读取 OBJECT 模式的本地缓存
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @return 缓存对象、{@link LocalCache#NULL_VALUE} 或 null（未命中，包括对象不能赋值给返回类型）
+     */
+    public Object getLocalValue(CachePlan plan, String key) {
+        if (!plan.isLocalObjectMode()) {
+            return null;
         }
+        Object value = getLocalCache(plan.getCacheName(), plan.getCacheable()).getValue(key);
+        // 同一 cacheName 下返回类型不同的方法可能写入了不兼容的对象，按未命中处理
+        Class<?> valueType = plan.getValueType();
+        if (value == null || value == LocalCache.NULL_VALUE || valueType.isPrimitive() || valueType.isInstance(value)) {
+            return value;
+        }
+        return null;
+    }
+
+    /**
+     * 写入 OBJECT 模式的本地缓存
+     * BYTES 模式或未启用本地缓存时忽略
+     *
+     * @param cacheName 缓存名称
+     * @param key 缓存 key
+     * @param value 缓存对象或 {@link LocalCache#NULL_VALUE}
+     * @param cacheable 缓存注解
+     */
+    public void putLocalValue(String cacheName, String key, Object value, Cacheable cacheable) {
+        if (!isLocalObjectMode(cacheable, getCacheLevelsFlags(cacheable.cacheLevels()))) {
+            return;
+        }
+        getLocalCache(cacheName, cacheable).putValue(key, value);
+    }
+
+    /**
+     * 按执行计划写入 OBJECT 模式的本地缓存
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @param value 缓存对象或 {@link LocalCache#NULL_VALUE}
+     */
+    public void putLocalValue(CachePlan plan, String key, Object value) {
+        putLocalValue(plan, key, value, 0);
+    }
+
+    /**
+     * 按执行计划写入 OBJECT 模式的本地缓存，并指定过期时间（不超过 localExpire）
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @param value 缓存对象或 {@link LocalCache#NULL_VALUE}
+     * @param expireMillis 过期时间（毫秒），小于等于 0 时使用 localExpire
+     */
+    public void putLocalValue(CachePlan plan, String key, Object value, long expireMillis) {
+        if (!plan.isLocalObjectMode()) {
+            return;
+        }
+        getLocalCache(plan.getCacheName(), plan.getCacheable())
+                .putValue(key, value, expireMillis, plan.getValueGenericType());
+    }
+
+    /**
+     * 把下一级读到并反序列化的对象回填到 OBJECT 模式的本地缓存，读取期间 key 被失效时不回填
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     * @param value 缓存对象或 {@link LocalCache#NULL_VALUE}
+     * @param stamp 读取前的失效序号（{@link #invalidationStamp}）
+     */
+    public void backfillLocalValue(CachePlan plan, String key, Object value, long stamp) {
+        ClientTrackingNearCache tracking = clientTracking;
+        if (tracking != null && tracking.isInvalidatedSince(key, stamp)) {
+            return;
+        }
+        putLocalValue(plan, key, value);
+        if (tracking != null && tracking.isInvalidatedSince(key, stamp)) {
+            evictLocal(plan.getCacheName(), key);
+        }
+    }
+
+    private boolean isLocalObjectMode(Cacheable cacheable, int levels) {
+        return cacheable.localStoreMode() == Cacheable.LocalStoreMode.OBJECT && (levels & LOCAL_FLAG) != 0;
+    }
+
+    /**
+     * 合并同一 key 的并发回源
+     * 同一 JVM 内只有一个线程执行 loader，其余线程等待并共享同一个结果实例，
+     * 分布式锁等后续保护在每个节点上最多只会被一个线程触发
+     *
+     * @param key 缓存 key
+     * @param loader 回源逻辑
+     * @return 回源结果
+     */
+    public <T> T loadOnce(String key, SingleFlight.Loader<T> loader) throws Throwable {
+        return singleFlight.execute(key, loader);
+    }
+
+    /**
+     * 合并同一 key 的并发回源，等待者的结果经过 waiterView 转换（如各自反序列化一份副本）
+     *
+     * @param key 缓存 key
+     * @param loader 回源逻辑
+     * @param waiterView 等待者结果转换
+     * @return 回源结果
+     */
+    public <T> T loadOnce(String key, SingleFlight.Loader<T> loader, UnaryOperator<T> waiterView) throws Throwable {
+        return singleFlight.execute(key, loader, waiterView);
+    }
+
+    /**
+     * 设置进程内回源合并的等待上限，超时后等待线程自行回源
+     *
+     * @param waitTimeoutMillis 最长等待时间（毫秒）
+     */
+    public void setLoadWaitTimeoutMillis(long waitTimeoutMillis) {
+        singleFlight.setWaitTimeoutMillis(waitTimeoutMillis);
+    }
+
+    /**
+     * 合并同一 key 的并发异步回源，调用线程不会被阻塞
+     *
+     * @param key 缓存 key
+     * @param loader 回源逻辑，返回回源结果的 future
+     * @return 回源结果
+     */
+    public <T> CompletableFuture<T> loadOnceAsync(String key, Supplier<CompletableFuture<T>> loader) {
+        return singleFlight.executeAsync(key, loader);
     }
 
     /**
@@ -134,36 +883,240 @@ public class MultiLevelCacheManager {
     public void evict(String cacheName, String key, Cacheable cacheable) {
         int levels = getCacheLevelsFlags(cacheable.cacheLevels());
 
-        if ((levels & LOCAL_FLAG) != 0) {
-            LocalCache localCache = localCaches.get(cacheName);
-            if (localCache != null) {
-                localCache.evict(key);
+        if ((levels & NODE_LOCAL_FLAGS) != 0) {
+            evictLocal(cacheName, key);
+            // 通知其他节点清除本地缓存和磁盘缓存
+            InvalidationBus bus = invalidationBus;
+            if (bus != null) {
+                bus.invalidate(cacheName, key);
             }
         }
 
         if ((levels & REMOTE_FLAG) != 0) {
+            WriteBehindQueue queue = writeBehindQueue;
+            if (queue != null) {
+                queue.cancel(key);
+            }
+            awaitAsyncWrites();
             remoteCache.evict(key);
         }
     }
+
+    /**
+     * 通知其他节点失效本地缓存和磁盘缓存中的 key（本节点已写入新值，如 @CachePut）
+     *
+     * @param plan 执行计划
+     * @param key 缓存 key
+     */
+    public void invalidateOtherNodes(CachePlan plan, String key) {
+        InvalidationBus bus = invalidationBus;
+        if (bus != null && (plan.getLevels() & NODE_LOCAL_FLAGS) != 0) {
+            bus.invalidate(plan.getCacheName(), key);
+        }
+    }
+
+    /**
+     * 批量删除缓存值，远程缓存按批通过一次往返 UNLINK
+     *
+     * @param cacheName 缓存名称
+     * @param keys 缓存 key 集合
+     * @param cacheLevels 缓存层级，如 "local,remote"
+     */
+    public void evict(String cacheName, Collection<String> keys, String cacheLevels) {
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        int levels = getCacheLevelsFlags(cacheLevels);
+
+        if ((levels & NODE_LOCAL_FLAGS) != 0) {
+            InvalidationBus bus = invalidationBus;
+            for (String key : keys) {
+                evictLocal(cacheName, key);
+                if (bus != null) {
+                    bus.invalidate(cacheName, key);
+                }
+            }
+        }
+
+        if ((levels & REMOTE_FLAG) != 0) {
+            WriteBehindQueue queue = writeBehindQueue;
+            if (queue != null) {
+                keys.forEach(queue::cancel);
+            }
+            awaitAsyncWrites();
+            remoteCache.evict(keys);
+        }
+    }
+
+    /**
+     * 清空指定缓存（本地缓存、其他节点的本地缓存及远程缓存中 cacheName:: 前缀的 key）
+     *
+     * @param cacheName 缓存名称
+     * @param cacheLevels 缓存层级，如 "local,remote"
+     */
+    public void clear(String cacheName, String cacheLevels) {
+        clear(cacheName, cacheLevels, null);
+    }
+
+    /**
+     * 清空指定缓存，远程缓存通过 SCAN + 流水线 UNLINK 增量删除
+     *
+     * @param cacheName 缓存名称
+     * @param cacheLevels 缓存层级，如 "local,remote"
+     * @param progress 远程删除进度回调（累计删除数量），可为 null
+     * @return 远程缓存删除的 key 数量
+     */
+    public long clear(String cacheName, String cacheLevels, LongConsumer progress) {
+        // 版本化命名空间：一次 INCR 使全部旧数据不可达，本地缓存由代数变化回调清空，无需逐个删除
+        CacheGenerations generations = cacheGenerations;
+        if (generations != null && generations.isEnabled(cacheName)) {
+            WriteBehindQueue queue = writeBehindQueue;
+            if (queue != null) {
+                queue.cancelByPrefix(cacheName + "::");
+            }
+            generations.bump(cacheName);
+            return 0;
+        }
+
+        int levels = getCacheLevelsFlags(cacheLevels);
+
+        if ((levels & NODE_LOCAL_FLAGS) != 0) {
+            clearLocal(cacheName);
+            InvalidationBus bus = invalidationBus;
+            if (bus != null) {
+                bus.invalidateAll(cacheName);
+            }
+        }
+
+        if ((levels & REMOTE_FLAG) != 0) {
+            WriteBehindQueue queue = writeBehindQueue;
+            if (queue != null) {
+                queue.cancelByPrefix(cacheName + "::");
+            }
+            awaitAsyncWrites();
+            return remoteCache.clear(cacheName, progress);
+        }
+        return 0;
+    }
+
+    /**
+     * 按标签删除缓存：合并 Redis 标签索引与本地镜像中的成员 key，按缓存名称分组后批量删除，
+     * 远程缓存每批一次 UNLINK，其他节点的本地缓存通过失效总线清除，最后删除标签索引本身
+     *
+     * @param tags 标签
+     * @return 删除的 key 数量
+     */
+    public int evictByTag(Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return 0;
+        }
+        Map<String, Set<String>> keysByCache = new HashMap<>();
+        for (String tag : tags) {
+            Set<String> members = new HashSet<>(localTagIndex.remove(tag));
+            members.addAll(remoteCache.tagMembers(tag));
+            for (String key : members) {
+                String cacheName = ClientTrackingNearCache.cacheNameOf(key);
+                if (cacheName != null) {
+                    keysByCache.computeIfAbsent(cacheName, k -> new HashSet<>()).add(key);
+                }
+            }
+        }
+
+        int evicted = 0;
+        for (Map.Entry<String, Set<String>> entry : keysByCache.entrySet()) {
+            evict(entry.getKey(), entry.getValue(), "local,disk,remote");
+            evicted += entry.getValue().size();
+        }
+        remoteCache.evict(remoteCache.tagKeys(tags));
+        log.debug("Cache evicted by tags: {}, keys count: {}", tags, evicted);
+        return evicted;
+    }
+
+    /**
+     * 只删除本节点的本地缓存和磁盘缓存
+     *
+     * @param cacheName 缓存名称
+     * @param key 缓存 key
+     */
+    public void evictLocal(String cacheName, String key) {
+        LocalCache localCache = localCaches.get(cacheName);
+        if (localCache != null) {
+            localCache.evict(key);
+        }
+        DiskCache disk = diskCache;
+        if (disk != null) {
+            disk.evict(key);
+        }
+    }
+
+    /**
+     * 按完整缓存 key（cacheName::...）删除本节点的本地缓存
+     *
+     * @param key 缓存 key
+     */
+    public void evictLocal(String key) {
+        String cacheName = ClientTrackingNearCache.cacheNameOf(key);
+        if (cacheName != null) {
+            evictLocal(cacheName, key);
+        }
+    }
+
+    /**
+     * 清空本节点的全部本地缓存和磁盘缓存（不影响远程缓存）
+     */
+    public void clearLocal() {
+        localCaches.values().forEach(LocalCache::clear);
+        DiskCache disk = diskCache;
+        if (disk != null) {
+            disk.clear();
+        }
+    }
+
+    /**
+     * 清空本节点指定缓存的本地缓存和磁盘缓存（不影响远程缓存）
+     *
+     * @param cacheName 缓存名称
+     */
+    public void clearLocal(String cacheName) {
+        LocalCache localCache = localCaches.get(cacheName);
+        if (localCache != null) {
+            localCache.clear();
+        }
+        DiskCache disk = diskCache;
+        if (disk != null) {
+            disk.clear(cacheName + "::");
+        }
+    }
+
+    /**
+     * 处理其他节点发来的失效消息
+     */
+    private void applyInvalidation(InvalidationMessage message) {
+        for (String cacheName : message.getClearedCaches()) {
+            if (InvalidationMessage.ALL_CACHES.equals(cacheName)) {
+                clearLocal();
+            } else {
+                clearLocal(cacheName);
+            }
+        }
+        message.getKeys().forEach((cacheName, keys) -> keys.forEach(key -> evictLocal(cacheName, key)));
+        log.debug("Invalidation applied from node: {}, size: {}", message.getNodeId(), message.size());
+    }
+
+    private byte[] peekPendingWrite(String key) {
+        WriteBehindQueue queue = writeBehindQueue;
+        return queue != null ? queue.peek(key) : null;
+    }
     
     /**
      * 获取缓存层级标志位
      * 优化：缓存解析结果，避免频繁 split 和字符串比较
      *
      * @param cacheLevels 缓存层级字符串，如 "local,remote"
-     * @return 标志位（LOCAL_FLAG | REMOTE_FLAG）
+     * @return 标志位（LOCAL_FLAG | DISK_FLAG | REMOTE_FLAG）
      */
     private int getCacheLevelsFlags(String cacheLevels) {
-        return cacheLevelsFlagsCache.computeIfAbsent(cacheLevels, levels -> {
-            int flags = 0;
-            if (levels.contains("local")) {
-                flags |= LOCAL_FLAG;
-            }
-            if (levels.contains("remote")) {
-                flags |= REMOTE_FLAG;
-            }
-            return flags;
-        });
+        return cacheLevelsFlagsCache.computeIfAbsent(cacheLevels, CachePlan::parseLevels);
     }
     
     /**
@@ -179,18 +1132,39 @@ public class MultiLevelCacheManager {
     }
 
     public void clearAll() {
-        // 清空本地缓存
+        // 清空本地缓存，并通知其他节点
         localCaches.values().forEach(LocalCache::clear);
         localCaches.clear();
+        localTagIndex.clear();
+        DiskCache disk = diskCache;
+        if (disk != null) {
+            disk.clear();
+        }
+        InvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.invalidateAll(InvalidationMessage.ALL_CACHES);
+        }
 
-        // 清空远程缓存
+        // 清空远程缓存：只按已知的缓存名称前缀删除，不再 FLUSHDB（会清掉同库的其他数据并阻塞 Redis）
+        WriteBehindQueue queue = writeBehindQueue;
+        if (queue != null) {
+            queue.clear();
+        }
+        awaitAsyncWrites();
         if (remoteCache != null) {
-            try {
-                remoteCache.clear();
-                log.info("✅ 已清空远程缓存");
-            } catch (Exception e) {
-                log.warn("⚠️ 清空远程缓存时出现异常: {}", e.getMessage());
+            CacheGenerations generations = cacheGenerations;
+            for (String cacheName : cacheNames) {
+                try {
+                    if (generations != null && generations.isEnabled(cacheName)) {
+                        generations.bump(cacheName);
+                        continue;
+                    }
+                    remoteCache.clear(cacheName);
+                } catch (Exception e) {
+                    log.warn("⚠️ 清空远程缓存时出现异常, cache: {}, error: {}", cacheName, e.getMessage());
+                }
             }
+            log.info("✅ 已清空远程缓存, caches: {}", cacheNames);
         }
 
         log.info("✅ MultiLevelCacheManager 全部缓存已清空");
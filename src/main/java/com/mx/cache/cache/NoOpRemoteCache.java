@@ -1,6 +1,10 @@
 package com.mx.cache.cache;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
 
 public class NoOpRemoteCache extends RemoteCache {
     
@@ -32,7 +36,34 @@ public class NoOpRemoteCache extends RemoteCache {
     public void evict(String key) {
         // No-op
     }
-}
 
+    @Override
+    public void pipelinePut(Collection<WriteBehindQueue.PendingWrite> writes) {
+        // No-op
+    }
+
+    @Override
+    public void put(String key, byte[] value, long expire, TimeUnit unit, Collection<String> tags) {
+        // No-op
+    }
+
+    @Override
+    public Set<String> tagMembers(String tag) {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public void evict(Collection<String> keys) {
+        // No-op
+    }
 
+    @Override
+    public long clear(String cacheName) {
+        return 0;
+    }
 
+    @Override
+    public long clear(String cacheName, LongConsumer progress) {
+        return 0;
+    }
+}
@@ -0,0 +1,226 @@
+package com.mx.cache.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 堆外 slab 分配器（memcached 风格）
+ * 1. 堆外内存按 slabSize 划分为 slab（direct ByteBuffer），按需申请，总量不超过 capacity
+ * 2. 每个 slab 属于一个大小级别（相邻级别按 1.25 倍增长），切分为等长 chunk，释放的 chunk 进入该级别的空闲队列复用
+ * 3. 每个 chunk 有一个代数，释放时递增；读取方拷贝数据后校验代数，发现 chunk 已被释放重用时按未命中处理（seqlock 思路，读无锁）
+ * 超过 slabSize 的值无法分配，由调用方降级处理
+ */
+@Slf4j
+public class OffHeapSlabAllocator {
+    private static final int MIN_CHUNK_SIZE = 64;
+    private static final double GROWTH_FACTOR = 1.25;
+
+    private final long capacity;
+    private final int slabSize;
+    private final int[] chunkSizes;
+    private final SizeClass[] sizeClasses;
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    /**
+     * @param capacity 堆外内存总量（字节）
+     * @param slabSize 单个 slab 大小（字节），也是可存储的最大值
+     */
+    public OffHeapSlabAllocator(long capacity, int slabSize) {
+        this.slabSize = Math.max(MIN_CHUNK_SIZE, slabSize);
+        this.capacity = Math.max(this.slabSize, capacity);
+        List<Integer> sizes = new ArrayList<>();
+        for (double size = MIN_CHUNK_SIZE; size < this.slabSize; size *= GROWTH_FACTOR) {
+            int aligned = ((int) size + 7) & ~7;
+            if (sizes.isEmpty() || aligned > sizes.get(sizes.size() - 1)) {
+                sizes.add(aligned);
+            }
+        }
+        sizes.add(this.slabSize);
+        this.chunkSizes = sizes.stream().mapToInt(Integer::intValue).toArray();
+        this.sizeClasses = new SizeClass[chunkSizes.length];
+        for (int i = 0; i < chunkSizes.length; i++) {
+            sizeClasses[i] = new SizeClass(chunkSizes[i]);
+        }
+    }
+
+    /**
+     * 分配并写入数据
+     *
+     * @param data 数据
+     * @return 分配结果，超过 slabSize 或堆外内存不足时返回 null
+     */
+    public Allocation store(byte[] data) {
+        int sizeClass = sizeClassOf(data.length);
+        if (sizeClass < 0) {
+            return null;
+        }
+        Allocation allocation = sizeClasses[sizeClass].allocate(data.length);
+        if (allocation != null) {
+            allocation.slab.buffer.put(allocation.offset(), data, 0, data.length);
+            // 写入完成后再发布（调用方通过并发容器发布 Allocation）
+            VarHandle.releaseFence();
+        }
+        return allocation;
+    }
+
+    /**
+     * 读取数据
+     *
+     * @param allocation 分配结果
+     * @return 数据，chunk 已被释放时返回 null
+     */
+    public byte[] load(Allocation allocation) {
+        byte[] data = new byte[allocation.length];
+        allocation.slab.buffer.get(allocation.offset(), data, 0, data.length);
+        // 拷贝完成后校验代数，期间 chunk 被释放重用则数据无效
+        VarHandle.loadLoadFence();
+        return allocation.isValid() ? data : null;
+    }
+
+    /**
+     * 释放 chunk，递增代数后放回空闲队列
+     *
+     * @param allocation 分配结果
+     */
+    public void free(Allocation allocation) {
+        if (allocation.slab.generations.compareAndSet(allocation.chunk, allocation.generation,
+                allocation.generation + 1)) {
+            allocation.slab.sizeClass.freeChunks.offer(new FreeChunk(allocation.slab, allocation.chunk));
+        }
+    }
+
+    /**
+     * 释放 allocation 后腾出的 chunk 能否用于存储 length 字节的数据（同一大小级别）
+     *
+     * @param allocation 已有的分配结果
+     * @param length 待存储的数据长度
+     * @return 是否属于同一大小级别
+     */
+    public boolean isSameSizeClass(Allocation allocation, int length) {
+        int sizeClass = sizeClassOf(length);
+        return sizeClass >= 0 && allocation.slab.sizeClass == sizeClasses[sizeClass];
+    }
+
+    /**
+     * 已申请的堆外内存（字节）
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    private int sizeClassOf(int length) {
+        if (length > slabSize) {
+            return -1;
+        }
+        int low = 0;
+        int high = chunkSizes.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (chunkSizes[mid] >= length) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 一次分配：slab + chunk 序号 + 分配时的代数
+     */
+    public static final class Allocation {
+        private final Slab slab;
+        private final int chunk;
+        private final int generation;
+        private final int length;
+
+        private Allocation(Slab slab, int chunk, int generation, int length) {
+            this.slab = slab;
+            this.chunk = chunk;
+            this.generation = generation;
+            this.length = length;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        private int offset() {
+            return chunk * slab.sizeClass.chunkSize;
+        }
+
+        private boolean isValid() {
+            return slab.generations.get(chunk) == generation;
+        }
+    }
+
+    private static final class Slab {
+        private final SizeClass sizeClass;
+        private final ByteBuffer buffer;
+        private final AtomicIntegerArray generations;
+
+        private Slab(SizeClass sizeClass, ByteBuffer buffer, int chunkCount) {
+            this.sizeClass = sizeClass;
+            this.buffer = buffer;
+            this.generations = new AtomicIntegerArray(chunkCount);
+        }
+    }
+
+    private static final class FreeChunk {
+        private final Slab slab;
+        private final int chunk;
+
+        private FreeChunk(Slab slab, int chunk) {
+            this.slab = slab;
+            this.chunk = chunk;
+        }
+    }
+
+    private final class SizeClass {
+        private final int chunkSize;
+        private final int chunksPerSlab;
+        private final ConcurrentLinkedQueue<FreeChunk> freeChunks = new ConcurrentLinkedQueue<>();
+        private Slab current;
+        private int nextChunk;
+
+        private SizeClass(int chunkSize) {
+            this.chunkSize = chunkSize;
+            this.chunksPerSlab = Math.max(1, slabSize / chunkSize);
+        }
+
+        private Allocation allocate(int length) {
+            FreeChunk free = freeChunks.poll();
+            if (free != null) {
+                return newAllocation(free.slab, free.chunk, length);
+            }
+            synchronized (this) {
+                if (current == null || nextChunk >= chunksPerSlab) {
+                    if (allocatedBytes.addAndGet(slabSize) > capacity) {
+                        allocatedBytes.addAndGet(-slabSize);
+                        return null;
+                    }
+                    current = new Slab(this, ByteBuffer.allocateDirect(chunksPerSlab * chunkSize), chunksPerSlab);
+                    nextChunk = 0;
+                    log.debug("Off-heap slab allocated, chunk size: {}, allocated: {} bytes",
+                            chunkSize, allocatedBytes.get());
+                }
+                return newAllocation(current, nextChunk++, length);
+            }
+        }
+
+        private Allocation newAllocation(Slab slab, int chunk, int length) {
+            return new Allocation(slab, chunk, slab.generations.get(chunk), length);
+        }
+    }
+}
@@ -3,24 +3,110 @@ package com.mx.cache.cache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.types.Expiration;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
 
 @Slf4j
 @RequiredArgsConstructor
 public class RemoteCache {
+    /**
+     * 批量删除时每批的 key 数量
+     */
+    private static final int EVICT_BATCH_SIZE = 500;
+
     private final RedisTemplate<String, byte[]> redisTemplate;
     private volatile boolean available = true;
 
+    /**
+     * 标签索引：ZADD 成员（score 为过期时间戳）、清理已过期成员、标签 key 的过期时间只延长不缩短
+     * KEYS[1] 标签 key；ARGV: 成员 key、成员过期时间戳、当前时间戳、成员有效期（毫秒）
+     */
+    static final String TAG_SCRIPT = "redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1]) "
+            + "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[3]) "
+            + "if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[4]) then redis.call('PEXPIRE', KEYS[1], ARGV[4]) end "
+            + "return 1";
+    private static final byte[] TAG_SCRIPT_BYTES = TAG_SCRIPT.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 标签索引 key 前缀（完整 key 为 tagKeyPrefix + tag）
+     */
+    private volatile String tagKeyPrefix = "cache:tag:";
+
+    /**
+     * 按缓存名称清空时 SCAN 的 COUNT 提示（每次迭代大约检查的 key 数量）
+     */
+    private volatile int clearScanCount = 1000;
+
+    /**
+     * 按缓存名称清空时每条 UNLINK 命令的 key 数量
+     */
+    private volatile int clearUnlinkBatchSize = EVICT_BATCH_SIZE;
+
+    /**
+     * 单 key 读取自动合批，为 null 时未启用
+     */
+    private volatile RemoteGetBatcher getBatcher;
+
+    /**
+     * 启用单 key 读取自动合批：同一时间窗口内的并发 get 合并为一次 MGET
+     *
+     * @param maxBatchSize 每批最多 key 数量
+     * @param windowMicros 收集窗口（微秒）
+     */
+    public void enableGetBatching(int maxBatchSize, long windowMicros) {
+        this.getBatcher = new RemoteGetBatcher(maxBatchSize, windowMicros, this::batchGet);
+        log.info("Remote get batching enabled, max batch size: {}, window: {}us", maxBatchSize, windowMicros);
+    }
+
+    /**
+     * 配置按缓存名称清空的批次大小
+     *
+     * @param scanCount SCAN 的 COUNT 提示，越大单次 SCAN 越慢但往返越少
+     * @param unlinkBatchSize 每条 UNLINK 命令的 key 数量
+     */
+    public void configureClear(int scanCount, int unlinkBatchSize) {
+        this.clearScanCount = Math.max(1, scanCount);
+        this.clearUnlinkBatchSize = Math.max(1, unlinkBatchSize);
+    }
+
+    public void setTagKeyPrefix(String tagKeyPrefix) {
+        this.tagKeyPrefix = tagKeyPrefix;
+    }
+
+    /**
+     * 标签在 Redis 中的索引 key
+     *
+     * @param tags 标签
+     * @return 索引 key
+     */
+    public List<String> tagKeys(Collection<String> tags) {
+        List<String> keys = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            keys.add(tagKeyPrefix + tag);
+        }
+        return keys;
+    }
+
     public void checkHealth() {
         if (redisTemplate == null) {
             available = false;
@@ -49,6 +135,11 @@ public class RemoteCache {
             return null;
         }
 
+        RemoteGetBatcher batcher = getBatcher;
+        if (batcher != null) {
+            return batcher.get(key);
+        }
+
         try {
             byte[] value = redisTemplate.opsForValue().get(key);
             return value;
@@ -59,6 +150,22 @@ public class RemoteCache {
         }
     }
 
+    /**
+     * 合批读取（供 RemoteGetBatcher 使用），只有一个 key 时使用 GET
+     */
+    private List<byte[]> batchGet(List<String> keys) {
+        if (keys.size() == 1) {
+            try {
+                return Collections.singletonList(redisTemplate.opsForValue().get(keys.get(0)));
+            } catch (Exception e) {
+                log.error("Redis get error, key: {}, error: {}", keys.get(0), e.getMessage(), e);
+                checkHealth();
+                return Collections.emptyList();
+            }
+        }
+        return mget(keys);
+    }
+
     /**
      * 批量获取缓存（使用 Redis MGET 命令）
      * 注意：MGET 是原子操作，但性能不如 Pipeline
@@ -189,6 +296,81 @@ public class RemoteCache {
         }
     }
 
+    /**
+     * 写入单个缓存值并登记标签，值与标签索引在同一次流水线中写入
+     *
+     * @param key 缓存 key
+     * @param value 缓存值
+     * @param expire 过期时间
+     * @param unit 时间单位
+     * @param tags 标签，为空时等同于 {@link #put(String, byte[], long, TimeUnit)}
+     */
+    public void put(String key, byte[] value, long expire, TimeUnit unit, Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            put(key, value, expire, unit);
+            return;
+        }
+        if (!available || redisTemplate == null || key == null || value == null) {
+            return;
+        }
+
+        long expireMillis = Math.max(1, unit.toMillis(expire));
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.stringCommands().set(key.getBytes(StandardCharsets.UTF_8), value,
+                        Expiration.milliseconds(expireMillis), RedisStringCommands.SetOption.upsert());
+                tag(connection, key, tags, expireMillis);
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Redis tagged put error, key: {}, tags: {}, error: {}", key, tags, e.getMessage(), e);
+            checkHealth();
+        }
+    }
+
+    /**
+     * 读取标签下仍有效的成员 key
+     *
+     * @param tag 标签
+     * @return 成员 key
+     */
+    public Set<String> tagMembers(String tag) {
+        if (!available || redisTemplate == null || tag == null) {
+            return Collections.emptySet();
+        }
+        byte[] tagKey = (tagKeyPrefix + tag).getBytes(StandardCharsets.UTF_8);
+        try {
+            Set<byte[]> members = redisTemplate.execute((RedisCallback<Set<byte[]>>) connection ->
+                    connection.zSetCommands().zRangeByScore(tagKey, System.currentTimeMillis(),
+                            Double.POSITIVE_INFINITY));
+            if (members == null || members.isEmpty()) {
+                return Collections.emptySet();
+            }
+            Set<String> keys = new HashSet<>(members.size() * 2);
+            members.forEach(member -> keys.add(new String(member, StandardCharsets.UTF_8)));
+            return keys;
+        } catch (Exception e) {
+            log.error("Redis tag members error, tag: {}, error: {}", tag, e.getMessage(), e);
+            checkHealth();
+            return Collections.emptySet();
+        }
+    }
+
+    /**
+     * 在当前连接（可以是流水线）上登记标签
+     */
+    private void tag(RedisConnection connection, String key, Collection<String> tags, long expireMillis) {
+        long now = System.currentTimeMillis();
+        byte[] member = key.getBytes(StandardCharsets.UTF_8);
+        byte[] expireAt = Long.toString(now + expireMillis).getBytes(StandardCharsets.UTF_8);
+        byte[] nowBytes = Long.toString(now).getBytes(StandardCharsets.UTF_8);
+        byte[] ttl = Long.toString(expireMillis).getBytes(StandardCharsets.UTF_8);
+        for (String tagKey : tagKeys(tags)) {
+            connection.scriptingCommands().eval(TAG_SCRIPT_BYTES, ReturnType.INTEGER, 1,
+                    tagKey.getBytes(StandardCharsets.UTF_8), member, expireAt, nowBytes, ttl);
+        }
+    }
+
     /**
      * 使用 Pipeline 批量写入并设置过期时间（性能优化）
      * Pipeline 可以减少网络往返次数，提升批量写入性能
@@ -232,6 +414,50 @@ public class RemoteCache {
         }
     }
 
+    /**
+     * 使用 Pipeline 批量写入，每个 key 使用各自的过期时间（供 write-behind 队列批量刷新）
+     *
+     * @param writes 待写入数据
+     */
+    public void pipelinePut(Collection<WriteBehindQueue.PendingWrite> writes) {
+        if (!available || redisTemplate == null) {
+            log.debug("Redis not available or template is null, skipping pipeline put");
+            return;
+        }
+        if (writes == null || writes.isEmpty()) {
+            return;
+        }
+
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisTemplate<String, byte[]> ops = (RedisTemplate<String, byte[]>) operations;
+                    for (WriteBehindQueue.PendingWrite write : writes) {
+                        ops.opsForValue().set(write.getKey(), write.getValue(), write.getExpireMillis(),
+                                TimeUnit.MILLISECONDS);
+                        if (write.getTags() != null && !write.getTags().isEmpty()) {
+                            ops.execute((RedisCallback<Object>) connection -> {
+                                tag(connection, write.getKey(), write.getTags(), write.getExpireMillis());
+                                return null;
+                            });
+                        }
+                    }
+                    return null;
+                }
+            });
+            log.debug("Redis pipeline put successful, items count: {}", writes.size());
+        } catch (Exception e) {
+            log.error("Redis pipelinePut error, items count: {}, error: {}", writes.size(), e.getMessage(), e);
+            checkHealth();
+            // 降级为单次写入
+            log.warn("Falling back to single put operations, items count: {}", writes.size());
+            writes.forEach(write -> put(write.getKey(), write.getValue(), write.getExpireMillis(),
+                    TimeUnit.MILLISECONDS, write.getTags()));
+        }
+    }
+
     /**
      * 降级方案：单次写入
      */
@@ -262,14 +488,160 @@ public class RemoteCache {
         }
     }
 
+    /**
+     * 批量删除缓存（UNLINK，每批最多 EVICT_BATCH_SIZE 个 key，一次往返删除一批）
+     * UNLINK 在 Redis 后台线程释放内存，大 value 不会阻塞 Redis；不支持 UNLINK 时降级为 DEL
+     *
+     * @param keys 缓存 key 集合
+     */
+    public void evict(Collection<String> keys) {
+        if (!available || redisTemplate == null) {
+            return;
+        }
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+
+        List<String> batch = new ArrayList<>(Math.min(keys.size(), EVICT_BATCH_SIZE));
+        for (String key : keys) {
+            if (key == null) {
+                continue;
+            }
+            batch.add(key);
+            if (batch.size() >= EVICT_BATCH_SIZE) {
+                unlink(batch);
+                batch = new ArrayList<>(EVICT_BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            unlink(batch);
+        }
+    }
+
+    private void unlink(List<String> keys) {
+        try {
+            redisTemplate.unlink(keys);
+            log.debug("Redis unlink successful, keys count: {}", keys.size());
+        } catch (Exception e) {
+            log.warn("Redis unlink failed, falling back to delete, keys count: {}, error: {}",
+                    keys.size(), e.getMessage());
+            try {
+                redisTemplate.delete(keys);
+            } catch (Exception ex) {
+                log.error("Redis batch evict error, keys count: {}, error: {}", keys.size(), ex.getMessage(), ex);
+                checkHealth();
+            }
+        }
+    }
+
+    /**
+     * 删除指定缓存名称下的所有 key（SCAN MATCH cacheName::* + 分批 UNLINK）
+     * 只影响该缓存，不会清空整个数据库
+     *
+     * @param cacheName 缓存名称
+     * @return 删除的 key 数量
+     */
+    public long clear(String cacheName) {
+        return clear(cacheName, null);
+    }
+
+    /**
+     * 删除指定缓存名称下的所有 key
+     * 1. SCAN 增量遍历，每次只检查 COUNT 个 key，不会像 KEYS/FLUSHDB 一样长时间阻塞 Redis
+     * 2. 每收集约一个 SCAN 批次的 key，按 unlinkBatchSize 拆成多条 UNLINK 通过一次流水线发送，
+     *    UNLINK 在后台线程释放内存，大 value 也不会阻塞
+     *
+     * @param cacheName 缓存名称
+     * @param progress 进度回调，每批删除后以累计删除数量调用，可为 null
+     * @return 删除的 key 数量
+     */
+    public long clear(String cacheName, LongConsumer progress) {
+        if (!available || redisTemplate == null || cacheName == null) {
+            return 0;
+        }
+
+        int scanCount = clearScanCount;
+        long removed = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(cacheName + "::*").count(scanCount).build();
+        List<String> pending = new ArrayList<>(scanCount);
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                pending.add(cursor.next());
+                if (pending.size() >= scanCount) {
+                    removed += pipelineUnlink(pending);
+                    pending = new ArrayList<>(scanCount);
+                    reportProgress(progress, removed);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Redis scan error, cache: {}, error: {}", cacheName, e.getMessage(), e);
+            checkHealth();
+        }
+        if (!pending.isEmpty()) {
+            removed += pipelineUnlink(pending);
+            reportProgress(progress, removed);
+        }
+        log.info("Redis cache cleared, cache: {}, keys removed: {}", cacheName, removed);
+        return removed;
+    }
+
+    /**
+     * 按 clearUnlinkBatchSize 拆分后通过一次流水线发送多条 UNLINK
+     *
+     * @param keys 待删除的 key
+     * @return 实际删除的 key 数量
+     */
+    private long pipelineUnlink(List<String> keys) {
+        int batchSize = clearUnlinkBatchSize;
+        try {
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, byte[]> ops = (RedisOperations<String, byte[]>) operations;
+                    for (int from = 0; from < keys.size(); from += batchSize) {
+                        ops.unlink(keys.subList(from, Math.min(from + batchSize, keys.size())));
+                    }
+                    return null;
+                }
+            });
+            long removed = 0;
+            for (Object result : results) {
+                if (result instanceof Number) {
+                    removed += ((Number) result).longValue();
+                }
+            }
+            return removed;
+        } catch (Exception e) {
+            log.warn("Redis pipeline unlink failed, falling back to batch evict, keys count: {}, error: {}",
+                    keys.size(), e.getMessage());
+            evict(keys);
+            return keys.size();
+        }
+    }
+
+    private void reportProgress(LongConsumer progress, long removed) {
+        if (progress == null) {
+            return;
+        }
+        try {
+            progress.accept(removed);
+        } catch (Exception e) {
+            log.warn("Cache clear progress callback failed, error: {}", e.getMessage());
+        }
+    }
+
     public boolean isAvailable() {
         return available;
     }
 
     /**
      * 清空当前数据库的所有缓存（危险操作，谨慎使用）
-     * 注意：这会清空 Redis 当前数据库的所有数据，不仅仅是缓存数据
+     * 注意：这会清空 Redis 当前数据库的所有数据，不仅仅是缓存数据，且 FLUSHDB 执行期间会阻塞 Redis
+     *
+     * @deprecated 使用 {@link #clear(String)} 按缓存名称清空
      */
+    @Deprecated
     public void clear() {
         if (!available || redisTemplate == null) {
             log.warn("Redis not available or template is null, cannot clear cache");
@@ -0,0 +1,158 @@
+package com.mx.cache.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 远程单 key 读取的自动合批（DataLoader 风格）
+ * 1. 第一个到达的线程成为本批的 leader，最多等待一个时间窗口收集其他线程的 key
+ * 2. 窗口结束或收集满 maxBatchSize 个 key 时，leader 用一次 MGET 读取整批并把结果分发给等待者
+ * 3. 同一批内相同的 key 只读取一次
+ * 4. 没有其他线程正在读取时 leader 不等待窗口，直接发送，低并发时不增加延迟
+ * 不引入额外线程：等待 Redis 往返本来就会阻塞调用线程，leader 直接在自己的线程上执行 MGET
+ */
+@Slf4j
+public class RemoteGetBatcher {
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Function<List<String>, List<byte[]>> batchLoader;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Batch current;
+    /**
+     * 正在 get 中的线程数（包括 leader 自身）
+     */
+    private final AtomicInteger readers = new AtomicInteger();
+
+    /**
+     * @param maxBatchSize 每批最多 key 数量
+     * @param windowMicros 收集窗口（微秒）
+     * @param batchLoader 批量读取逻辑，返回值与 key 顺序对应，出错时返回空列表
+     */
+    public RemoteGetBatcher(int maxBatchSize, long windowMicros, Function<List<String>, List<byte[]>> batchLoader) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, windowMicros));
+        this.batchLoader = batchLoader;
+    }
+
+    /**
+     * 读取单个 key，与同一时间窗口内其他线程的读取合并为一次 MGET
+     *
+     * @param key 缓存 key
+     * @return 缓存值，不存在返回 null
+     */
+    public byte[] get(String key) {
+        readers.incrementAndGet();
+        try {
+            return getInBatch(key);
+        } finally {
+            readers.decrementAndGet();
+        }
+    }
+
+    private byte[] getInBatch(String key) {
+        Batch batch;
+        CompletableFuture<byte[]> future;
+        boolean leader = false;
+        lock.lock();
+        try {
+            if (current == null) {
+                current = new Batch(Thread.currentThread());
+                leader = true;
+            }
+            batch = current;
+            future = batch.futures.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (batch.futures.size() >= maxBatchSize) {
+                // 收集满：关闭本批并唤醒 leader 立即发送
+                current = null;
+                batch.closed = true;
+                if (!leader) {
+                    LockSupport.unpark(batch.leader);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            try {
+                awaitWindow(batch);
+                load(batch);
+            } finally {
+                // 无论 leader 因何结束（包括 Error），都关闭本批并完成所有等待者，避免 join 永久挂起
+                if (!batch.closed) {
+                    close(batch);
+                }
+                for (CompletableFuture<byte[]> pending : batch.futures.values()) {
+                    pending.complete(null);
+                }
+            }
+        }
+        return future.join();
+    }
+
+    private void awaitWindow(Batch batch) {
+        // 只有自己在读取时没有可合并的请求，不必等待
+        if (readers.get() <= 1) {
+            return;
+        }
+        long deadline = System.nanoTime() + windowNanos;
+        long remaining;
+        while (!batch.closed && (remaining = deadline - System.nanoTime()) > 0
+                && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    private void close(Batch batch) {
+        lock.lock();
+        try {
+            if (current == batch) {
+                current = null;
+            }
+            batch.closed = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void load(Batch batch) {
+        close(batch);
+        // 批次已关闭，futures 不会再被修改
+        List<String> keys = new ArrayList<>(batch.futures.keySet());
+        List<byte[]> values;
+        try {
+            values = batchLoader.apply(keys);
+        } catch (Exception e) {
+            log.error("Batched remote get failed, keys count: {}, error: {}", keys.size(), e.getMessage(), e);
+            values = null;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] value = values != null && i < values.size() ? values.get(i) : null;
+            batch.futures.get(keys.get(i)).complete(value);
+        }
+        if (keys.size() > 1) {
+            log.debug("Batched remote get, keys count: {}", keys.size());
+        }
+    }
+
+    private static final class Batch {
+        private final Thread leader;
+        private final Map<String, CompletableFuture<byte[]>> futures = new LinkedHashMap<>();
+        private volatile boolean closed;
+
+        private Batch(Thread leader) {
+            this.leader = leader;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.mx.cache.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 进程内 single-flight 加载器
+ * 1. 同一 key 的并发回源合并到同一个 CompletableFuture 上，只有第一个线程真正执行加载，
+ *    其余线程等待结果（包括异常），不依赖 Redis
+ * 2. 等待最长 waitTimeoutMillis，超时后由等待线程自行加载，加载线程卡住时不会拖住所有调用方
+ * 3. 注意：默认所有等待者拿到与加载线程同一个结果实例，调用方修改返回值会互相影响；
+ *    需要各自持有副本时通过 {@link #execute(String, Loader, UnaryOperator)} 的 waiterView 为等待者生成副本
+ */
+@Slf4j
+public class SingleFlight {
+
+    /**
+     * 加载逻辑，允许抛出任意异常（与 ProceedingJoinPoint.proceed 一致）
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws Throwable;
+    }
+
+    /**
+     * 等待超时标记（区别于加载结果 null）
+     */
+    private static final Object TIMED_OUT = new Object();
+
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 异步加载中的 key -> 共享 future
+     */
+    private final Map<String, CompletableFuture<Object>> asyncInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 等待者等待加载线程的最长时间（毫秒）
+     */
+    private volatile long waitTimeoutMillis = 5000;
+
+    public void setWaitTimeoutMillis(long waitTimeoutMillis) {
+        this.waitTimeoutMillis = Math.max(1, waitTimeoutMillis);
+    }
+
+    /**
+     * 执行加载，同一 key 同时只有一个线程执行 loader，等待者与加载线程共享同一个结果实例
+     *
+     * @param key 缓存 key
+     * @param loader 加载逻辑
+     * @return 加载结果
+     */
+    public <T> T execute(String key, Loader<T> loader) throws Throwable {
+        return execute(key, loader, null);
+    }
+
+    /**
+     * 执行加载，同一 key 同时只有一个线程执行 loader
+     *
+     * @param key 缓存 key
+     * @param loader 加载逻辑
+     * @param waiterView 等待者拿到结果后的转换（如从加载线程交来的序列化数据反序列化一份副本），为 null 时共享加载线程的结果
+     * @return 加载结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Loader<T> loader, UnaryOperator<T> waiterView) throws Throwable {
+        Flight flight = new Flight(Thread.currentThread());
+        Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            // 同一线程重入同一 key（如方法内部递归调用），直接执行，避免自我等待死锁
+            if (existing.owner == Thread.currentThread()) {
+                return loader.load();
+            }
+            Object shared = await(key, existing.future);
+            if (shared == TIMED_OUT) {
+                return loader.load();
+            }
+            return waiterView != null ? waiterView.apply((T) shared) : (T) shared;
+        }
+
+        try {
+            T value = loader.load();
+            flight.future.complete(value);
+            return value;
+        } catch (Throwable t) {
+            flight.future.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * 异步执行加载，同一 key 同时只有一个 loader 在运行，调用线程不会被阻塞
+     * 每个调用方拿到的是共享 future 的副本，取消自身的 future 不会影响其他调用方
+     *
+     * @param key 缓存 key
+     * @param loader 加载逻辑，返回加载结果的 future
+     * @return 加载结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String key, Supplier<CompletableFuture<T>> loader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = asyncInFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return (CompletableFuture<T>) existing.copy();
+        }
+
+        CompletableFuture<T> source;
+        try {
+            source = loader.get();
+        } catch (Throwable t) {
+            source = CompletableFuture.failedFuture(t);
+        }
+        source.whenComplete((value, error) -> {
+            asyncInFlight.remove(key, flight);
+            if (error != null) {
+                flight.completeExceptionally(error);
+            } else {
+                flight.complete(value);
+            }
+        });
+        return (CompletableFuture<T>) flight.copy();
+    }
+
+    /**
+     * 当前正在加载的 key 数量
+     */
+    public int inFlightCount() {
+        return inFlight.size() + asyncInFlight.size();
+    }
+
+    /**
+     * 等待加载线程的结果，超时或被中断时返回 {@link #TIMED_OUT}，由调用方自行加载
+     */
+    private Object await(String key, CompletableFuture<Object> future) throws Throwable {
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        } catch (TimeoutException e) {
+            log.warn("Single-flight wait timed out after {}ms, loading directly, key: {}", waitTimeoutMillis, key);
+            return TIMED_OUT;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Single-flight wait interrupted, loading directly, key: {}", key);
+            return TIMED_OUT;
+        }
+    }
+
+    private static final class Flight {
+        private final Thread owner;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        private Flight(Thread owner) {
+            this.owner = owner;
+        }
+    }
+}
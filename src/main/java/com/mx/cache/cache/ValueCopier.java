@@ -0,0 +1,95 @@
+package com.mx.cache.cache;
+
+import com.mx.cache.util.SerializerUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Type;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本地对象缓存的值拷贝器
+ * OBJECT 存储模式下，写入本地缓存时经过 {@link #copy}，命中时经过 {@link #read}，
+ * 用于隔离调用方对缓存对象的修改
+ */
+public interface ValueCopier {
+
+    /**
+     * 写入时拷贝缓存值
+     *
+     * @param value 原始对象（不为 null）
+     * @param valueType 调用方声明的类型（如方法的泛型返回类型），{@link #read} 的结果必须能赋值给该类型；
+     *                  null 表示对象的实际类型
+     * @return 保存在本地缓存中的对象，null 表示不缓存
+     */
+    Object copy(Object value, Type valueType);
+
+    /**
+     * 命中时返回给调用方的对象，默认直接返回缓存中保存的对象
+     *
+     * @param stored {@link #copy} 的结果
+     * @return 返回给调用方的对象
+     */
+    default Object read(Object stored) {
+        return stored;
+    }
+
+    /**
+     * 不拷贝，直接共享对象
+     * 注意：所有调用方拿到的是同一个实例，修改返回值会直接改掉缓存内容并被其他线程看到，
+     * 只适用于不可变对象（String、包装类型、record 等）；写入可变类型时按类型打印一次警告
+     */
+    @Slf4j
+    class Identity implements ValueCopier {
+        private final Set<Class<?>> warnedTypes = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public Object copy(Object value, Type valueType) {
+            Class<?> type = value.getClass();
+            if (!ImmutableValues.isImmutable(type) && warnedTypes.add(type)) {
+                log.warn("Local cache OBJECT mode shares mutable {} instances between callers, do not modify "
+                        + "returned values or use ValueCopier.Kryo", type.getName());
+            }
+            return value;
+        }
+    }
+
+    /**
+     * 写入时使用 Kryo 深拷贝一次，并转为不可变形式，命中时直接返回
+     * 1. 不可变类型及由 List / Set / Map / record 组成的对象图：冻结为只读集合，命中无需拷贝，
+     *    返回的集合不能修改（修改时抛出 UnsupportedOperationException）
+     * 2. 无法冻结的可变对象（含 setter 的 Bean、数组等），以及声明为具体集合类型（ArrayList / HashMap / EnumSet 等）、
+     *    只读集合不能赋值给声明类型的对象：命中时再从快照深拷贝一次
+     * 深拷贝直接在对象图上进行，不经过字节数组
+     */
+    class Kryo implements ValueCopier {
+        @Override
+        public Object copy(Object value, Type valueType) {
+            if (ImmutableValues.isImmutable(value.getClass())) {
+                return value;
+            }
+            Object copy = SerializerUtils.copy(value);
+            if (copy == null) {
+                return null;
+            }
+            Object frozen = ImmutableValues.freeze(copy, valueType);
+            return frozen != ImmutableValues.MUTABLE ? frozen : new Snapshot(copy);
+        }
+
+        @Override
+        public Object read(Object stored) {
+            return stored instanceof Snapshot ? SerializerUtils.copy(((Snapshot) stored).value) : stored;
+        }
+
+        /**
+         * 无法冻结的对象的快照，不会返回给调用方
+         */
+        private static final class Snapshot {
+            private final Object value;
+
+            private Snapshot(Object value) {
+                this.value = value;
+            }
+        }
+    }
+}
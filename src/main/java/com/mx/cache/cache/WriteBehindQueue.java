@@ -0,0 +1,326 @@
+package com.mx.cache.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 远程缓存 write-behind 队列
+ * 1. 写入先进入按 key 合并的有界队列，同一 key 在刷新前多次写入只保留最后一次
+ * 2. 后台线程按 flushIntervalMs 定时刷新，积压达到 flushSize 时立即刷新，
+ *    每批通过 {@link RemoteCache#pipelinePut(java.util.Collection)} 一次流水线发送
+ * 3. 队列满时按 {@link Backpressure} 策略处理
+ * 4. 数据在 Redis 确认写入后才从队列移除，刷新期间仍可通过 {@link #peek(String)} 读到；
+ *    取消（删除缓存、同步写入前）会等待包含该 key 的在途批次完成，保证之后的 DEL / SET 不会被在途的旧值覆盖
+ */
+@Slf4j
+public class WriteBehindQueue implements AutoCloseable {
+
+    /**
+     * 队列满时的处理策略
+     */
+    public enum Backpressure {
+        /**
+         * 由调用线程同步写入 Redis
+         */
+        CALLER_RUNS,
+        /**
+         * 丢弃本次写入（缓存写入失败不影响正确性，只影响命中率）
+         */
+        DISCARD,
+        /**
+         * 触发刷新并等待队列腾出空间，最多等待一个刷新间隔，仍然满时由调用线程同步写入
+         */
+        BLOCK
+    }
+
+    /**
+     * 待写入数据
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class PendingWrite {
+        private final String key;
+        private final byte[] value;
+        private final long expireMillis;
+        /**
+         * 标签，与值在同一次流水线中登记，可为 null
+         */
+        private final Collection<String> tags;
+    }
+
+    private final RemoteCache remoteCache;
+    private final int capacity;
+    private final int flushSize;
+    private final long flushIntervalMs;
+    private final Backpressure backpressure;
+
+    private final Map<String, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong discarded = new AtomicLong();
+    private final Object flushLock = new Object();
+    /**
+     * 正在流水线写入的批次，没有时为 null
+     */
+    private volatile InFlightBatch inFlight;
+
+    public WriteBehindQueue(RemoteCache remoteCache, int capacity, int flushSize, long flushIntervalMs,
+                            Backpressure backpressure) {
+        this.remoteCache = remoteCache;
+        this.capacity = Math.max(1, capacity);
+        this.flushSize = Math.max(1, flushSize);
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.backpressure = backpressure != null ? backpressure : Backpressure.CALLER_RUNS;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 启动定时刷新（由创建方在构造完成后调用）；未启动时只在积压达到 flushSize、队列满或显式 {@link #flush()} 时刷新
+     */
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 写入队列，同一 key 未刷新的旧值会被覆盖
+     *
+     * @param key 缓存 key
+     * @param value 缓存值
+     * @param expire 过期时间
+     * @param unit 时间单位
+     */
+    public void put(String key, byte[] value, long expire, TimeUnit unit) {
+        put(key, value, expire, unit, null);
+    }
+
+    /**
+     * 写入队列并登记标签，同一 key 未刷新的旧值会被覆盖
+     *
+     * @param key 缓存 key
+     * @param value 缓存值
+     * @param expire 过期时间
+     * @param unit 时间单位
+     * @param tags 标签，可为 null
+     */
+    public void put(String key, byte[] value, long expire, TimeUnit unit, Collection<String> tags) {
+        if (key == null || value == null) {
+            return;
+        }
+        PendingWrite write = new PendingWrite(key, value, Math.max(1, unit.toMillis(expire)), tags);
+        // 覆盖已有 key 不占用新的容量
+        if (pending.size() >= capacity && !pending.containsKey(key) && !handleFull(write)) {
+            return;
+        }
+        pending.put(key, write);
+        if (pending.size() >= flushSize) {
+            triggerFlush();
+        }
+    }
+
+    /**
+     * 读取尚未刷新到 Redis 的值，保证本节点写入后立即可读
+     *
+     * @param key 缓存 key
+     * @return 待写入的值，不存在时返回 null
+     */
+    public byte[] peek(String key) {
+        PendingWrite write = pending.get(key);
+        return write != null ? write.getValue() : null;
+    }
+
+    /**
+     * 取消尚未刷新的写入（删除缓存或同步写入前调用，避免旧值在之后覆盖）
+     *
+     * @param key 缓存 key
+     */
+    public void cancel(String key) {
+        pending.remove(key);
+        InFlightBatch batch = inFlight;
+        if (batch != null && batch.keys.contains(key)) {
+            batch.await();
+        }
+    }
+
+    /**
+     * 取消指定前缀（如 cacheName::）下所有尚未刷新的写入
+     *
+     * @param prefix key 前缀
+     */
+    public void cancelByPrefix(String prefix) {
+        pending.keySet().removeIf(key -> key.startsWith(prefix));
+        InFlightBatch batch = inFlight;
+        if (batch != null && batch.keys.stream().anyMatch(key -> key.startsWith(prefix))) {
+            batch.await();
+        }
+    }
+
+    /**
+     * 丢弃所有尚未刷新的写入，并等待在途批次完成
+     */
+    public void clear() {
+        pending.clear();
+        InFlightBatch batch = inFlight;
+        if (batch != null) {
+            batch.await();
+        }
+    }
+
+    /**
+     * 立即把队列中的数据全部刷新到 Redis
+     * 先发布在途批次的 key 再读取值：取消在读取之前发生则跳过该 key，之后发生则能看到在途批次并等待其完成
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            while (!pending.isEmpty()) {
+                List<String> keys = new ArrayList<>(Math.min(flushSize, pending.size()));
+                Iterator<String> iterator = pending.keySet().iterator();
+                while (iterator.hasNext() && keys.size() < flushSize) {
+                    keys.add(iterator.next());
+                }
+                if (keys.isEmpty()) {
+                    return;
+                }
+                InFlightBatch batch = new InFlightBatch(keys);
+                inFlight = batch;
+                try {
+                    List<PendingWrite> writes = new ArrayList<>(keys.size());
+                    for (String key : keys) {
+                        PendingWrite write = pending.get(key);
+                        if (write != null) {
+                            writes.add(write);
+                        }
+                    }
+                    if (!writes.isEmpty()) {
+                        remoteCache.pipelinePut(writes);
+                    }
+                    // 只移除已写入的那一份，刷新期间被覆盖的新值留到下一批
+                    for (PendingWrite write : writes) {
+                        pending.remove(write.getKey(), write);
+                    }
+                } finally {
+                    inFlight = null;
+                    batch.done.complete(null);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * 因队列满而被丢弃的写入次数（DISCARD 策略）
+     */
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 关闭前把剩余数据写入 Redis
+        flushQuietly();
+        log.info("WriteBehindQueue closed, discarded writes: {}", discarded.get());
+    }
+
+    /**
+     * 队列满时的处理
+     *
+     * @return true 表示仍需放入队列
+     */
+    private boolean handleFull(PendingWrite write) {
+        switch (backpressure) {
+            case DISCARD:
+                discarded.incrementAndGet();
+                log.debug("Write-behind queue full, discarding write, key: {}", write.getKey());
+                return false;
+            case BLOCK:
+                triggerFlush();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (pending.size() >= capacity && System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+                if (pending.size() < capacity) {
+                    return true;
+                }
+                writeThrough(write);
+                return false;
+            case CALLER_RUNS:
+            default:
+                writeThrough(write);
+                return false;
+        }
+    }
+
+    private void writeThrough(PendingWrite write) {
+        log.debug("Write-behind queue full, writing through, key: {}", write.getKey());
+        remoteCache.put(write.getKey(), write.getValue(), write.getExpireMillis(), TimeUnit.MILLISECONDS,
+                write.getTags());
+    }
+
+    private void triggerFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flusher.execute(() -> {
+                flushScheduled.set(false);
+                flushQuietly();
+            });
+        } catch (RejectedExecutionException e) {
+            flushScheduled.set(false);
+        }
+    }
+
+    /**
+     * 正在写入 Redis 的一批 key
+     */
+    private static final class InFlightBatch {
+        private final Set<String> keys;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private InFlightBatch(List<String> keys) {
+            this.keys = new HashSet<>(keys);
+        }
+
+        private void await() {
+            done.join();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Write-behind flush failed, pending: {}, error: {}", pending.size(), e.getMessage(), e);
+        }
+    }
+}
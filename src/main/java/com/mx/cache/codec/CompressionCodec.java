@@ -0,0 +1,46 @@
+package com.mx.cache.codec;
+
+import com.mx.cache.util.PooledBuffer;
+
+import java.io.IOException;
+
+/**
+ * 压缩算法
+ * 压缩结果前由 {@link CompressionCodecRegistry} 附加头部（算法 id、格式版本、原始长度），读取时按头部选择算法，
+ * 因此算法 id 写入后不能更改；自定义实现注册为 Spring Bean 后自动加入注册表，id 使用 64 及以上的值
+ */
+public interface CompressionCodec {
+
+    /**
+     * 写入头部的算法 id（1 ~ 127）
+     */
+    byte id();
+
+    /**
+     * 算法名称，用于 {@code @Cacheable(zipCodec = "...")} 和 cache.compression.default-codec
+     */
+    String name();
+
+    /**
+     * 压缩 data[offset, offset + length) 并追加到缓冲区
+     *
+     * @param data 原始数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @param out 目标缓冲区
+     * @throws IOException 压缩失败
+     */
+    void compress(byte[] data, int offset, int length, PooledBuffer out) throws IOException;
+
+    /**
+     * 解压
+     *
+     * @param data 压缩数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @param uncompressedLength 头部记录的原始长度
+     * @return 原始数据，长度必须等于 uncompressedLength
+     * @throws IOException 解压失败
+     */
+    byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) throws IOException;
+}
@@ -0,0 +1,201 @@
+package com.mx.cache.codec;
+
+import com.mx.cache.util.CompressUtils;
+import com.mx.cache.util.PooledBuffer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CompressionCodec} 注册表及压缩数据格式
+ * 格式：[MAGIC(2)][VERSION(1)][codecId(1)][uncompressedLength(4)][数据]
+ * 1. zip = true 的缓存写入的值总是带头部：未达到阈值或压缩后不比原始数据小时 codecId 为 {@link #STORED_ID}，数据原样跟在头部后
+ * 2. zip = false 的缓存不写头部，数据原样存储（JSON / raw 等格式仍可被其他语言直接读取）
+ * 3. 读取时无论 zip 如何配置都识别头部并按头部选择算法，切换算法或开关压缩后已有数据仍可读取；
+ *    zip = true 的缓存中没有头部的数据按旧版本写入处理：以 GZIP 魔数开头的按 GZIP 解压，其余原样返回
+ * 魔数 0xC5 0x5C 不是合法的 UTF-8 开头，Kryo 数据也不会以它开头；zip = false 的缓存中算法 id 未注册或长度不符的
+ * 数据不是本格式写入的，原样返回；头部合法但解压失败时抛出异常，由调用方按未命中处理
+ */
+@Slf4j
+public class CompressionCodecRegistry {
+    public static final int HEADER_SIZE = 8;
+    /**
+     * 未压缩数据的算法 id
+     */
+    public static final byte STORED_ID = 0;
+    private static final byte MAGIC_0 = (byte) 0xC5;
+    private static final byte MAGIC_1 = (byte) 0x5C;
+    private static final byte VERSION = 1;
+    private static final byte GZIP_MAGIC_0 = (byte) 0x1F;
+    private static final byte GZIP_MAGIC_1 = (byte) 0x8B;
+
+    private final String defaultName;
+    private final Map<String, CompressionCodec> codecsByName = new ConcurrentHashMap<>();
+    private final CompressionCodec[] codecsById = new CompressionCodec[128];
+
+    /**
+     * @param defaultName 注解未指定 zipCodec 时使用的算法名称
+     */
+    public CompressionCodecRegistry(String defaultName) {
+        this.defaultName = defaultName == null || defaultName.isEmpty() ? Lz4CompressionCodec.NAME : defaultName;
+        put(new GzipCompressionCodec());
+        put(new Lz4CompressionCodec());
+    }
+
+    /**
+     * 注册压缩算法，id 或名称与已注册的算法冲突时覆盖
+     *
+     * @param codec 压缩算法
+     */
+    public synchronized void register(CompressionCodec codec) {
+        put(codec);
+    }
+
+    private void put(CompressionCodec codec) {
+        int id = codec.id();
+        if (id <= 0) {
+            throw new IllegalArgumentException("Compression codec id must be between 1 and 127, codec: "
+                    + codec.name());
+        }
+        CompressionCodec previous = codecsById[id];
+        if (previous != null && !previous.name().equals(codec.name())) {
+            log.warn("Compression codec id {} re-registered, {} -> {}", id, previous.name(), codec.name());
+            codecsByName.remove(previous.name());
+        }
+        codecsById[id] = codec;
+        codecsByName.put(codec.name(), codec);
+    }
+
+    /**
+     * 获取指定名称的压缩算法
+     *
+     * @param name 算法名称，为空时返回默认算法
+     * @return 压缩算法
+     */
+    public CompressionCodec get(String name) {
+        String key = name == null || name.isEmpty() ? defaultName : name;
+        CompressionCodec codec = codecsByName.get(key);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown compression codec: " + key);
+        }
+        return codec;
+    }
+
+    /**
+     * 压缩并附加头部
+     *
+     * @param data 原始数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @param codecName 算法名称，为空时使用默认算法
+     * @return 带头部的数据，压缩后不比原始数据小时为带 {@link #STORED_ID} 头部的原始数据
+     * @throws IOException 压缩失败
+     */
+    public byte[] compress(byte[] data, int offset, int length, String codecName) throws IOException {
+        return compress(data, offset, length, get(codecName));
+    }
+
+    /**
+     * 使用已解析的算法压缩并附加头部
+     *
+     * @param data 原始数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @param codec 压缩算法
+     * @return 带头部的数据，压缩后不比原始数据小时为带 {@link #STORED_ID} 头部的原始数据
+     * @throws IOException 压缩失败
+     */
+    public byte[] compress(byte[] data, int offset, int length, CompressionCodec codec) throws IOException {
+        PooledBuffer out = PooledBuffer.acquire();
+        try {
+            writeHeader(out, codec.id(), length);
+            codec.compress(data, offset, length, out);
+            return out.size() < HEADER_SIZE + length ? out.toByteArray() : stored(data, offset, length);
+        } finally {
+            out.release();
+        }
+    }
+
+    /**
+     * 附加 {@link #STORED_ID} 头部，不压缩
+     * zip = true 的缓存中未达到压缩阈值、压缩无收益或压缩失败的值使用此格式
+     *
+     * @param data 原始数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 带头部的原始数据
+     */
+    public byte[] stored(byte[] data, int offset, int length) {
+        byte[] result = new byte[HEADER_SIZE + length];
+        result[0] = MAGIC_0;
+        result[1] = MAGIC_1;
+        result[2] = VERSION;
+        result[3] = STORED_ID;
+        result[4] = (byte) (length >>> 24);
+        result[5] = (byte) (length >>> 16);
+        result[6] = (byte) (length >>> 8);
+        result[7] = (byte) length;
+        System.arraycopy(data, offset, result, HEADER_SIZE, length);
+        return result;
+    }
+
+    private static void writeHeader(PooledBuffer out, byte codecId, int length) {
+        out.write(MAGIC_0);
+        out.write(MAGIC_1);
+        out.write(VERSION);
+        out.write(codecId);
+        out.write(length >>> 24);
+        out.write(length >>> 16);
+        out.write(length >>> 8);
+        out.write(length);
+    }
+
+    /**
+     * 按头部解压，无论缓存是否开启压缩都识别头部
+     *
+     * @param data 缓存数据（已去除信封）
+     * @param zip 缓存是否开启压缩；开启时识别旧版本写入的无头部 GZIP 数据，头部中的算法未注册时抛出异常
+     * @return 原始数据
+     * @throws IllegalStateException 头部合法但解压失败，或（zip = true 时）算法未注册
+     */
+    public byte[] decompress(byte[] data, boolean zip) {
+        if (data == null || data.length < 2) {
+            return data;
+        }
+        if (data[0] == MAGIC_0 && data[1] == MAGIC_1 && data.length >= HEADER_SIZE && data[2] == VERSION) {
+            int length = ((data[4] & 0xFF) << 24) | ((data[5] & 0xFF) << 16) | ((data[6] & 0xFF) << 8)
+                    | (data[7] & 0xFF);
+            if (data[3] == STORED_ID) {
+                if (length == data.length - HEADER_SIZE) {
+                    return Arrays.copyOfRange(data, HEADER_SIZE, data.length);
+                }
+                if (zip) {
+                    throw new IllegalStateException("Stored data length mismatch, header: " + length
+                            + ", actual: " + (data.length - HEADER_SIZE));
+                }
+                return data;
+            }
+            CompressionCodec codec = data[3] > 0 ? codecsById[data[3]] : null;
+            if (codec == null || length < 0) {
+                if (zip) {
+                    throw new IllegalStateException("Unknown compression codec id: " + data[3]
+                            + ", the codec library may be missing on this node");
+                }
+                return data;
+            }
+            try {
+                return codec.decompress(data, HEADER_SIZE, data.length - HEADER_SIZE, length);
+            } catch (IOException e) {
+                throw new IllegalStateException("Data with compression header failed to decompress, codec: "
+                        + codec.name() + ", error: " + e.getMessage(), e);
+            }
+        }
+        if (zip && data[0] == GZIP_MAGIC_0 && data[1] == GZIP_MAGIC_1) {
+            return CompressUtils.decompress(data);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,42 @@
+package com.mx.cache.codec;
+
+import com.mx.cache.util.CompressUtils;
+import com.mx.cache.util.PooledBuffer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * GZIP：压缩率较高，CPU 开销最大，兼容旧版本写入的无头部 GZIP 数据
+ */
+public class GzipCompressionCodec implements CompressionCodec {
+    public static final byte ID = 1;
+    public static final String NAME = "gzip";
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void compress(byte[] data, int offset, int length, PooledBuffer out) throws IOException {
+        CompressUtils.compress(data, offset, length, out);
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data, offset, length))) {
+            byte[] result = gzip.readNBytes(uncompressedLength);
+            if (result.length != uncompressedLength || gzip.read() != -1) {
+                throw new IOException("GZIP uncompressed length mismatch, expected: " + uncompressedLength);
+            }
+            return result;
+        }
+    }
+}
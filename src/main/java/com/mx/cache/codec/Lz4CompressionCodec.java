@@ -0,0 +1,60 @@
+package com.mx.cache.codec;
+
+import com.mx.cache.util.PooledBuffer;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.io.IOException;
+
+/**
+ * LZ4（默认）：压缩和解压都远快于 GZIP，压缩率略低，适合大多数缓存值
+ * 直接压缩到缓冲区的数组上；解压使用 safe 解压器，损坏的数据不会越界读写
+ */
+public class Lz4CompressionCodec implements CompressionCodec {
+    public static final byte ID = 2;
+    public static final String NAME = "lz4";
+
+    private final LZ4Compressor compressor;
+    private final LZ4SafeDecompressor decompressor;
+
+    public Lz4CompressionCodec() {
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.safeDecompressor();
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void compress(byte[] data, int offset, int length, PooledBuffer out) {
+        int maxLength = compressor.maxCompressedLength(length);
+        out.ensureCapacity(maxLength);
+        int written = compressor.compress(data, offset, length, out.array(), out.size(), maxLength);
+        out.adopt(out.array(), out.size() + written);
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) throws IOException {
+        byte[] result = new byte[uncompressedLength];
+        try {
+            int read = decompressor.decompress(data, offset, length, result, 0, uncompressedLength);
+            if (read != uncompressedLength) {
+                throw new IOException("LZ4 uncompressed length mismatch, expected: " + uncompressedLength
+                        + ", actual: " + read);
+            }
+        } catch (LZ4Exception e) {
+            throw new IOException("LZ4 decompression failed", e);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+package com.mx.cache.codec;
+
+import com.github.luben.zstd.Zstd;
+import com.mx.cache.util.PooledBuffer;
+
+import java.io.IOException;
+
+/**
+ * Zstd：压缩率接近或高于 GZIP，速度快得多，适合体积大、读多写少的缓存值（需要 zstd-jni）
+ */
+public class ZstdCompressionCodec implements CompressionCodec {
+    public static final byte ID = 3;
+    public static final String NAME = "zstd";
+
+    private final int level;
+
+    /**
+     * @param level 压缩级别（1 ~ 22，越大压缩率越高、越慢）
+     */
+    public ZstdCompressionCodec(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void compress(byte[] data, int offset, int length, PooledBuffer out) throws IOException {
+        int maxLength = (int) Math.min(Integer.MAX_VALUE, Zstd.compressBound(length));
+        out.ensureCapacity(maxLength);
+        long written = Zstd.compressByteArray(out.array(), out.size(), maxLength, data, offset, length, level);
+        if (Zstd.isError(written)) {
+            throw new IOException("Zstd compression failed: " + Zstd.getErrorName(written));
+        }
+        out.adopt(out.array(), out.size() + (int) written);
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) throws IOException {
+        byte[] result = new byte[uncompressedLength];
+        long read = Zstd.decompressByteArray(result, 0, uncompressedLength, data, offset, length);
+        if (Zstd.isError(read)) {
+            throw new IOException("Zstd decompression failed: " + Zstd.getErrorName(read));
+        }
+        if (read != uncompressedLength) {
+            throw new IOException("Zstd uncompressed length mismatch, expected: " + uncompressedLength
+                    + ", actual: " + read);
+        }
+        return result;
+    }
+}
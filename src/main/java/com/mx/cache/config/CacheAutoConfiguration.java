@@ -1,31 +1,65 @@
 package com.mx.cache.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mx.cache.aspect.BatchCacheAspect;
 import com.mx.cache.aspect.CacheAspect;
+import com.mx.cache.aspect.CacheEvictAspect;
 import com.mx.cache.aspect.CachePreloadAspect;
 import com.mx.cache.aspect.CacheRefreshAspect;
+import com.mx.cache.cache.AsyncRemoteCache;
+import com.mx.cache.cache.CacheGenerations;
+import com.mx.cache.cache.ClientTrackingNearCache;
+import com.mx.cache.cache.DiskCache;
+import com.mx.cache.cache.HotKeyNotifier;
+import com.mx.cache.cache.LocalTagIndex;
 import com.mx.cache.cache.MultiLevelCacheManager;
 import com.mx.cache.cache.NoOpRemoteCache;
+import com.mx.cache.cache.OffHeapSlabAllocator;
 import com.mx.cache.cache.RemoteCache;
+import com.mx.cache.cache.WriteBehindQueue;
+import com.mx.cache.codec.CompressionCodec;
+import com.mx.cache.codec.CompressionCodecRegistry;
+import com.mx.cache.codec.ZstdCompressionCodec;
+import com.mx.cache.invalidation.InvalidationBus;
+import com.mx.cache.invalidation.InvalidationTransport;
+import com.mx.cache.invalidation.RedisInvalidationTransport;
+import com.mx.cache.key.KeyGeneratorRegistry;
 import com.mx.cache.metadata.CacheAnnotationScanner;
+import com.mx.cache.metadata.CachePlan;
+import com.mx.cache.serializer.CacheSerializerRegistry;
+import com.mx.cache.serializer.JsonCacheSerializer;
+import com.mx.cache.serializer.ProtobufCacheSerializer;
 import com.mx.cache.util.BloomFilterUtils;
+import com.mx.cache.util.PooledBuffer;
+import com.mx.cache.util.SerializerUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.UUID;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @AutoConfiguration
@@ -39,6 +73,11 @@ import java.util.concurrent.ThreadPoolExecutor;
 @EnableConfigurationProperties(CacheProperties.class)
 public class CacheAutoConfiguration {
 
+    /**
+     * 磁盘缓存单个 segment 的最大大小（1GB）
+     */
+    private static final long MAX_DISK_SEGMENT_SIZE = 1024L * 1024 * 1024;
+
     /**
      * RedisTemplate for cache data (byte[])
      */
@@ -79,8 +118,114 @@ public class CacheAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean(name = "cacheRedisTemplate")
-    public RemoteCache remoteCache(RedisTemplate<String, byte[]> cacheRedisTemplate) {
-        return new RemoteCache(cacheRedisTemplate);
+    public RemoteCache remoteCache(RedisTemplate<String, byte[]> cacheRedisTemplate, CacheProperties properties) {
+        RemoteCache remoteCache = new RemoteCache(cacheRedisTemplate);
+        CacheProperties.GetBatching batching = properties.getGetBatching();
+        if (batching != null && Boolean.TRUE.equals(batching.getEnabled())) {
+            remoteCache.enableGetBatching(batching.getMaxBatchSize(), batching.getWindowMicros());
+        }
+        CacheProperties.Clear clear = properties.getClear();
+        if (clear != null) {
+            remoteCache.configureClear(clear.getScanCount(), clear.getUnlinkBatchSize());
+        }
+        remoteCache.setTagKeyPrefix(properties.getTag().getKeyPrefix());
+        return remoteCache;
+    }
+
+    /**
+     * AsyncRemoteCache bean（仅 Lettuce 连接工厂）
+     * 独立配置类隔离 Lettuce 类型，使用 Jedis 等其他客户端时不会加载；创建后注入 MultiLevelCacheManager
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.lettuce.core.RedisClient")
+    @ConditionalOnProperty(prefix = "cache", name = "async-remote-enabled", havingValue = "true")
+    static class AsyncRemoteCacheConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnBean(LettuceConnectionFactory.class)
+        public AsyncRemoteCache asyncRemoteCache(LettuceConnectionFactory connectionFactory,
+                                                 MultiLevelCacheManager cacheManager) {
+            AsyncRemoteCache asyncRemoteCache = new AsyncRemoteCache(connectionFactory);
+            // 没有 RemoteCache（降级为 NoOpRemoteCache）时不启用异步远程读写
+            if (!(cacheManager.getRemoteCache() instanceof NoOpRemoteCache)) {
+                cacheManager.setAsyncRemoteCache(asyncRemoteCache);
+            }
+            return asyncRemoteCache;
+        }
+    }
+
+    /**
+     * ClientTrackingNearCache bean（cache.client-tracking.enabled=true 且使用 Lettuce 时）
+     * 创建后注入 MultiLevelCacheManager，集群模式下不生效
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.lettuce.core.RedisClient")
+    @ConditionalOnProperty(prefix = "cache.client-tracking", name = "enabled", havingValue = "true")
+    static class ClientTrackingConfiguration {
+
+        @Bean(destroyMethod = "close")
+        @ConditionalOnMissingBean
+        @ConditionalOnBean(LettuceConnectionFactory.class)
+        public ClientTrackingNearCache clientTrackingNearCache(LettuceConnectionFactory connectionFactory,
+                                                               MultiLevelCacheManager cacheManager) {
+            ClientTrackingNearCache tracking = new ClientTrackingNearCache(connectionFactory,
+                    cacheManager::evictLocal, cacheManager::clearLocal);
+            if (tracking.start()) {
+                cacheManager.setClientTracking(tracking);
+            }
+            return tracking;
+        }
+    }
+
+    /**
+     * WriteBehindQueue bean（cache.write-behind.enabled=true 且存在 RemoteCache 时）
+     * 创建后注入 MultiLevelCacheManager，关闭时把剩余数据写入 Redis
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RemoteCache.class)
+    @ConditionalOnProperty(prefix = "cache.write-behind", name = "enabled", havingValue = "true")
+    public WriteBehindQueue writeBehindQueue(RemoteCache remoteCache, MultiLevelCacheManager cacheManager,
+                                             CacheProperties properties) {
+        CacheProperties.WriteBehind config = properties.getWriteBehind();
+        WriteBehindQueue queue = new WriteBehindQueue(remoteCache, config.getCapacity(), config.getFlushSize(),
+                config.getFlushIntervalMs(), config.getBackpressure());
+        queue.start();
+        cacheManager.setWriteBehindQueue(queue);
+        return queue;
+    }
+
+    /**
+     * DiskCache bean（cache.disk.enabled=true 时）
+     * 打开时从数据目录恢复索引（recoveryTtlMs 为 0 时丢弃旧数据），按 compactionIntervalMs 定时压缩，
+     * segment 封存在 cacheScheduler 中执行；打开成功后注入 MultiLevelCacheManager
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "cache.disk", name = "enabled", havingValue = "true")
+    public DiskCache diskCache(MultiLevelCacheManager cacheManager,
+                               @Qualifier("cacheScheduler") ScheduledExecutorService cacheScheduler,
+                               CacheProperties properties) {
+        CacheProperties.Disk config = properties.getDisk();
+        // segment 整体映射为一个 MappedByteBuffer，大小不能超过 int 范围
+        long segmentSize = config.getSegmentSizeMb() * 1024L * 1024L;
+        if (segmentSize > MAX_DISK_SEGMENT_SIZE) {
+            log.warn("cache.disk.segment-size-mb {} exceeds the limit, using {}MB",
+                    config.getSegmentSizeMb(), MAX_DISK_SEGMENT_SIZE / 1024 / 1024);
+            segmentSize = MAX_DISK_SEGMENT_SIZE;
+        }
+        DiskCache diskCache = new DiskCache(config.getDirectory(), (int) segmentSize,
+                config.getMaxSizeMb() * 1024L * 1024L, config.getCompactionThreshold(), config.getRecoveryTtlMs(),
+                cacheScheduler);
+        if (diskCache.open()) {
+            long interval = config.getCompactionIntervalMs();
+            if (interval > 0) {
+                cacheScheduler.scheduleWithFixedDelay(diskCache::compact, interval, interval, TimeUnit.MILLISECONDS);
+            }
+            cacheManager.setDiskCache(diskCache);
+        }
+        return diskCache;
     }
 
     /**
@@ -90,10 +235,18 @@ public class CacheAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public MultiLevelCacheManager multiLevelCacheManager(
-            @Autowired(required = false) RemoteCache remoteCache) {
+            @Autowired(required = false) RemoteCache remoteCache,
+            @Qualifier("cacheExecutor") ThreadPoolExecutor cacheExecutor,
+            CacheProperties properties) {
         // 如果没有 Redis，创建一个不可用的 RemoteCache
         RemoteCache cache = remoteCache != null ? remoteCache : createNoOpRemoteCache();
-        MultiLevelCacheManager manager = new MultiLevelCacheManager(cache);
+        MultiLevelCacheManager manager = new MultiLevelCacheManager(cache, cacheExecutor);
+        manager.setLocalTagIndex(new LocalTagIndex(properties.getTag().getLocalMaxTags()));
+        manager.setLoadWaitTimeoutMillis(properties.getHotKeyProtection().getWaitTimeoutMs());
+        // 堆外 slab 按需申请，不使用 OFF_HEAP 模式时不占用内存
+        CacheProperties.OffHeap offHeap = properties.getOffHeap();
+        manager.setOffHeapAllocator(new OffHeapSlabAllocator(offHeap.getCapacityMb() * 1024 * 1024,
+                offHeap.getSlabSizeKb() * 1024));
         manager.init();
         return manager;
     }
@@ -112,6 +265,33 @@ public class CacheAutoConfiguration {
         return new CacheAnnotationScanner();
     }
 
+    /**
+     * 所有单例初始化后把注解扫描到的缓存名称登记到 MultiLevelCacheManager，
+     * clearAll 按这些名称前缀清空远程缓存（包括本次启动前写入的数据），并预先加载 generational 缓存的代数
+     */
+    @Bean
+    public SmartInitializingSingleton cacheNameRegistrar(CacheAnnotationScanner annotationScanner,
+                                                         MultiLevelCacheManager cacheManager) {
+        return () -> annotationScanner.getCacheNames().forEach(cacheName -> {
+            cacheManager.registerCacheName(cacheName);
+            CachePlan plan = annotationScanner.getPlan(cacheName);
+            if (plan != null && plan.isGenerational()) {
+                cacheManager.enableGeneration(cacheName);
+            }
+        });
+    }
+
+    /**
+     * 所有单例初始化后解析每个执行计划的序列化器和压缩算法（自定义序列化器 Bean 此时已可用），
+     * 名称不存在时启动失败，运行时不再按名称查找
+     */
+    @Bean
+    public SmartInitializingSingleton cachePlanBinder(CacheAnnotationScanner annotationScanner,
+                                                      CacheSerializerRegistry serializerRegistry,
+                                                      CompressionCodecRegistry codecRegistry) {
+        return () -> annotationScanner.getPlans().forEach(plan -> plan.bind(serializerRegistry, codecRegistry));
+    }
+
     /**
      * BloomFilterUtils bean
      */
@@ -123,6 +303,181 @@ public class CacheAutoConfiguration {
         return utils;
     }
 
+    /**
+     * Redis pub/sub 监听容器，供缓存框架内部的通知通道共用
+     */
+    @Bean(name = "cacheMessageListenerContainer")
+    @ConditionalOnMissingBean(name = "cacheMessageListenerContainer")
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    public RedisMessageListenerContainer cacheMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * 热点 key 回源完成通知（only when Redis is available）
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    public HotKeyNotifier hotKeyNotifier(
+            RedisTemplate<String, String> lockRedisTemplate,
+            @Qualifier("cacheMessageListenerContainer") RedisMessageListenerContainer container,
+            CacheProperties properties) {
+        HotKeyNotifier notifier = new HotKeyNotifier(lockRedisTemplate, properties.getHotKeyProtection().getChannel());
+        container.addMessageListener(notifier, new ChannelTopic(notifier.getChannel()));
+        return notifier;
+    }
+
+    /**
+     * 缓存代数（版本化命名空间，only when Redis is available）
+     * 代数变化通过 pub/sub 推送，并按 refreshIntervalMs 定时从 Redis 兜底刷新；创建后注入 MultiLevelCacheManager
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    public CacheGenerations cacheGenerations(
+            RedisTemplate<String, String> lockRedisTemplate,
+            @Qualifier("cacheMessageListenerContainer") RedisMessageListenerContainer container,
+            @Qualifier("cacheScheduler") ScheduledExecutorService cacheScheduler,
+            MultiLevelCacheManager cacheManager,
+            CacheProperties properties) {
+        CacheProperties.Generation config = properties.getGeneration();
+        CacheGenerations generations = new CacheGenerations(lockRedisTemplate, config.getKeyPrefix(),
+                config.getChannel());
+        container.addMessageListener(generations, new ChannelTopic(generations.getChannel()));
+        long interval = config.getRefreshIntervalMs();
+        if (interval > 0) {
+            cacheScheduler.scheduleWithFixedDelay(generations::refresh, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        cacheManager.setCacheGenerations(generations);
+        return generations;
+    }
+
+    /**
+     * 默认失效消息通道：Redis pub/sub（only when Redis is available）
+     * 注册自定义 InvalidationTransport Bean 即可替换
+     */
+    @Bean
+    @ConditionalOnMissingBean(InvalidationTransport.class)
+    @ConditionalOnBean(name = "cacheRedisTemplate")
+    @ConditionalOnProperty(prefix = "cache.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RedisInvalidationTransport redisInvalidationTransport(
+            @Qualifier("cacheRedisTemplate") RedisTemplate<String, byte[]> cacheRedisTemplate,
+            @Qualifier("cacheMessageListenerContainer") RedisMessageListenerContainer container,
+            CacheProperties properties) {
+        RedisInvalidationTransport transport = new RedisInvalidationTransport(cacheRedisTemplate,
+                properties.getInvalidation().getChannel());
+        container.addMessageListener(transport, new ChannelTopic(transport.getChannel()));
+        return transport;
+    }
+
+    /**
+     * 跨节点本地缓存失效总线，创建后注入 MultiLevelCacheManager
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(InvalidationTransport.class)
+    @ConditionalOnProperty(prefix = "cache.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public InvalidationBus invalidationBus(InvalidationTransport transport, MultiLevelCacheManager cacheManager,
+                                           CacheProperties properties) {
+        CacheProperties.Invalidation config = properties.getInvalidation();
+        String nodeId = config.getNodeId() != null && !config.getNodeId().isEmpty()
+                ? config.getNodeId() : UUID.randomUUID().toString();
+        InvalidationBus bus = new InvalidationBus(nodeId, transport, config.getFlushIntervalMs(),
+                config.getMaxBatchSize());
+        bus.start();
+        cacheManager.setInvalidationBus(bus);
+        log.info("Cache invalidation bus started, node id: {}", nodeId);
+        return bus;
+    }
+
+    /**
+     * KeyGeneratorRegistry bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public KeyGeneratorRegistry keyGeneratorRegistry(BeanFactory beanFactory) {
+        return new KeyGeneratorRegistry(beanFactory);
+    }
+
+    /**
+     * CacheSerializerRegistry bean，内置 kryo、raw，json、protobuf 由下面的配置类在依赖存在时注册
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheSerializerRegistry cacheSerializerRegistry(BeanFactory beanFactory, CacheProperties properties) {
+        CacheProperties.Serialization config = properties.getSerialization();
+        if (config.getKryoPoolSize() != null) {
+            SerializerUtils.configurePool(config.getKryoPoolSize());
+        }
+        if (config.getBufferPoolSize() != null) {
+            PooledBuffer.configurePool(config.getBufferPoolSize());
+        }
+        return new CacheSerializerRegistry(beanFactory, config.getDefaultSerializer());
+    }
+
+    /**
+     * JsonCacheSerializer bean（classpath 存在 Jackson 时），优先复用应用的 ObjectMapper，创建后注册为 json
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "com.fasterxml.jackson.databind.ObjectMapper")
+    static class JsonSerializerConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public JsonCacheSerializer jsonCacheSerializer(CacheSerializerRegistry serializerRegistry,
+                                                       ObjectProvider<ObjectMapper> objectMapper) {
+            JsonCacheSerializer serializer = new JsonCacheSerializer(objectMapper.getIfAvailable(ObjectMapper::new));
+            serializerRegistry.register(JsonCacheSerializer.NAME, serializer);
+            return serializer;
+        }
+    }
+
+    /**
+     * ProtobufCacheSerializer bean（classpath 存在 protobuf-java 时），创建后注册为 protobuf
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "com.google.protobuf.MessageLite")
+    static class ProtobufSerializerConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ProtobufCacheSerializer protobufCacheSerializer(CacheSerializerRegistry serializerRegistry) {
+            ProtobufCacheSerializer serializer = new ProtobufCacheSerializer();
+            serializerRegistry.register(ProtobufCacheSerializer.NAME, serializer);
+            return serializer;
+        }
+    }
+
+    /**
+     * CompressionCodecRegistry bean，内置 gzip、lz4，容器中的 CompressionCodec Bean（如 zstd）一并注册
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public CompressionCodecRegistry compressionCodecRegistry(CacheProperties properties,
+                                                             ObjectProvider<CompressionCodec> codecs) {
+        CompressionCodecRegistry registry = new CompressionCodecRegistry(properties.getCompression().getDefaultCodec());
+        codecs.orderedStream().forEach(registry::register);
+        return registry;
+    }
+
+    /**
+     * ZstdCompressionCodec bean（classpath 存在 zstd-jni 时）
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "com.github.luben.zstd.Zstd")
+    static class ZstdCodecConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ZstdCompressionCodec zstdCompressionCodec(CacheProperties properties) {
+            Integer level = properties.getCompression().getZstdLevel();
+            return new ZstdCompressionCodec(level != null ? level : 3);
+        }
+    }
+
     /**
      * CacheAspect bean
      */
@@ -133,12 +488,28 @@ public class CacheAutoConfiguration {
             MultiLevelCacheManager cacheManager,
             @Autowired(required = false) RedisTemplate<String, String> lockRedisTemplate,
             BloomFilterUtils bloomFilterUtils,
-            CacheProperties properties) {
+            CacheProperties properties,
+            KeyGeneratorRegistry keyGeneratorRegistry,
+            @Autowired(required = false) HotKeyNotifier hotKeyNotifier,
+            CacheSerializerRegistry serializerRegistry,
+            CompressionCodecRegistry codecRegistry) {
         // 如果没有 Redis，lockRedisTemplate 为 null，热点 key 保护功能将不可用
-        CacheAspect aspect = new CacheAspect(annotationScanner, cacheManager, lockRedisTemplate, bloomFilterUtils, properties);
+        CacheAspect aspect = new CacheAspect(annotationScanner, cacheManager, lockRedisTemplate, bloomFilterUtils,
+                properties, keyGeneratorRegistry, hotKeyNotifier, serializerRegistry, codecRegistry);
         return aspect;
     }
 
+    /**
+     * CacheEvictAspect bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheEvictAspect cacheEvictAspect(
+            CacheAnnotationScanner annotationScanner,
+            MultiLevelCacheManager cacheManager) {
+        return new CacheEvictAspect(annotationScanner, cacheManager);
+    }
+
     /**
      * BatchCacheAspect bean
      */
@@ -147,8 +518,11 @@ public class CacheAutoConfiguration {
     public BatchCacheAspect batchCacheAspect(
             CacheAnnotationScanner annotationScanner,
             MultiLevelCacheManager cacheManager,
-            CacheProperties properties) {
-        BatchCacheAspect aspect = new BatchCacheAspect(annotationScanner, cacheManager);
+            CacheProperties properties,
+            CacheSerializerRegistry serializerRegistry,
+            CompressionCodecRegistry codecRegistry) {
+        BatchCacheAspect aspect = new BatchCacheAspect(annotationScanner, cacheManager, serializerRegistry,
+                codecRegistry);
         return aspect;
     }
 
@@ -1,5 +1,8 @@
 package com.mx.cache.config;
 
+import com.mx.cache.cache.WriteBehindQueue;
+import com.mx.cache.util.PooledBuffer;
+import com.mx.cache.util.SerializerUtils;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -46,6 +49,12 @@ public class CacheProperties {
      */
     private String defaultCacheLevels = "local,remote";
 
+    /**
+     * 是否启用基于 Lettuce 原生异步命令的远程缓存（仅 Lettuce 连接工厂生效）
+     * 启用后未命中回填与 @CachePut 的远程写入不等待 Redis 返回，删除缓存前会等待已发出的写入完成
+     */
+    private Boolean asyncRemoteEnabled = false;
+
     /**
      * 布隆过滤器配置
      */
@@ -56,6 +65,93 @@ public class CacheProperties {
      */
     private HotKeyProtection hotKeyProtection = new HotKeyProtection();
 
+    /**
+     * 远程写入 write-behind 配置
+     */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * 远程单 key 读取自动合批配置
+     */
+    private GetBatching getBatching = new GetBatching();
+
+    /**
+     * 跨节点本地缓存失效配置
+     */
+    private Invalidation invalidation = new Invalidation();
+
+    /**
+     * Redis 客户端缓存跟踪（RESP3 CLIENT TRACKING）配置
+     */
+    private ClientTracking clientTracking = new ClientTracking();
+
+    /**
+     * 按缓存名称清空（SCAN + UNLINK）配置
+     */
+    private Clear clear = new Clear();
+
+    /**
+     * 缓存代数（@Cacheable(generational = true)）配置
+     */
+    private Generation generation = new Generation();
+
+    /**
+     * 标签索引配置
+     */
+    private Tag tag = new Tag();
+
+    /**
+     * 堆外本地缓存（localStoreMode = OFF_HEAP）配置
+     */
+    private OffHeap offHeap = new OffHeap();
+
+    /**
+     * 内存映射磁盘缓存（cacheLevels 包含 disk）配置
+     */
+    private Disk disk = new Disk();
+
+    /**
+     * 序列化配置
+     */
+    private Serialization serialization = new Serialization();
+
+    /**
+     * 压缩配置
+     */
+    private Compression compression = new Compression();
+
+    @Data
+    public static class Compression {
+        /**
+         * 默认压缩算法：lz4、zstd（需 zstd-jni）、gzip 或自定义 CompressionCodec 名称，注解未指定 zipCodec 时使用
+         */
+        private String defaultCodec = "lz4";
+
+        /**
+         * zstd 压缩级别（1 ~ 22，越大压缩率越高、越慢）
+         */
+        private Integer zstdLevel = 3;
+    }
+
+    @Data
+    public static class Serialization {
+        /**
+         * 默认序列化器：kryo、protobuf、json、raw 或自定义 CacheSerializer Bean 名称，
+         * 注解未指定 serializer 时使用
+         */
+        private String defaultSerializer = "kryo";
+
+        /**
+         * Kryo 实例池大小（最多保留的空闲实例数），超出并发度的借用临时创建，归还时丢弃
+         */
+        private Integer kryoPoolSize = SerializerUtils.DEFAULT_POOL_SIZE;
+
+        /**
+         * 序列化 / 压缩缓冲区池大小（最多保留的空闲缓冲区数）
+         */
+        private Integer bufferPoolSize = PooledBuffer.DEFAULT_POOL_SIZE;
+    }
+
     @Data
     public static class BloomFilter {
         /**
@@ -78,18 +174,210 @@ public class CacheProperties {
     public static class HotKeyProtection {
         /**
          * 热点 key 锁重试次数
+         * @deprecated 等待者改为订阅回源完成通知，不再轮询，请使用 waitTimeoutMs
          */
+        @Deprecated
         private Integer retryCount = 10;
 
         /**
          * 热点 key 锁重试间隔（毫秒）
+         * @deprecated 等待者改为订阅回源完成通知，不再轮询，请使用 waitTimeoutMs
          */
+        @Deprecated
         private Long retryIntervalMs = 50L;
 
+        /**
+         * 等待持锁节点（或本节点内合并回源的加载线程）回源完成的最长时间（毫秒），超时后自行回源
+         */
+        private Long waitTimeoutMs = 5000L;
+
+        /**
+         * 回源完成通知的 pub/sub 频道
+         */
+        private String channel = "cache:hot_key_loaded";
+
         /**
          * 热点 key 锁超时时间（秒）
          */
         private Long lockTimeoutSeconds = 5L;
     }
-}
 
+    @Data
+    public static class WriteBehind {
+        /**
+         * 是否启用 write-behind：未命中回源后的远程写入进入合并队列，由后台线程批量写入
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 队列容量（待写入的 key 数量）
+         */
+        private Integer capacity = 10000;
+
+        /**
+         * 每批刷新的最大 key 数量，积压达到该值时立即刷新
+         */
+        private Integer flushSize = 100;
+
+        /**
+         * 定时刷新间隔（毫秒）
+         */
+        private Long flushIntervalMs = 50L;
+
+        /**
+         * 队列满时的处理策略：CALLER_RUNS、DISCARD、BLOCK
+         */
+        private WriteBehindQueue.Backpressure backpressure = WriteBehindQueue.Backpressure.CALLER_RUNS;
+    }
+
+    @Data
+    public static class GetBatching {
+        /**
+         * 是否启用：同一时间窗口内的并发单 key 读取合并为一次 MGET
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 每批最多 key 数量，收集满时立即发送
+         */
+        private Integer maxBatchSize = 64;
+
+        /**
+         * 收集窗口（微秒），第一个读取最多因此多等待该时间
+         */
+        private Long windowMicros = 200L;
+    }
+
+    @Data
+    public static class Clear {
+        /**
+         * SCAN 的 COUNT 提示，每收集这么多 key 通过一次流水线删除
+         */
+        private Integer scanCount = 1000;
+
+        /**
+         * 每条 UNLINK 命令的 key 数量
+         */
+        private Integer unlinkBatchSize = 500;
+    }
+
+    @Data
+    public static class Generation {
+        /**
+         * 代数在 Redis 中的 key 前缀（完整 key 为 keyPrefix + cacheName）
+         */
+        private String keyPrefix = "cache:generation:";
+
+        /**
+         * 代数变化的 pub/sub 频道
+         */
+        private String channel = "cache:generation";
+
+        /**
+         * 定时从 Redis 刷新代数的间隔（毫秒），兜底丢失的推送，0 表示不刷新
+         */
+        private Long refreshIntervalMs = 30000L;
+    }
+
+    @Data
+    public static class Disk {
+        /**
+         * 是否启用磁盘缓存
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 数据目录，重启后从该目录恢复索引，多个实例不能共用同一目录
+         */
+        private String directory = System.getProperty("java.io.tmpdir") + "/mx-cache";
+
+        /**
+         * 单个 segment 文件大小（MB），也是单条记录的最大大小，最大 1024
+         */
+        private Integer segmentSizeMb = 64;
+
+        /**
+         * 磁盘占用上限（MB），超过后淘汰最旧的 segment
+         */
+        private Long maxSizeMb = 1024L;
+
+        /**
+         * 失效数据占比达到该值的 segment 参与压缩
+         */
+        private Double compactionThreshold = 0.5;
+
+        /**
+         * 压缩检查间隔（毫秒）
+         */
+        private Long compactionIntervalMs = 60000L;
+
+        /**
+         * 重启时恢复的数据最多再保留的时间（毫秒），0 表示重启时丢弃磁盘数据
+         * 停机期间错过的失效消息无法补偿，恢复的数据可能是旧值，该值即可接受的最大陈旧时间
+         */
+        private Long recoveryTtlMs = 0L;
+    }
+
+    @Data
+    public static class OffHeap {
+        /**
+         * 所有 OFF_HEAP 本地缓存共享的堆外内存上限（MB），按需申请
+         */
+        private Long capacityMb = 256L;
+
+        /**
+         * 单个 slab 大小（KB），也是单个值的最大大小，更大的值不进入本地缓存
+         */
+        private Integer slabSizeKb = 1024;
+    }
+
+    @Data
+    public static class Tag {
+        /**
+         * 标签索引在 Redis 中的 key 前缀（完整 key 为 keyPrefix + tag）
+         */
+        private String keyPrefix = "cache:tag:";
+
+        /**
+         * 本地标签索引最多保存的标签数量
+         */
+        private Long localMaxTags = 100000L;
+    }
+
+    @Data
+    public static class Invalidation {
+        /**
+         * 是否启用：删除缓存时通知其他节点清除本地缓存
+         */
+        private Boolean enabled = true;
+
+        /**
+         * 失效消息的 pub/sub 频道（默认 Redis 通道）
+         */
+        private String channel = "cache:invalidation";
+
+        /**
+         * 节点 id，为空时启动时随机生成
+         */
+        private String nodeId;
+
+        /**
+         * 合并发送间隔（毫秒）
+         */
+        private Long flushIntervalMs = 10L;
+
+        /**
+         * 积压达到该数量时立即发送
+         */
+        private Integer maxBatchSize = 500;
+    }
+
+    @Data
+    public static class ClientTracking {
+        /**
+         * 是否启用：Redis 中的 key 被修改或删除时由 Redis 推送失效通知，清除对应的本地缓存
+         * 需要 Redis 6+、Lettuce 客户端及 RESP3 协议，仅支持单机/哨兵模式
+         */
+        private Boolean enabled = false;
+    }
+}
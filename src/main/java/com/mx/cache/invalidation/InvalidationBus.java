@@ -0,0 +1,166 @@
+package com.mx.cache.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 跨节点本地缓存失效总线
+ * 1. 本节点的失效请求先按缓存名称合并去重，每 flushIntervalMs 或积压达到 maxBatchSize 时打包成一条消息广播
+ * 2. 消息携带 nodeId，节点收到自己发出的消息时直接忽略
+ * 3. 收到其他节点的消息后交给本地处理逻辑（清除对应的本地缓存）
+ */
+@Slf4j
+public class InvalidationBus implements AutoCloseable {
+    private final String nodeId;
+    private final InvalidationTransport transport;
+    private final int maxBatchSize;
+    private final long flushIntervalMs;
+
+    private final Map<String, Set<String>> pendingKeys = new ConcurrentHashMap<>();
+    private final Set<String> pendingClears = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+
+    public InvalidationBus(String nodeId, InvalidationTransport transport, long flushIntervalMs, int maxBatchSize) {
+        this.nodeId = nodeId;
+        this.transport = transport;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 启动定时广播（由创建方在构造完成后调用）；未启动时只在积压达到 maxBatchSize 或显式 {@link #flush()} 时广播
+     */
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 订阅其他节点的失效消息
+     *
+     * @param applier 本地失效处理逻辑
+     */
+    public void subscribe(Consumer<InvalidationMessage> applier) {
+        transport.subscribe(message -> {
+            if (nodeId.equals(message.getNodeId())) {
+                return;
+            }
+            try {
+                applier.accept(message);
+            } catch (Exception e) {
+                log.error("Failed to apply invalidation message from node: {}, error: {}",
+                        message.getNodeId(), e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 通知其他节点失效单个 key
+     *
+     * @param cacheName 缓存名称
+     * @param key 缓存 key
+     */
+    public void invalidate(String cacheName, String key) {
+        // 在 compute 内加入，保证与 flush 的 remove 互斥，不会丢失失效请求
+        boolean[] added = new boolean[1];
+        pendingKeys.compute(cacheName, (name, cacheKeys) -> {
+            Set<String> target = cacheKeys != null ? cacheKeys : new HashSet<>();
+            added[0] = target.add(key);
+            return target;
+        });
+        if (added[0]) {
+            onPending();
+        }
+    }
+
+    /**
+     * 通知其他节点清空整个缓存，{@link InvalidationMessage#ALL_CACHES} 表示全部缓存
+     *
+     * @param cacheName 缓存名称
+     */
+    public void invalidateAll(String cacheName) {
+        if (pendingClears.add(cacheName)) {
+            onPending();
+        }
+    }
+
+    /**
+     * 立即广播所有待发送的失效请求
+     */
+    public void flush() {
+        if (pendingKeys.isEmpty() && pendingClears.isEmpty()) {
+            return;
+        }
+        Set<String> clears = new HashSet<>();
+        for (Iterator<String> it = pendingClears.iterator(); it.hasNext(); ) {
+            clears.add(it.next());
+            it.remove();
+        }
+        boolean clearAll = clears.contains(InvalidationMessage.ALL_CACHES);
+        Map<String, Set<String>> keys = new HashMap<>();
+        for (String cacheName : pendingKeys.keySet()) {
+            Set<String> cacheKeys = pendingKeys.remove(cacheName);
+            // 已整体清空的缓存无需再逐个失效
+            if (cacheKeys != null && !cacheKeys.isEmpty() && !clearAll && !clears.contains(cacheName)) {
+                keys.put(cacheName, cacheKeys);
+            }
+        }
+        pendingCount.set(0);
+
+        InvalidationMessage message = new InvalidationMessage(nodeId, keys, clears);
+        if (!message.isEmpty()) {
+            transport.publish(message);
+            log.debug("Invalidation message published, size: {}", message.size());
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        flushQuietly();
+    }
+
+    private void onPending() {
+        if (pendingCount.incrementAndGet() >= maxBatchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushScheduled.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Invalidation flush failed, error: {}", e.getMessage(), e);
+        }
+    }
+}
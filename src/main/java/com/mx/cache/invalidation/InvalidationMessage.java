@@ -0,0 +1,110 @@
+package com.mx.cache.invalidation;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 本地缓存失效消息
+ * 一条消息携带一批已去重的失效 key（按缓存名称分组）和需要整体清空的缓存名称
+ * 编码格式：[VERSION(1)][nodeId][clearCount][cacheName...][groupCount]([cacheName][keyCount][key...])...
+ */
+@Getter
+@RequiredArgsConstructor
+public class InvalidationMessage {
+    /**
+     * 清空全部本地缓存时使用的缓存名称
+     */
+    public static final String ALL_CACHES = "*";
+
+    private static final byte VERSION = 1;
+
+    /**
+     * 发送节点 id，节点收到自己发出的消息时忽略
+     */
+    private final String nodeId;
+
+    /**
+     * 缓存名称 -> 失效的缓存 key
+     */
+    private final Map<String, Set<String>> keys;
+
+    /**
+     * 需要整体清空的缓存名称
+     */
+    private final Set<String> clearedCaches;
+
+    public boolean isEmpty() {
+        return keys.isEmpty() && clearedCaches.isEmpty();
+    }
+
+    public int size() {
+        int size = clearedCaches.size();
+        for (Set<String> cacheKeys : keys.values()) {
+            size += cacheKeys.size();
+        }
+        return size;
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + size() * 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(nodeId);
+            out.writeInt(clearedCaches.size());
+            for (String cacheName : clearedCaches) {
+                out.writeUTF(cacheName);
+            }
+            out.writeInt(keys.size());
+            for (Map.Entry<String, Set<String>> group : keys.entrySet()) {
+                out.writeUTF(group.getKey());
+                out.writeInt(group.getValue().size());
+                for (String key : group.getValue()) {
+                    out.writeUTF(key);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static InvalidationMessage decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported invalidation message version: " + version);
+            }
+            String nodeId = in.readUTF();
+            int clearCount = in.readInt();
+            Set<String> clearedCaches = new HashSet<>(clearCount);
+            for (int i = 0; i < clearCount; i++) {
+                clearedCaches.add(in.readUTF());
+            }
+            int groupCount = in.readInt();
+            Map<String, Set<String>> keys = new HashMap<>(groupCount);
+            for (int i = 0; i < groupCount; i++) {
+                String cacheName = in.readUTF();
+                int keyCount = in.readInt();
+                Set<String> cacheKeys = new HashSet<>(keyCount);
+                for (int j = 0; j < keyCount; j++) {
+                    cacheKeys.add(in.readUTF());
+                }
+                keys.put(cacheName, cacheKeys);
+            }
+            return new InvalidationMessage(nodeId, keys, clearedCaches);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.mx.cache.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * 本地缓存失效消息的传输通道（SPI）
+ * 默认实现为 {@link RedisInvalidationTransport}，可以注册自定义 Bean 替换为 MQ、gRPC 广播等
+ */
+public interface InvalidationTransport {
+
+    /**
+     * 广播失效消息
+     *
+     * @param message 失效消息
+     */
+    void publish(InvalidationMessage message);
+
+    /**
+     * 订阅其他节点（也可能包含本节点）广播的失效消息
+     *
+     * @param listener 消息处理逻辑
+     */
+    void subscribe(Consumer<InvalidationMessage> listener);
+}
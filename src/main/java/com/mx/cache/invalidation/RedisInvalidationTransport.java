@@ -0,0 +1,56 @@
+package com.mx.cache.invalidation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 基于 Redis pub/sub 的失效消息通道（默认实现）
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisInvalidationTransport implements InvalidationTransport, MessageListener {
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final String channel;
+
+    private final List<Consumer<InvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        try {
+            redisTemplate.convertAndSend(channel, message.encode());
+        } catch (Exception e) {
+            log.error("Failed to publish invalidation message, size: {}, error: {}",
+                    message.size(), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        InvalidationMessage invalidation;
+        try {
+            invalidation = InvalidationMessage.decode(message.getBody());
+        } catch (Exception e) {
+            log.warn("Failed to decode invalidation message, error: {}", e.getMessage());
+            return;
+        }
+        for (Consumer<InvalidationMessage> listener : listeners) {
+            listener.accept(invalidation);
+        }
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+}
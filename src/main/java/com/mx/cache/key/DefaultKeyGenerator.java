@@ -0,0 +1,15 @@
+package com.mx.cache.key;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * 未配置 key 时使用的默认生成器：方法名 + '_' + 参数列表
+ */
+public class DefaultKeyGenerator implements KeyGenerator {
+
+    @Override
+    public String generate(Method method, Object[] args) {
+        return method.getName() + "_" + Arrays.deepToString(args);
+    }
+}
@@ -0,0 +1,21 @@
+package com.mx.cache.key;
+
+import java.lang.reflect.Method;
+
+/**
+ * 缓存 key 生成器
+ * 返回值不含 cacheName 前缀，前缀由切面统一拼接
+ * 自定义实现注册为 Spring Bean 后，可通过 {@code @Cacheable(keyGenerator = "beanName")} 按缓存选用
+ */
+@FunctionalInterface
+public interface KeyGenerator {
+
+    /**
+     * 生成缓存 key
+     *
+     * @param method 被拦截的方法
+     * @param args 方法参数
+     * @return 缓存 key，返回 null 表示无法生成
+     */
+    String generate(Method method, Object[] args);
+}
@@ -0,0 +1,33 @@
+package com.mx.cache.key;
+
+import org.springframework.beans.factory.BeanFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 自定义 {@link KeyGenerator} Bean 注册表
+ * 首次使用时按 Bean 名称解析并缓存，之后只是一次 map 查找
+ */
+public class KeyGeneratorRegistry {
+    private final BeanFactory beanFactory;
+    private final Map<String, KeyGenerator> generators = new ConcurrentHashMap<>();
+
+    public KeyGeneratorRegistry(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    /**
+     * 获取指定名称的 key 生成器
+     *
+     * @param beanName Bean 名称
+     * @return key 生成器
+     */
+    public KeyGenerator get(String beanName) {
+        KeyGenerator generator = generators.get(beanName);
+        if (generator == null) {
+            generator = generators.computeIfAbsent(beanName, name -> beanFactory.getBean(name, KeyGenerator.class));
+        }
+        return generator;
+    }
+}
@@ -0,0 +1,171 @@
+package com.mx.cache.key;
+
+import com.mx.cache.util.SpelUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 在扫描阶段把 key 表达式编译为 {@link KeyGenerator}
+ * 1. 空表达式 -> {@link DefaultKeyGenerator}
+ * 2. {@code #param} -> {@link ParameterKeyGenerator}
+ * 3. {@code #param.field} -> {@link PropertyKeyGenerator}
+ * 4. 其他表达式 -> {@link SpelKeyGenerator}
+ */
+@Slf4j
+public final class KeyGenerators {
+    private static final Pattern PARAM_PATTERN = Pattern.compile("^#(\\w+)$");
+    private static final Pattern PROPERTY_PATTERN = Pattern.compile("^#(\\w+)\\.(\\w+)$");
+
+    /**
+     * SpEL 默认的类型转换器（StandardTypeConverter）使用的就是这个共享实例
+     */
+    private static final ConversionService CONVERSION_SERVICE = DefaultConversionService.getSharedInstance();
+
+    private KeyGenerators() {
+    }
+
+    /**
+     * 编译 key 表达式
+     *
+     * @param keySpel key 表达式
+     * @param method 方法
+     * @param paramNames 参数名称
+     * @return key 生成器
+     */
+    public static KeyGenerator compile(String keySpel, Method method, String[] paramNames) {
+        if (keySpel == null || keySpel.isEmpty()) {
+            return new DefaultKeyGenerator();
+        }
+
+        String spel = keySpel.trim();
+        Matcher paramMatcher = PARAM_PATTERN.matcher(spel);
+        if (paramMatcher.matches()) {
+            int index = indexOf(paramNames, paramMatcher.group(1));
+            if (index >= 0) {
+                return new ParameterKeyGenerator(index);
+            }
+        }
+
+        Matcher propertyMatcher = PROPERTY_PATTERN.matcher(spel);
+        if (propertyMatcher.matches()) {
+            int index = indexOf(paramNames, propertyMatcher.group(1));
+            if (index >= 0) {
+                MethodHandle accessor = findAccessor(method.getParameterTypes()[index], propertyMatcher.group(2));
+                if (accessor != null) {
+                    return new PropertyKeyGenerator(index, accessor);
+                }
+            }
+        }
+
+        return new SpelKeyGenerator(SpelUtils.parse(spel), paramNames);
+    }
+
+    /**
+     * 把 key 值转为字符串，与 SpEL {@code getValue(context, String.class)} 的结果一致
+     * 数组、集合按逗号拼接（如 long[]{1, 2} -> "1,2"），而不是 toString() 的 "[J@1a2b" / "[1, 2]"
+     *
+     * @param value key 值
+     * @return 字符串，值为 null 时返回 null
+     */
+    public static String toKeyString(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String) {
+            return (String) value;
+        }
+        return CONVERSION_SERVICE.convert(value, String.class);
+    }
+
+    /**
+     * 把返回集合或数组的 key 值逐个转为字符串，每个元素的转换与 {@link #toKeyString} 一致，null 元素忽略
+     *
+     * @param value 集合、数组或单个 key 值
+     * @return key 列表
+     */
+    public static List<String> toKeyStrings(Object value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        List<String> keys = new ArrayList<>();
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                addKey(keys, element);
+            }
+        } else if (value.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(value); i++) {
+                addKey(keys, Array.get(value, i));
+            }
+        } else {
+            addKey(keys, value);
+        }
+        return keys;
+    }
+
+    private static void addKey(List<String> keys, Object element) {
+        String key = toKeyString(element);
+        if (key != null) {
+            keys.add(key);
+        }
+    }
+
+    private static int indexOf(String[] paramNames, String name) {
+        if (paramNames == null) {
+            return -1;
+        }
+        for (int i = 0; i < paramNames.length; i++) {
+            if (name.equals(paramNames[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 按 SpEL 的属性解析顺序查找访问器：getter -> is getter -> public 字段
+     * 找不到时返回 null，交由 SpEL 处理
+     */
+    private static MethodHandle findAccessor(Class<?> type, String property) {
+        if (type.isPrimitive() || type.isArray()) {
+            return null;
+        }
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        String suffix = StringUtils.capitalize(property);
+        try {
+            for (String name : new String[]{"get" + suffix, "is" + suffix}) {
+                Method getter = ReflectionUtils.findMethod(type, name);
+                if (getter != null && Modifier.isPublic(getter.getModifiers())
+                        && !Modifier.isStatic(getter.getModifiers())
+                        && Modifier.isPublic(getter.getDeclaringClass().getModifiers())
+                        && getter.getReturnType() != void.class) {
+                    return lookup.unreflect(getter);
+                }
+            }
+            Field field = ReflectionUtils.findField(type, property);
+            if (field != null && Modifier.isPublic(field.getModifiers())
+                    && !Modifier.isStatic(field.getModifiers())
+                    && Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+                return lookup.unreflectGetter(field);
+            }
+        } catch (IllegalAccessException e) {
+            log.debug("Key property {} of {} is not accessible, falling back to SpEL", property, type.getName());
+        }
+        return null;
+    }
+}
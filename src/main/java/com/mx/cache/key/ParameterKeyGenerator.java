@@ -0,0 +1,20 @@
+package com.mx.cache.key;
+
+import java.lang.reflect.Method;
+
+/**
+ * {@code #param} 形式的 key：直接按下标读取参数，不经过 SpEL
+ * 参数值与 SpEL 一样通过 ConversionService 转为字符串（数组、集合按逗号拼接），生成的 key 与 SpEL 完全一致
+ */
+public class ParameterKeyGenerator implements KeyGenerator {
+    private final int index;
+
+    public ParameterKeyGenerator(int index) {
+        this.index = index;
+    }
+
+    @Override
+    public String generate(Method method, Object[] args) {
+        return KeyGenerators.toKeyString(args[index]);
+    }
+}
@@ -0,0 +1,33 @@
+package com.mx.cache.key;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+/**
+ * {@code #param.field} 形式的 key：通过预先解析的 MethodHandle 读取属性，不经过 SpEL
+ * 属性值与 SpEL 一样通过 ConversionService 转为字符串，生成的 key 与 SpEL 完全一致
+ */
+public class PropertyKeyGenerator implements KeyGenerator {
+    private final int index;
+    private final MethodHandle accessor;
+
+    public PropertyKeyGenerator(int index, MethodHandle accessor) {
+        this.index = index;
+        this.accessor = accessor;
+    }
+
+    @Override
+    public String generate(Method method, Object[] args) {
+        Object arg = args[index];
+        if (arg == null) {
+            return null;
+        }
+        Object value;
+        try {
+            value = accessor.invoke(arg);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to read key property from " + arg.getClass().getName(), e);
+        }
+        return KeyGenerators.toKeyString(value);
+    }
+}
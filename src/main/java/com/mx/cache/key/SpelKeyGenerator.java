@@ -0,0 +1,66 @@
+package com.mx.cache.key;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.BeanReference;
+import org.springframework.expression.spel.ast.ConstructorReference;
+import org.springframework.expression.spel.ast.TypeReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Method;
+
+/**
+ * 通用 SpEL key 生成器
+ * 优化：
+ * 1. 表达式以 MIXED 编译模式解析，多次执行后编译为字节码
+ * 2. 每次调用新建轻量的 SimpleEvaluationContext（只读属性访问 + 实例方法调用），不持有 ThreadLocal，
+ *    虚拟线程下不会为每个线程留下一个 context；
+ *    表达式中含类型引用 T(...)、Bean 引用 @...或 new 时才使用 StandardEvaluationContext
+ */
+public class SpelKeyGenerator implements KeyGenerator {
+    private final Expression expression;
+    private final String[] paramNames;
+    private final boolean standardContext;
+
+    public SpelKeyGenerator(Expression expression, String[] paramNames) {
+        this.expression = expression;
+        this.paramNames = paramNames;
+        this.standardContext = !(expression instanceof SpelExpression)
+                || requiresStandardContext(((SpelExpression) expression).getAST());
+    }
+
+    @Override
+    public String generate(Method method, Object[] args) {
+        EvaluationContext context = standardContext
+                ? new StandardEvaluationContext(args)
+                : SimpleEvaluationContext.forReadOnlyDataBinding().withInstanceMethods().withRootObject(args).build();
+        if (args != null && paramNames != null) {
+            for (int i = 0; i < args.length && i < paramNames.length; i++) {
+                context.setVariable(paramNames[i], args[i]);
+            }
+        }
+        return expression.getValue(context, String.class);
+    }
+
+    public String getExpressionString() {
+        return expression.getExpressionString();
+    }
+
+    /**
+     * SimpleEvaluationContext 不支持类型引用、Bean 引用和构造器调用
+     */
+    private static boolean requiresStandardContext(SpelNode node) {
+        if (node instanceof TypeReference || node instanceof BeanReference || node instanceof ConstructorReference) {
+            return true;
+        }
+        for (int i = 0; i < node.getChildCount(); i++) {
+            if (requiresStandardContext(node.getChild(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,25 +1,46 @@
 package com.mx.cache.metadata;
 
+import com.mx.cache.annotation.CacheEvict;
 import com.mx.cache.annotation.CachePreload;
+import com.mx.cache.annotation.CachePut;
 import com.mx.cache.annotation.CacheRefresh;
 import com.mx.cache.annotation.Cacheable;
 import com.mx.cache.annotation.CacheableBatch;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
 public class CacheAnnotationScanner implements BeanPostProcessor {
-    private final Map<String, CacheMethodMetadata> metadataCache = new ConcurrentHashMap<>(128);
+    /**
+     * 优化：直接以 Method 为 key，避免每次调用拼接方法签名字符串
+     */
+    private final Map<Method, CacheMethodMetadata> metadataCache = new ConcurrentHashMap<>(128);
+    private final Map<Method, CachePlan> planCache = new ConcurrentHashMap<>(128);
+    /**
+     * 缓存名称 -> 第一个使用该名称的 @Cacheable 执行计划（供 @CachePut 按相同格式写入）
+     */
+    private final Map<String, CachePlan> planByCacheName = new ConcurrentHashMap<>(128);
+    /**
+     * @CachePut / @CacheEvict 方法的预编译执行计划
+     */
+    private final Map<Method, CachePutPlan> putPlanCache = new ConcurrentHashMap<>(64);
+    private final Map<Method, CacheEvictPlan> evictPlanCache = new ConcurrentHashMap<>(64);
+    private final Map<Method, String[]> paramNamesCache = new ConcurrentHashMap<>(128);
     private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
     private final Map<Class<?>, Boolean> scannedClasses = new ConcurrentHashMap<>();
 
@@ -33,6 +54,15 @@ public class CacheAnnotationScanner implements BeanPostProcessor {
 
         try {
             for (Method method : targetClass.getDeclaredMethods()) {
+                CachePut cachePut = method.getAnnotation(CachePut.class);
+                if (cachePut != null) {
+                    buildPutPlan(method, cachePut);
+                }
+                CacheEvict cacheEvict = method.getAnnotation(CacheEvict.class);
+                if (cacheEvict != null) {
+                    buildEvictPlan(method, cacheEvict);
+                }
+
                 Cacheable cacheable = method.getAnnotation(Cacheable.class);
                 CacheableBatch batch = method.getAnnotation(CacheableBatch.class);
 
@@ -43,10 +73,14 @@ public class CacheAnnotationScanner implements BeanPostProcessor {
                 CachePreload preload = method.getAnnotation(CachePreload.class);
                 CacheRefresh refresh = method.getAnnotation(CacheRefresh.class);
 
-                String methodKey = generateMethodKey(method);
-                metadataCache.putIfAbsent(methodKey,
+                metadataCache.putIfAbsent(method,
                         new CacheMethodMetadata(method, cacheable, preload, refresh, batch, paramNames));
+                if (cacheable != null) {
+                    buildPlan(method, cacheable, paramNames);
+                }
             }
+        } catch (BeansException e) {
+            throw e;
         } catch (Exception e) {
             log.error("扫描缓存注解失败，类名：{}", targetClass.getName(), e);
         }
@@ -54,19 +88,112 @@ public class CacheAnnotationScanner implements BeanPostProcessor {
     }
 
     public CacheMethodMetadata getMetadata(Method method) {
-        return method != null ? metadataCache.get(generateMethodKey(method)) : null;
+        return method != null ? metadataCache.get(method) : null;
+    }
+
+    /**
+     * 获取 @Cacheable 方法的预编译执行计划
+     *
+     * @param method 方法
+     * @return 执行计划，非缓存方法返回 null
+     */
+    public CachePlan getPlan(Method method) {
+        return method != null ? planCache.get(method) : null;
+    }
+
+    /**
+     * 获取 @CachePut 方法的预编译执行计划
+     *
+     * @param method 方法
+     * @return 执行计划，非 @CachePut 方法返回 null
+     */
+    public CachePutPlan getPutPlan(Method method) {
+        return method != null ? putPlanCache.get(method) : null;
+    }
+
+    /**
+     * 获取 @CacheEvict 方法的预编译执行计划
+     *
+     * @param method 方法
+     * @return 执行计划，非 @CacheEvict 方法返回 null
+     */
+    public CacheEvictPlan getEvictPlan(Method method) {
+        return method != null ? evictPlanCache.get(method) : null;
+    }
+
+    /**
+     * 按缓存名称获取 @Cacheable 执行计划
+     *
+     * @param cacheName 缓存名称
+     * @return 执行计划，没有使用该名称的 @Cacheable 时返回 null
+     */
+    public CachePlan getPlan(String cacheName) {
+        return cacheName != null ? planByCacheName.get(cacheName) : null;
+    }
+
+    /**
+     * 所有 @Cacheable 方法的执行计划
+     *
+     * @return 执行计划
+     */
+    public Collection<CachePlan> getPlans() {
+        return planCache.values();
+    }
+
+    /**
+     * 所有 @Cacheable / @CacheableBatch 使用的缓存名称
+     *
+     * @return 缓存名称
+     */
+    public Set<String> getCacheNames() {
+        Set<String> names = new HashSet<>(planByCacheName.keySet());
+        for (CacheMethodMetadata metadata : metadataCache.values()) {
+            if (metadata.getBatch() != null) {
+                names.addAll(Arrays.asList(metadata.getBatch().cacheNames()));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 获取方法参数名称（@CacheEvict / @CachePut 等不需要完整元数据的方法使用）
+     *
+     * @param method 方法
+     * @return 参数名称
+     */
+    public String[] getParamNames(Method method) {
+        return paramNamesCache.computeIfAbsent(method, m -> {
+            String[] names = parameterNameDiscoverer.getParameterNames(m);
+            return names != null ? names : new String[0];
+        });
+    }
+
+    /**
+     * 执行计划构建失败时中止启动：注解配置错误不应在运行时静默退化为不缓存
+     */
+    private void buildPutPlan(Method method, CachePut cachePut) {
+        try {
+            putPlanCache.putIfAbsent(method, CachePutPlan.of(method, cachePut, getParamNames(method)));
+        } catch (Exception e) {
+            throw new BeanInitializationException("构建 @CachePut 执行计划失败，方法：" + method, e);
+        }
     }
 
-    private String generateMethodKey(Method method) {
-        StringBuilder key = new StringBuilder(method.getDeclaringClass().getName())
-                .append("#").append(method.getName()).append("(");
-        for (Class<?> paramType : method.getParameterTypes()) {
-            key.append(paramType.getCanonicalName()).append(",");
+    private void buildEvictPlan(Method method, CacheEvict cacheEvict) {
+        try {
+            evictPlanCache.putIfAbsent(method, CacheEvictPlan.of(method, cacheEvict, getParamNames(method)));
+        } catch (Exception e) {
+            throw new BeanInitializationException("构建 @CacheEvict 执行计划失败，方法：" + method, e);
         }
-        if (key.charAt(key.length() - 1) == ',') {
-            key.deleteCharAt(key.length() - 1);
+    }
+
+    private void buildPlan(Method method, Cacheable cacheable, String[] paramNames) {
+        try {
+            CachePlan plan = CachePlan.of(method, cacheable, paramNames);
+            planCache.putIfAbsent(method, plan);
+            planByCacheName.putIfAbsent(plan.getCacheName(), plan);
+        } catch (Exception e) {
+            throw new BeanInitializationException("构建缓存执行计划失败，方法：" + method, e);
         }
-        key.append(")");
-        return key.toString();
     }
 }
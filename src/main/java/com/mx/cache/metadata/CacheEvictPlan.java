@@ -0,0 +1,75 @@
+package com.mx.cache.metadata;
+
+import com.mx.cache.annotation.CacheEvict;
+import com.mx.cache.key.KeyGenerator;
+import com.mx.cache.key.KeyGenerators;
+import com.mx.cache.util.SpelUtils;
+import lombok.Getter;
+import org.springframework.expression.Expression;
+
+import java.lang.reflect.Method;
+
+/**
+ * 预编译的 @CacheEvict 执行计划
+ * 扫描阶段解析注解和 SpEL 表达式，运行时不再读取注解或查找表达式缓存
+ */
+@Getter
+public final class CacheEvictPlan {
+    private final Method method;
+    private final CacheEvict cacheEvict;
+    private final String[] paramNames;
+    private final String[] cacheNames;
+    private final String cacheLevels;
+    private final boolean allEntries;
+    private final boolean beforeInvocation;
+    private final boolean afterCommit;
+
+    /**
+     * 单个 key 的生成器（与 @Cacheable 的 key 编译方式相同，生成的 key 一致），未配置 key 时为 null
+     */
+    private final KeyGenerator keyGenerator;
+
+    /**
+     * 预编译表达式，未配置时为 null
+     */
+    private final Expression keysExpression;
+    private final Expression tagsExpression;
+    private final Expression conditionExpression;
+
+    private CacheEvictPlan(Method method, CacheEvict cacheEvict, String[] paramNames) {
+        boolean byKey = !cacheEvict.key().isEmpty() || !cacheEvict.keys().isEmpty() || cacheEvict.allEntries();
+        if (!byKey && cacheEvict.tags().isEmpty()) {
+            throw new IllegalArgumentException("CacheEvict annotation must have key, keys, tags or allEntries, method: "
+                    + method);
+        }
+        if (byKey && cacheEvict.cacheNames().length == 0) {
+            throw new IllegalArgumentException("CacheEvict annotation with key, keys or allEntries must have at least "
+                    + "one cache name, method: " + method);
+        }
+        this.method = method;
+        this.cacheEvict = cacheEvict;
+        this.paramNames = paramNames != null ? paramNames : new String[0];
+        this.cacheNames = cacheEvict.cacheNames();
+        this.cacheLevels = cacheEvict.cacheLevels();
+        this.allEntries = cacheEvict.allEntries();
+        this.beforeInvocation = cacheEvict.beforeInvocation();
+        this.afterCommit = cacheEvict.afterCommit();
+        this.keyGenerator = cacheEvict.key().isEmpty() ? null
+                : KeyGenerators.compile(cacheEvict.key(), method, this.paramNames);
+        this.keysExpression = SpelUtils.parse(cacheEvict.keys());
+        this.tagsExpression = SpelUtils.parse(cacheEvict.tags());
+        this.conditionExpression = SpelUtils.parse(cacheEvict.condition());
+    }
+
+    /**
+     * 构建执行计划
+     *
+     * @param method 方法
+     * @param cacheEvict 注解
+     * @param paramNames 参数名称
+     * @return 执行计划
+     */
+    public static CacheEvictPlan of(Method method, CacheEvict cacheEvict, String[] paramNames) {
+        return new CacheEvictPlan(method, cacheEvict, paramNames);
+    }
+}
@@ -0,0 +1,305 @@
+package com.mx.cache.metadata;
+
+import com.mx.cache.annotation.Cacheable;
+import com.mx.cache.codec.CompressionCodec;
+import com.mx.cache.codec.CompressionCodecRegistry;
+import com.mx.cache.key.KeyGenerator;
+import com.mx.cache.key.KeyGenerators;
+import com.mx.cache.serializer.CacheSerializer;
+import com.mx.cache.serializer.CacheSerializerRegistry;
+import com.mx.cache.util.SpelUtils;
+import lombok.Getter;
+import org.springframework.core.ResolvableType;
+import org.springframework.expression.Expression;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预编译的方法级缓存执行计划
+ * 在扫描阶段一次性解析注解、缓存层级和 SpEL 表达式，
+ * 运行时热路径只读取字段，不再拼接字符串或访问注解代理
+ */
+@Getter
+public final class CachePlan {
+    /**
+     * 缓存层级标志位
+     */
+    public static final int LOCAL_FLAG = 1;
+    public static final int REMOTE_FLAG = 2;
+    public static final int DISK_FLAG = 4;
+
+    /**
+     * 方法返回值形态
+     * FUTURE：CompletableFuture / CompletionStage；MONO / FLUX：Reactor 类型（按类名识别，不强依赖 reactor-core）
+     */
+    public enum ReturnKind {
+        SYNC, FUTURE, MONO, FLUX
+    }
+
+    private final Method method;
+    private final Cacheable cacheable;
+    private final String[] paramNames;
+    private final Class<?> returnType;
+
+    /**
+     * 返回值形态及实际缓存的值类型
+     * 异步返回值缓存的是解析后的值（泛型参数），Flux 缓存收集后的 ArrayList
+     */
+    private final ReturnKind returnKind;
+    private final Class<?> valueType;
+    private final Type valueGenericType;
+
+    /**
+     * 缓存名称（cacheNames()[0]）及 key 前缀
+     */
+    private final String cacheName;
+    private final String keyPrefix;
+
+    /**
+     * 是否启用版本化命名空间（key 前缀中包含缓存代数，运行时获取）
+     */
+    private final boolean generational;
+
+    /**
+     * 缓存层级标志位（LOCAL_FLAG | DISK_FLAG | REMOTE_FLAG）
+     */
+    private final int levels;
+    private final boolean localObjectMode;
+
+    /**
+     * 是否启用本地缓存 refreshAfterWrite
+     */
+    private final boolean localRefresh;
+
+    /**
+     * 预编译的 key 生成器；配置了自定义 KeyGenerator Bean 时使用 keyGeneratorName，运行时解析
+     */
+    private final KeyGenerator keyGenerator;
+    private final String keyGeneratorName;
+
+    /**
+     * 预编译表达式，未配置时为 null
+     */
+    private final Expression conditionExpression;
+    private final Expression tagsExpression;
+
+    /**
+     * 过期策略
+     */
+    private final Expression spelExpireExpression;
+    private final String resultFieldExpire;
+    private final long expire;
+    private final TimeUnit expireUnit;
+
+    /**
+     * stale-while-revalidate 窗口（毫秒），0 表示未启用
+     */
+    private final long staleWindowMillis;
+
+    /**
+     * 概率提前刷新系数，0 表示未启用
+     */
+    private final double earlyRefreshBeta;
+
+    /**
+     * 过期时间抖动比例，0 表示未启用
+     */
+    private final double expireJitter;
+
+    /**
+     * 注解开关（热路径不再访问注解代理）
+     */
+    private final boolean rejectLargeKey;
+    private final boolean cacheNull;
+    private final boolean hotKey;
+    private final int maxKeySize;
+
+    /**
+     * 序列化器名称，null 表示默认序列化器
+     */
+    private final String serializerName;
+
+    /**
+     * 压缩策略
+     */
+    private final boolean zip;
+    private final int zipThreshold;
+    private final String zipCodec;
+
+    /**
+     * 解析后的序列化器及压缩算法（zip = false 时为 null），由 {@link #bind} 在启动完成前解析一次
+     */
+    private volatile CacheSerializer serializer;
+    private volatile CompressionCodec compressionCodec;
+
+    private CachePlan(Method method, Cacheable cacheable, String[] paramNames) {
+        if (cacheable.cacheNames() == null || cacheable.cacheNames().length == 0) {
+            throw new IllegalArgumentException("Cacheable annotation must have at least one cache name, method: " + method);
+        }
+        this.method = method;
+        this.cacheable = cacheable;
+        this.paramNames = paramNames;
+        this.returnType = method.getReturnType();
+        this.returnKind = resolveReturnKind(returnType);
+        this.valueType = resolveValueType(method, returnKind);
+        this.valueGenericType = resolveValueGenericType(method, returnKind);
+        this.cacheName = cacheable.cacheNames()[0];
+        this.keyPrefix = cacheName + "::";
+        this.generational = cacheable.generational();
+        this.levels = parseLevels(cacheable.cacheLevels());
+        this.localObjectMode = cacheable.localStoreMode() == Cacheable.LocalStoreMode.OBJECT
+                && (levels & LOCAL_FLAG) != 0;
+        this.localRefresh = cacheable.localRefresh() > 0 && (levels & LOCAL_FLAG) != 0;
+        this.keyGeneratorName = cacheable.keyGenerator().isEmpty() ? null : cacheable.keyGenerator();
+        this.keyGenerator = KeyGenerators.compile(cacheable.key(), method, paramNames);
+        this.conditionExpression = SpelUtils.parse(cacheable.condition());
+        this.tagsExpression = SpelUtils.parse(cacheable.tags());
+        this.spelExpireExpression = SpelUtils.parse(cacheable.spelExpire());
+        this.resultFieldExpire = cacheable.resultFieldExpire() == null || cacheable.resultFieldExpire().isEmpty()
+                ? null : cacheable.resultFieldExpire();
+        this.expire = cacheable.expire();
+        this.expireUnit = cacheable.expireUnit();
+        this.staleWindowMillis = Math.max(0, cacheable.expireUnit().toMillis(cacheable.staleWhileRevalidate()));
+        this.earlyRefreshBeta = Math.max(0, cacheable.earlyRefreshBeta());
+        this.expireJitter = Math.max(0, cacheable.expireJitter());
+        this.rejectLargeKey = cacheable.rejectLargeKey();
+        this.cacheNull = cacheable.cacheNull();
+        this.hotKey = cacheable.hotKey();
+        this.maxKeySize = cacheable.maxKeySize();
+        this.serializerName = cacheable.serializer().isEmpty() ? null : cacheable.serializer();
+        this.zip = cacheable.zip();
+        this.zipThreshold = cacheable.zipThreshold();
+        this.zipCodec = cacheable.zipCodec().isEmpty() ? null : cacheable.zipCodec();
+    }
+
+    /**
+     * 构建执行计划
+     *
+     * @param method 方法
+     * @param cacheable 缓存注解
+     * @param paramNames 参数名称
+     * @return 执行计划
+     */
+    public static CachePlan of(Method method, Cacheable cacheable, String[] paramNames) {
+        return new CachePlan(method, cacheable, paramNames);
+    }
+
+    /**
+     * 解析序列化器和压缩算法（按名称查找注册表或 Bean），之后热路径直接使用
+     *
+     * @param serializerRegistry 序列化器注册表
+     * @param codecRegistry 压缩算法注册表
+     * @return 当前执行计划
+     * @throws IllegalStateException 序列化器或压缩算法不存在
+     */
+    public CachePlan bind(CacheSerializerRegistry serializerRegistry, CompressionCodecRegistry codecRegistry) {
+        try {
+            // 先写压缩算法：serializer 非 null 即表示已解析完成
+            this.compressionCodec = zip ? codecRegistry.get(zipCodec) : null;
+            this.serializer = serializerRegistry.get(serializerName);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Failed to resolve serializer / compression codec for cache: "
+                    + cacheName + ", method: " + method, e);
+        }
+        return this;
+    }
+
+    /**
+     * 解析缓存层级字符串
+     *
+     * @param cacheLevels 缓存层级字符串，如 "local,remote"、"local,disk,remote"
+     * @return 标志位（LOCAL_FLAG | DISK_FLAG | REMOTE_FLAG）
+     */
+    public static int parseLevels(String cacheLevels) {
+        int flags = 0;
+        if (cacheLevels == null) {
+            return flags;
+        }
+        if (cacheLevels.contains("local")) {
+            flags |= LOCAL_FLAG;
+        }
+        if (cacheLevels.contains("remote")) {
+            flags |= REMOTE_FLAG;
+        }
+        if (cacheLevels.contains("disk")) {
+            flags |= DISK_FLAG;
+        }
+        return flags;
+    }
+
+    private static ReturnKind resolveReturnKind(Class<?> returnType) {
+        if (returnType == CompletableFuture.class || returnType == CompletionStage.class) {
+            return ReturnKind.FUTURE;
+        }
+        String name = returnType.getName();
+        if ("reactor.core.publisher.Mono".equals(name)) {
+            return ReturnKind.MONO;
+        }
+        if ("reactor.core.publisher.Flux".equals(name)) {
+            return ReturnKind.FLUX;
+        }
+        return ReturnKind.SYNC;
+    }
+
+    private static Class<?> resolveValueType(Method method, ReturnKind returnKind) {
+        switch (returnKind) {
+            case FUTURE:
+            case MONO:
+                return ResolvableType.forMethodReturnType(method).getGeneric(0).resolve(Object.class);
+            case FLUX:
+                return ArrayList.class;
+            case SYNC:
+            default:
+                return method.getReturnType();
+        }
+    }
+
+    private static Type resolveValueGenericType(Method method, ReturnKind returnKind) {
+        switch (returnKind) {
+            case FUTURE:
+            case MONO:
+                return ResolvableType.forMethodReturnType(method).getGeneric(0).getType();
+            case FLUX:
+                return ResolvableType.forClassWithGenerics(ArrayList.class,
+                        ResolvableType.forMethodReturnType(method).getGeneric(0)).getType();
+            case SYNC:
+            default:
+                return method.getGenericReturnType();
+        }
+    }
+
+    /**
+     * 是否为异步返回值（CompletableFuture / Mono / Flux）
+     */
+    public boolean isAsync() {
+        return returnKind != ReturnKind.SYNC;
+    }
+
+    public boolean isStaleWhileRevalidate() {
+        return staleWindowMillis > 0;
+    }
+
+    /**
+     * 是否需要在缓存值前附加信封（逻辑过期时间 + 回源耗时）
+     */
+    public boolean isEnveloped() {
+        return staleWindowMillis > 0 || earlyRefreshBeta > 0;
+    }
+
+    public boolean hasLocal() {
+        return (levels & LOCAL_FLAG) != 0;
+    }
+
+    public boolean hasRemote() {
+        return (levels & REMOTE_FLAG) != 0;
+    }
+
+    public boolean hasDisk() {
+        return (levels & DISK_FLAG) != 0;
+    }
+}
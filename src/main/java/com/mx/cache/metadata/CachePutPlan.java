@@ -0,0 +1,63 @@
+package com.mx.cache.metadata;
+
+import com.mx.cache.annotation.CachePut;
+import com.mx.cache.key.KeyGenerator;
+import com.mx.cache.key.KeyGenerators;
+import com.mx.cache.util.SpelUtils;
+import lombok.Getter;
+import org.springframework.expression.Expression;
+
+import java.lang.reflect.Method;
+
+/**
+ * 预编译的 @CachePut 执行计划
+ * 扫描阶段解析注解和 SpEL 表达式，运行时不再读取注解或查找表达式缓存
+ */
+@Getter
+public final class CachePutPlan {
+    private final Method method;
+    private final CachePut cachePut;
+    private final String[] paramNames;
+    private final String[] cacheNames;
+    private final boolean evictOnNull;
+    private final boolean afterCommit;
+
+    /**
+     * key 生成器（与 @Cacheable 的 key 编译方式相同，生成的 key 一致）
+     */
+    private final KeyGenerator keyGenerator;
+
+    /**
+     * 预编译表达式，condition 未配置时为 null
+     */
+    private final Expression conditionExpression;
+
+    private CachePutPlan(Method method, CachePut cachePut, String[] paramNames) {
+        if (cachePut.cacheNames() == null || cachePut.cacheNames().length == 0) {
+            throw new IllegalArgumentException("CachePut annotation must have at least one cache name, method: " + method);
+        }
+        this.method = method;
+        this.cachePut = cachePut;
+        this.paramNames = paramNames != null ? paramNames : new String[0];
+        this.cacheNames = cachePut.cacheNames();
+        this.evictOnNull = cachePut.evictOnNull();
+        this.afterCommit = cachePut.afterCommit();
+        if (cachePut.key() == null || cachePut.key().isEmpty()) {
+            throw new IllegalArgumentException("CachePut annotation must have a key expression, method: " + method);
+        }
+        this.keyGenerator = KeyGenerators.compile(cachePut.key(), method, this.paramNames);
+        this.conditionExpression = SpelUtils.parse(cachePut.condition());
+    }
+
+    /**
+     * 构建执行计划
+     *
+     * @param method 方法
+     * @param cachePut 注解
+     * @param paramNames 参数名称
+     * @return 执行计划
+     */
+    public static CachePutPlan of(Method method, CachePut cachePut, String[] paramNames) {
+        return new CachePutPlan(method, cachePut, paramNames);
+    }
+}
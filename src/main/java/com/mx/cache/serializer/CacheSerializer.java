@@ -0,0 +1,60 @@
+package com.mx.cache.serializer;
+
+import com.mx.cache.util.PooledBuffer;
+
+import java.lang.reflect.Type;
+
+/**
+ * 缓存值序列化器
+ * 内置 kryo（默认）、protobuf、json、raw 四种实现，自定义实现注册为 Spring Bean 后，
+ * 可通过 {@code @Cacheable(serializer = "beanName")} 按缓存选用
+ * 单字节 0x00 保留为空值标记，序列化结果不能与之相同
+ */
+public interface CacheSerializer {
+
+    /**
+     * 序列化
+     *
+     * @param value 缓存值，不为 null
+     * @return 序列化后的字节数组，失败时返回 null 或抛出异常
+     */
+    byte[] serialize(Object value);
+
+    /**
+     * 序列化并追加到池化缓冲区，切面写入缓存时使用
+     * 默认实现先序列化为数组再写入，能直接写入流或数组的实现应覆盖以省去中间数组
+     *
+     * @param value 缓存值，不为 null
+     * @param out 目标缓冲区
+     * @return 是否成功，失败时也可抛出异常
+     */
+    default boolean serialize(Object value, PooledBuffer out) {
+        byte[] data = serialize(value);
+        if (data == null) {
+            return false;
+        }
+        out.write(data, 0, data.length);
+        return true;
+    }
+
+    /**
+     * 反序列化
+     *
+     * @param data 序列化后的字节数组
+     * @param type 目标类型
+     * @return 反序列化后的对象
+     */
+    <T> T deserialize(byte[] data, Class<T> type);
+
+    /**
+     * 按泛型类型反序列化（如 {@code List<User>}），不需要泛型信息的实现无需覆盖
+     *
+     * @param data 序列化后的字节数组
+     * @param type 目标类型
+     * @param genericType 带泛型参数的目标类型
+     * @return 反序列化后的对象
+     */
+    default Object deserialize(byte[] data, Class<?> type, Type genericType) {
+        return deserialize(data, type);
+    }
+}
@@ -0,0 +1,50 @@
+package com.mx.cache.serializer;
+
+import org.springframework.beans.factory.BeanFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CacheSerializer} 注册表
+ * 1. 内置序列化器按名称注册（kryo、raw 始终可用，json、protobuf 在依赖存在时由自动配置注册）
+ * 2. 其他名称按 Bean 名称解析并缓存，之后只是一次 map 查找
+ * 3. 名称为空时使用默认序列化器（cache.serialization.default-serializer）
+ */
+public class CacheSerializerRegistry {
+    private final BeanFactory beanFactory;
+    private final String defaultName;
+    private final Map<String, CacheSerializer> serializers = new ConcurrentHashMap<>();
+
+    public CacheSerializerRegistry(BeanFactory beanFactory, String defaultName) {
+        this.beanFactory = beanFactory;
+        this.defaultName = defaultName == null || defaultName.isEmpty() ? KryoCacheSerializer.NAME : defaultName;
+        serializers.put(KryoCacheSerializer.NAME, new KryoCacheSerializer());
+        serializers.put(RawCacheSerializer.NAME, new RawCacheSerializer());
+    }
+
+    /**
+     * 注册内置序列化器
+     *
+     * @param name 名称
+     * @param serializer 序列化器
+     */
+    public void register(String name, CacheSerializer serializer) {
+        serializers.put(name, serializer);
+    }
+
+    /**
+     * 获取指定名称的序列化器
+     *
+     * @param name 内置名称或 Bean 名称，为空时返回默认序列化器
+     * @return 序列化器
+     */
+    public CacheSerializer get(String name) {
+        String key = name == null || name.isEmpty() ? defaultName : name;
+        CacheSerializer serializer = serializers.get(key);
+        if (serializer == null) {
+            serializer = serializers.computeIfAbsent(key, n -> beanFactory.getBean(n, CacheSerializer.class));
+        }
+        return serializer;
+    }
+}
@@ -0,0 +1,67 @@
+package com.mx.cache.serializer;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mx.cache.util.PooledBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON 序列化器（Jackson）：UTF-8 JSON 文本，不写入类型信息，其他语言可直接读取
+ * 反序列化按方法的泛型返回类型解析（如 {@code List<User>}），解析结果按类型缓存
+ */
+public class JsonCacheSerializer implements CacheSerializer {
+    public static final String NAME = "json";
+
+    private final ObjectMapper objectMapper;
+    private final Map<Type, JavaType> javaTypes = new ConcurrentHashMap<>();
+
+    public JsonCacheSerializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean serialize(Object value, PooledBuffer out) {
+        try {
+            objectMapper.writeValue(out, value);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(byte[] data, Class<T> type) {
+        try {
+            return objectMapper.readValue(data, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] data, Class<?> type, Type genericType) {
+        if (genericType == null || genericType == type) {
+            return deserialize(data, type);
+        }
+        JavaType javaType = javaTypes.computeIfAbsent(genericType, t -> objectMapper.getTypeFactory().constructType(t));
+        try {
+            return objectMapper.readValue(data, javaType);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
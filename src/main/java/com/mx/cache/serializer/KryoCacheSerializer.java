@@ -0,0 +1,26 @@
+package com.mx.cache.serializer;
+
+import com.mx.cache.util.PooledBuffer;
+import com.mx.cache.util.SerializerUtils;
+
+/**
+ * Kryo 序列化器（默认）：支持任意 Java 对象，不要求实现 Serializable，只能由 Java 读取
+ */
+public class KryoCacheSerializer implements CacheSerializer {
+    public static final String NAME = "kryo";
+
+    @Override
+    public byte[] serialize(Object value) {
+        return SerializerUtils.serialize(value);
+    }
+
+    @Override
+    public boolean serialize(Object value, PooledBuffer out) {
+        return SerializerUtils.serialize(value, out);
+    }
+
+    @Override
+    public <T> T deserialize(byte[] data, Class<T> type) {
+        return SerializerUtils.deserialize(data, type);
+    }
+}
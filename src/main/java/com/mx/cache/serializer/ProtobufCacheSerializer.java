@@ -0,0 +1,75 @@
+package com.mx.cache.serializer;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import com.mx.cache.util.PooledBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Protobuf 序列化器：基于 .proto schema 的紧凑二进制格式，缓存值必须是生成的消息类型，
+ * 字段按编号编码，增删字段后新旧数据可以互相读取，其他语言可按同一 schema 读取
+ * 消息类型的 Parser 通过静态 parser() 方法获取，按类型缓存
+ */
+public class ProtobufCacheSerializer implements CacheSerializer {
+    public static final String NAME = "protobuf";
+
+    private final Map<Class<?>, Parser<?>> parsers = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (!(value instanceof MessageLite)) {
+            throw new IllegalArgumentException("Protobuf serializer only supports protobuf messages, got: "
+                    + value.getClass().getName());
+        }
+        return ((MessageLite) value).toByteArray();
+    }
+
+    @Override
+    public boolean serialize(Object value, PooledBuffer out) {
+        if (!(value instanceof MessageLite)) {
+            return CacheSerializer.super.serialize(value, out);
+        }
+        try {
+            ((MessageLite) value).writeTo(out);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(byte[] data, Class<T> type) {
+        try {
+            return type.cast(parserOf(type).parseFrom(data));
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException("Invalid protobuf data for type: " + type.getName(), e);
+        }
+    }
+
+    private Parser<?> parserOf(Class<?> type) {
+        Parser<?> parser = parsers.get(type);
+        if (parser == null) {
+            parser = parsers.computeIfAbsent(type, ProtobufCacheSerializer::findParser);
+        }
+        return parser;
+    }
+
+    private static Parser<?> findParser(Class<?> type) {
+        if (!MessageLite.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Protobuf serializer only supports protobuf messages, got: "
+                    + type.getName());
+        }
+        try {
+            Method method = type.getMethod("parser");
+            return (Parser<?>) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("No static parser() method on protobuf message: " + type.getName(), e);
+        }
+    }
+}
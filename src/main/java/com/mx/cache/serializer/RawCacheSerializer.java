@@ -0,0 +1,52 @@
+package com.mx.cache.serializer;
+
+import com.mx.cache.util.PooledBuffer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 直通序列化器：byte[] 原样存取，String 按 UTF-8 编解码，不做任何额外处理
+ * 只支持这两种类型；空数组 / 空字符串读取时按 null 处理
+ * byte[] 在写入和读取时各拷贝一次，调用方修改自己的数组不会改动缓存（含本地缓存和延迟写入队列）中的数据
+ */
+public class RawCacheSerializer implements CacheSerializer {
+    public static final String NAME = "raw";
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        if (value instanceof String) {
+            return ((String) value).getBytes(StandardCharsets.UTF_8);
+        }
+        throw new IllegalArgumentException("Raw serializer only supports byte[] and String, got: "
+                + value.getClass().getName());
+    }
+
+    /**
+     * byte[] 直接交给缓冲区持有，压缩时免去一次拷贝；{@link PooledBuffer#toByteArray()} 取出时拷贝
+     */
+    @Override
+    public boolean serialize(Object value, PooledBuffer out) {
+        if (value instanceof byte[] && out.size() == 0) {
+            out.wrap((byte[]) value);
+            return true;
+        }
+        byte[] data = serialize(value);
+        out.write(data, 0, data.length);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(byte[] data, Class<T> type) {
+        if (type == byte[].class) {
+            return (T) data.clone();
+        }
+        if (type == String.class || type == Object.class || type == CharSequence.class) {
+            return (T) new String(data, StandardCharsets.UTF_8);
+        }
+        throw new IllegalArgumentException("Raw serializer only supports byte[] and String, got: " + type.getName());
+    }
+}
@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -25,6 +26,22 @@ public class CompressUtils {
         }
     }
 
+    /**
+     * 压缩 data[offset, offset + length) 并追加到池化缓冲区，不经过中间数组
+     *
+     * @param data 数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @param out 目标缓冲区
+     * @throws IOException 压缩失败
+     */
+    public static void compress(byte[] data, int offset, int length, PooledBuffer out) throws IOException {
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+            gzip.write(data, offset, length);
+            gzip.finish();
+        }
+    }
+
     public static byte[] decompress(byte[] data) {
         if (data == null || data.length == 0) return data;
 
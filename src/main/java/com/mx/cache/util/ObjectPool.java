@@ -0,0 +1,63 @@
+package com.mx.cache.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * 有界无锁对象池
+ * 1. 空闲对象放在定长槽位数组中，借出/归还都是从随机位置开始的 CAS 探测，不加锁，不阻塞
+ * 2. 池空时直接新建，池满时归还的对象直接丢弃，池中对象数量不超过 capacity
+ * 3. 与线程无绑定，平台线程和虚拟线程行为一致，对象数量由并发度而不是线程数决定
+ */
+public class ObjectPool<T> {
+    private final AtomicReferenceArray<T> slots;
+    private final Supplier<T> factory;
+
+    /**
+     * @param capacity 最多保留的空闲对象数量
+     * @param factory 对象工厂
+     */
+    public ObjectPool(int capacity, Supplier<T> factory) {
+        this.slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+        this.factory = factory;
+    }
+
+    /**
+     * 借出对象，池空时新建
+     *
+     * @return 对象
+     */
+    public T borrow() {
+        int length = slots.length();
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+            T value = slots.getPlain(index);
+            if (value != null && slots.compareAndSet(index, value, null)) {
+                return value;
+            }
+        }
+        return factory.get();
+    }
+
+    /**
+     * 归还对象，池满时丢弃
+     *
+     * @param value 对象
+     */
+    public void release(T value) {
+        int length = slots.length();
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+            if (slots.getPlain(index) == null && slots.compareAndSet(index, null, value)) {
+                return;
+            }
+        }
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+}
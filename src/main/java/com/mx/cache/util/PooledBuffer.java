@@ -0,0 +1,156 @@
+package com.mx.cache.util;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 池化的可增长堆内缓冲区，用于序列化、压缩的中间结果
+ * 1. 通过 {@link #acquire()} 借出，用完后必须调用 {@link #release()} 归还；{@link #close()} 不归还，
+ *    以免 Jackson 等写入方关闭流时提前归还
+ * 2. 序列化器可以直接在 {@link #array()} 上写入后通过 {@link #adopt(byte[], int)} 交还（可能已扩容的）数组，
+ *    也可以通过 {@link #wrap(byte[])} 直接持有调用方的数组（只读），{@link #toByteArray()} 始终拷贝，
+ *    取出的数据不与调用方共享
+ * 3. 归还时超过 MAX_RETAINED_SIZE 的数组被丢弃，避免个别大对象长期占用内存
+ * 使用堆内数组而不是 direct buffer：Kryo、Deflater 和 Lettuce 的 ByteArrayCodec 都直接读写 byte[]
+ */
+public final class PooledBuffer extends OutputStream {
+    private static final int INITIAL_SIZE = 4096;
+    private static final int MAX_RETAINED_SIZE = 256 * 1024;
+
+    /**
+     * 默认池大小，可通过 cache.serialization.buffer-pool-size 调整
+     */
+    public static final int DEFAULT_POOL_SIZE = 64;
+
+    private static volatile ObjectPool<PooledBuffer> pool = new ObjectPool<>(DEFAULT_POOL_SIZE, PooledBuffer::new);
+
+    private final ObjectPool<PooledBuffer> owner;
+    private byte[] buffer;
+    private int size;
+    private boolean external;
+
+    private PooledBuffer() {
+        this.owner = pool;
+        this.buffer = new byte[INITIAL_SIZE];
+    }
+
+    /**
+     * 设置缓冲区池大小（启动时调用）
+     *
+     * @param poolSize 最多保留的空闲缓冲区数量
+     */
+    public static void configurePool(int poolSize) {
+        if (poolSize != pool.capacity()) {
+            pool = new ObjectPool<>(poolSize, PooledBuffer::new);
+        }
+    }
+
+    /**
+     * 借出一个空缓冲区
+     *
+     * @return 缓冲区
+     */
+    public static PooledBuffer acquire() {
+        return pool.borrow();
+    }
+
+    /**
+     * 清空并归还缓冲区，之后不能再使用
+     */
+    public void release() {
+        if (external || buffer.length > MAX_RETAINED_SIZE) {
+            buffer = new byte[INITIAL_SIZE];
+            external = false;
+        }
+        size = 0;
+        owner.release(this);
+    }
+
+    /**
+     * 底层数组，有效数据为 [0, size)
+     */
+    public byte[] array() {
+        return buffer;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 保证至少还能写入 additional 字节
+     *
+     * @param additional 追加字节数
+     */
+    public void ensureCapacity(int additional) {
+        int required = size + additional;
+        if (required < 0) {
+            throw new OutOfMemoryError("Buffer size exceeds Integer.MAX_VALUE");
+        }
+        if (required > buffer.length || external) {
+            int newLength = Math.max(required, buffer.length > Integer.MAX_VALUE / 2
+                    ? Integer.MAX_VALUE : buffer.length * 2);
+            buffer = Arrays.copyOf(buffer, newLength);
+            external = false;
+        }
+    }
+
+    /**
+     * 接管写入方直接在 {@link #array()} 上写入后的数组（写入方可能已扩容替换）
+     *
+     * @param array 数组，有效数据为 [0, size)
+     * @param size 有效长度
+     */
+    public void adopt(byte[] array, int size) {
+        this.buffer = array;
+        this.size = size;
+    }
+
+    /**
+     * 直接持有调用方的数组作为全部内容（不拷贝），之后的写入会先拷贝到新数组
+     *
+     * @param array 调用方数组
+     */
+    public void wrap(byte[] array) {
+        this.buffer = array;
+        this.size = array.length;
+        this.external = true;
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(len);
+        System.arraycopy(b, off, buffer, size, len);
+        size += len;
+    }
+
+    /**
+     * 有效数据的只读视图（不拷贝）
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(buffer, 0, size).asReadOnlyBuffer();
+    }
+
+    /**
+     * 拷贝出有效数据（包括 {@link #wrap(byte[])} 持有的调用方数组）
+     *
+     * @return 数据
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * 不归还缓冲区，归还只能通过 {@link #release()}
+     */
+    @Override
+    public void close() {
+    }
+}
@@ -5,7 +5,6 @@ import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -14,30 +13,37 @@ import java.util.HashSet;
 @Slf4j
 public class SerializerUtils {
     /**
-     * 优化：设置合理的初始容量，减少 ByteArrayOutputStream 扩容次数
+     * 池化的 Output 初始容量及归还时保留的最大容量，超过后丢弃缓冲区，避免个别大对象长期占用内存
      */
-    private static final int DEFAULT_BUFFER_SIZE = 1024; // 1KB 初始容量
-    private static final int LARGE_BUFFER_SIZE = 4096;    // 4KB Output buffer
-    
-    private static final ThreadLocal<Kryo> KRYO_THREAD_LOCAL = ThreadLocal.withInitial(() -> {
-        Kryo kryo = new Kryo();
-        kryo.setRegistrationRequired(false);
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 256 * 1024;
+    private static final byte[] EMPTY = new byte[0];
 
-        // 优化：但预先注册常用的 JDK 类，以提高序列化效率
-        // 即使 setRegistrationRequired(false)，预注册的类也会使用 ID
-        kryo.register(ArrayList.class);
-        kryo.register(HashMap.class);
-        kryo.register(HashSet.class);
-        kryo.register(Date.class);
+    /**
+     * 默认池大小，可通过 cache.serialization.kryo-pool-size 调整
+     */
+    public static final int DEFAULT_POOL_SIZE = 64;
 
-        // (例如 Order -> User -> List<Order> 的场景)
-        kryo.setReferences(true);
-        return kryo;
-    });
+    /**
+     * 优化：用有界无锁池代替 ThreadLocal
+     * 虚拟线程下每个请求一个线程，ThreadLocal 会为每个线程创建并注册一个 Kryo，池化后实例数量只取决于并发度
+     */
+    private static volatile ObjectPool<PooledKryo> pool = new ObjectPool<>(DEFAULT_POOL_SIZE, PooledKryo::new);
+
+    /**
+     * 设置 Kryo 池大小（启动时调用，替换前借出的实例归还到旧池后随之丢弃）
+     *
+     * @param poolSize 最多保留的空闲 Kryo 实例数量
+     */
+    public static void configurePool(int poolSize) {
+        if (poolSize != pool.capacity()) {
+            pool = new ObjectPool<>(poolSize, PooledKryo::new);
+        }
+    }
 
     /**
      * 序列化对象
-     * 优化：设置合理的初始容量，减少扩容次数，性能提升 5-10%
+     * 优化：复用池化的 Output 缓冲区，只在最后拷贝一次结果
      *
      * @param obj 待序列化对象
      * @return 序列化后的字节数组
@@ -45,27 +51,56 @@ public class SerializerUtils {
     public static byte[] serialize(Object obj) {
         if (obj == null) return null;
 
+        ObjectPool<PooledKryo> current = pool;
+        PooledKryo pooled = current.borrow();
         try {
-            // 优化：设置初始容量，减少扩容次数
-            ByteArrayOutputStream baos = new ByteArrayOutputStream(DEFAULT_BUFFER_SIZE);
-            Output output = new Output(baos, LARGE_BUFFER_SIZE);
-            try {
-                KRYO_THREAD_LOCAL.get().writeObject(output, obj);
-                output.flush();
-                return baos.toByteArray();
-            } finally {
-                output.close();
-                baos.close();
-            }
+            Output output = pooled.output;
+            output.reset();
+            pooled.kryo.writeObject(output, obj);
+            byte[] data = output.toBytes();
+            pooled.release(current);
+            return data;
         } catch (Exception e) {
+            // 出错的实例内部状态不确定，不再归还
             log.error("Serialization failed for object: {}", obj.getClass().getName(), e);
             return null;
         }
     }
 
+    /**
+     * 序列化对象并追加到池化缓冲区
+     * 优化：Kryo 直接在缓冲区的数组上写入（扩容时由 Kryo 换成更大的数组并交还给缓冲区），不经过中间数组
+     *
+     * @param obj 待序列化对象
+     * @param out 目标缓冲区
+     * @return 是否成功，失败时缓冲区内容不变
+     */
+    public static boolean serialize(Object obj, PooledBuffer out) {
+        if (obj == null) return false;
+
+        ObjectPool<PooledKryo> current = pool;
+        PooledKryo pooled = current.borrow();
+        try {
+            Output output = pooled.output;
+            byte[] own = output.getBuffer();
+            out.ensureCapacity(1);
+            output.setBuffer(out.array(), -1);
+            output.setPosition(out.size());
+            pooled.kryo.writeObject(output, obj);
+            out.adopt(output.getBuffer(), output.position());
+            output.setBuffer(own, -1);
+            pooled.release(current);
+            return true;
+        } catch (Exception e) {
+            // 出错的实例不再归还，其 Output 可能仍指向缓冲区的数组
+            log.error("Serialization failed for object: {}", obj.getClass().getName(), e);
+            return false;
+        }
+    }
+
     /**
      * 反序列化对象
-     * 优化：直接使用字节数组创建 Input，避免 ByteArrayInputStream 开销
+     * 优化：复用池化的 Input，直接读取字节数组
      *
      * @param data 序列化后的字节数组
      * @param clazz 目标类型
@@ -74,17 +109,73 @@ public class SerializerUtils {
     public static <T> T deserialize(byte[] data, Class<T> clazz) {
         if (data == null || data.length == 0) return null;
 
+        ObjectPool<PooledKryo> current = pool;
+        PooledKryo pooled = current.borrow();
         try {
-            // 优化：直接使用字节数组，避免 ByteArrayInputStream 开销
-            Input input = new Input(data);
-            try {
-                return KRYO_THREAD_LOCAL.get().readObject(input, clazz);
-            } finally {
-                input.close();
-            }
+            Input input = pooled.input;
+            input.setBuffer(data);
+            T value = pooled.kryo.readObject(input, clazz);
+            pooled.release(current);
+            return value;
         } catch (Exception e) {
             log.error("Deserialization failed for type: {}", clazz.getName(), e);
             return null;
         }
     }
+
+    /**
+     * 深拷贝对象
+     * 优化：直接在对象图上拷贝，不经过字节数组
+     *
+     * @param obj 待拷贝对象
+     * @return 拷贝后的对象，失败返回 null
+     */
+    public static <T> T copy(T obj) {
+        if (obj == null) return null;
+
+        ObjectPool<PooledKryo> current = pool;
+        PooledKryo pooled = current.borrow();
+        try {
+            T copy = pooled.kryo.copy(obj);
+            pooled.release(current);
+            return copy;
+        } catch (Exception e) {
+            log.error("Copy failed for object: {}", obj.getClass().getName(), e);
+            return null;
+        }
+    }
+
+    private static Kryo newKryo() {
+        Kryo kryo = new Kryo();
+        kryo.setRegistrationRequired(false);
+
+        // 优化：但预先注册常用的 JDK 类，以提高序列化效率
+        // 即使 setRegistrationRequired(false)，预注册的类也会使用 ID
+        kryo.register(ArrayList.class);
+        kryo.register(HashMap.class);
+        kryo.register(HashSet.class);
+        kryo.register(Date.class);
+
+        // (例如 Order -> User -> List<Order> 的场景)
+        kryo.setReferences(true);
+        return kryo;
+    }
+
+    /**
+     * 池化单元：Kryo 实例及其专用的 Output / Input
+     */
+    private static final class PooledKryo {
+        private final Kryo kryo = newKryo();
+        private final Input input = new Input();
+        private Output output = new Output(DEFAULT_BUFFER_SIZE, -1);
+
+        private void release(ObjectPool<PooledKryo> owner) {
+            // 不持有调用方的数据，避免归还后仍引用大数组
+            input.setBuffer(EMPTY);
+            if (output.getBuffer().length > MAX_RETAINED_BUFFER_SIZE) {
+                output = new Output(DEFAULT_BUFFER_SIZE, -1);
+            }
+            owner.release(this);
+        }
+    }
 }
@@ -3,18 +3,29 @@ package com.mx.cache.util;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.util.ReflectionUtils;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 public class SpelUtils {
 
-    private static final ExpressionParser parser = new SpelExpressionParser();
+    /**
+     * 优化：MIXED 编译模式，表达式多次执行后编译为字节码，编译失败时自动回退解释执行
+     */
+    private static final ExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, SpelUtils.class.getClassLoader()));
     
     /**
      * 优化：缓存解析后的 Expression 对象，避免重复解析
@@ -40,6 +51,29 @@ public class SpelUtils {
         try {
             // 优化：从缓存获取或解析表达式
             Expression exp = expressionCache.computeIfAbsent(expression, parser::parseExpression);
+            return evaluate(exp, args, paramNames, resultType);
+        } catch (Exception e) {
+            log.error("Failed to evaluate SpEL expression: {}", expression, e);
+            return null;
+        }
+    }
+
+    /**
+     * 评估已解析的 SpEL 表达式
+     * 优化：调用方预先持有 Expression，省去表达式缓存查找
+     *
+     * @param exp 已解析的表达式
+     * @param args 方法参数
+     * @param paramNames 参数名称
+     * @param resultType 返回类型
+     * @return 表达式计算结果
+     */
+    public static <T> T evaluate(Expression exp, Object[] args, String[] paramNames, Class<T> resultType) {
+        if (exp == null) {
+            return null;
+        }
+
+        try {
             StandardEvaluationContext context = new StandardEvaluationContext();
 
             // 设置参数
@@ -54,11 +88,54 @@ public class SpelUtils {
 
             return exp.getValue(context, resultType);
         } catch (Exception e) {
-            log.error("Failed to evaluate SpEL expression: {}", expression, e);
+            log.error("Failed to evaluate SpEL expression: {}", exp.getExpressionString(), e);
             return null;
         }
     }
 
+    /**
+     * 解析 SpEL 表达式（带缓存）
+     *
+     * @param expression SpEL 表达式
+     * @return 解析后的表达式，表达式为空时返回 null
+     */
+    public static Expression parse(String expression) {
+        if (expression == null || expression.isEmpty()) {
+            return null;
+        }
+        return expressionCache.computeIfAbsent(expression, parser::parseExpression);
+    }
+
+    /**
+     * 将表达式结果（单个值、集合或数组）展开为字符串列表，忽略 null 元素
+     *
+     * @param value 表达式结果
+     * @return 字符串列表
+     */
+    public static List<String> toStringList(Object value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>();
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                if (element != null) {
+                    values.add(element.toString());
+                }
+            }
+        } else if (value.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(value); i++) {
+                Object element = Array.get(value, i);
+                if (element != null) {
+                    values.add(element.toString());
+                }
+            }
+        } else {
+            values.add(value.toString());
+        }
+        return values;
+    }
+
     /**
      * 优化：缓存 Field 对象，避免频繁反射查找
      */
@@ -0,0 +1,79 @@
+package com.mx.cache.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheGenerationsTest {
+
+    private static final String PREFIX = "cache:gen:";
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final CacheGenerations generations = new CacheGenerations(redisTemplate, PREFIX, "cache:gen");
+    private final List<String> changed = new ArrayList<>();
+
+    CacheGenerationsTest() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        generations.setChangeListener(changed::add);
+    }
+
+    private void receive(String body) {
+        generations.onMessage(new DefaultMessage("cache:gen".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    @Test
+    void loadsGenerationOnEnable() {
+        when(values.get(PREFIX + "catalog")).thenReturn("7");
+
+        generations.enable("catalog");
+
+        assertThat(generations.current("catalog")).isEqualTo(7);
+        assertThat(generations.keyPrefix("catalog")).isEqualTo("catalog::g7::");
+        assertThat(changed).isEmpty();
+    }
+
+    @Test
+    void outOfOrderMessagesNeverMoveGenerationBackwards() {
+        generations.enable("catalog");
+
+        receive("catalog\n3");
+        receive("catalog\n2");
+        receive("catalog\n3");
+
+        assertThat(generations.current("catalog")).isEqualTo(3);
+        assertThat(changed).containsExactly("catalog");
+    }
+
+    @Test
+    void ignoresMessagesForCachesNotEnabledAndMalformedBodies() {
+        receive("other\n5");
+        receive("catalog\nx");
+        receive("no-separator");
+
+        assertThat(generations.isEnabled("other")).isFalse();
+        assertThat(changed).isEmpty();
+    }
+
+    @Test
+    void bumpUsesRedisIncrement() {
+        generations.enable("catalog");
+        when(values.increment(PREFIX + "catalog")).thenReturn(10L);
+
+        assertThat(generations.bump("catalog")).isEqualTo(10);
+        assertThat(generations.current("catalog")).isEqualTo(10);
+        assertThat(changed).containsExactly("catalog");
+    }
+}
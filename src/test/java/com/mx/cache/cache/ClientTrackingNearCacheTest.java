@@ -0,0 +1,51 @@
+package com.mx.cache.cache;
+
+import io.lettuce.core.api.push.PushMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClientTrackingNearCacheTest {
+
+    private final List<String> invalidated = new ArrayList<>();
+    private final AtomicInteger flushes = new AtomicInteger();
+    private final ClientTrackingNearCache tracking =
+            new ClientTrackingNearCache(null, invalidated::add, flushes::incrementAndGet);
+
+    private static PushMessage invalidate(List<String> keys) {
+        PushMessage message = mock(PushMessage.class);
+        when(message.getType()).thenReturn("invalidate");
+        when(message.getContent(any())).thenReturn(Arrays.asList("invalidate", keys));
+        return message;
+    }
+
+    @Test
+    void invalidationDuringReadIsDetected() {
+        long stamp = tracking.stamp("user::1");
+        assertThat(tracking.isInvalidatedSince("user::1", stamp)).isFalse();
+
+        tracking.onPush(invalidate(List.of("user::1")));
+
+        assertThat(invalidated).containsExactly("user::1");
+        assertThat(tracking.isInvalidatedSince("user::1", stamp)).isTrue();
+        assertThat(tracking.isInvalidatedSince("user::1", tracking.stamp("user::1"))).isFalse();
+    }
+
+    @Test
+    void flushInvalidatesEveryKey() {
+        long stamp = tracking.stamp("user::2");
+
+        tracking.onPush(invalidate(null));
+
+        assertThat(flushes).hasValue(1);
+        assertThat(tracking.isInvalidatedSince("user::2", stamp)).isTrue();
+    }
+}
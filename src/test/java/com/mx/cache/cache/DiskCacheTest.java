@@ -0,0 +1,171 @@
+package com.mx.cache.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskCacheTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+    private static final long EXPIRE_MILLIS = 60_000;
+    private static final long RECOVERY_TTL_MILLIS = 60_000;
+
+    @TempDir
+    Path directory;
+
+    private final List<DiskCache> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeAll() {
+        opened.forEach(DiskCache::close);
+    }
+
+    /**
+     * segment 封存在调用线程执行，保证测试中 hint 文件已写出
+     */
+    private DiskCache open(long recoveryTtlMillis) {
+        DiskCache cache = new DiskCache(directory.toString(), SEGMENT_SIZE, 16L * SEGMENT_SIZE, 0.5,
+                recoveryTtlMillis, Runnable::run);
+        assertThat(cache.open()).isTrue();
+        opened.add(cache);
+        return cache;
+    }
+
+    private DiskCache reopen(DiskCache cache, long recoveryTtlMillis) {
+        cache.close();
+        return open(recoveryTtlMillis);
+    }
+
+    private static byte[] value(int fill) {
+        byte[] value = new byte[1000];
+        Arrays.fill(value, (byte) fill);
+        return value;
+    }
+
+    private long hintFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".hint")).count();
+        }
+    }
+
+    @Test
+    void recoversSealedAndActiveSegments() throws Exception {
+        DiskCache cache = open(RECOVERY_TTL_MILLIS);
+        for (int i = 0; i < 10; i++) {
+            assertThat(cache.put("c::" + i, value(i), EXPIRE_MILLIS)).isTrue();
+        }
+        assertThat(cache.getSegmentCount()).isGreaterThan(1);
+        assertThat(hintFiles()).isEqualTo(cache.getSegmentCount() - 1);
+
+        DiskCache recovered = reopen(cache, RECOVERY_TTL_MILLIS);
+
+        assertThat(recovered.size()).isEqualTo(10);
+        for (int i = 0; i < 10; i++) {
+            assertThat(recovered.get("c::" + i)).isEqualTo(value(i));
+        }
+    }
+
+    @Test
+    void restartWithoutRecoveryTtlDiscardsData() throws Exception {
+        DiskCache cache = open(RECOVERY_TTL_MILLIS);
+        for (int i = 0; i < 10; i++) {
+            cache.put("c::" + i, value(i), EXPIRE_MILLIS);
+        }
+
+        DiskCache restarted = reopen(cache, 0);
+
+        assertThat(restarted.size()).isZero();
+        assertThat(restarted.get("c::1")).isNull();
+        assertThat(restarted.getSegmentCount()).isEqualTo(1);
+        assertThat(hintFiles()).isZero();
+    }
+
+    @Test
+    void recoveredEntriesExpireWithinRecoveryTtl() throws Exception {
+        DiskCache cache = open(RECOVERY_TTL_MILLIS);
+        cache.put("c::1", value(1), EXPIRE_MILLIS);
+
+        DiskCache recovered = reopen(cache, 50);
+        assertThat(recovered.get("c::1")).isEqualTo(value(1));
+
+        Thread.sleep(100);
+        assertThat(recovered.get("c::1")).isNull();
+    }
+
+    @Test
+    void tombstoneSurvivesRestart() {
+        DiskCache cache = open(RECOVERY_TTL_MILLIS);
+        cache.put("c::1", value(1), EXPIRE_MILLIS);
+        // 写满几个 segment，墓碑与被删除的记录位于不同 segment
+        for (int i = 10; i < 20; i++) {
+            cache.put("c::" + i, value(i), EXPIRE_MILLIS);
+        }
+        cache.evict("c::1");
+        assertThat(cache.get("c::1")).isNull();
+
+        DiskCache recovered = reopen(cache, RECOVERY_TTL_MILLIS);
+
+        assertThat(recovered.get("c::1")).isNull();
+        assertThat(recovered.get("c::10")).isEqualTo(value(10));
+    }
+
+    @Test
+    void removedSegmentsAreUnmappedImmediately() throws Exception {
+        DiskCache cache = open(RECOVERY_TTL_MILLIS);
+        // 覆盖写入超过磁盘上限，最旧的 segment 被淘汰
+        for (int i = 0; i < 100; i++) {
+            cache.put("c::" + (i % 5), value(i), EXPIRE_MILLIS);
+        }
+        assertThat(cache.getSegmentCount()).isLessThanOrEqualTo(16);
+        assertThat(cache.getMappedSegmentCount()).isEqualTo(cache.getSegmentCount());
+
+        cache.compact();
+
+        assertThat(cache.getMappedSegmentCount()).isEqualTo(cache.getSegmentCount());
+        assertThat(cache.get("c::4")).isEqualTo(value(99));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.filter(path -> path.toString().endsWith(".log")).count())
+                    .isEqualTo(cache.getSegmentCount());
+        }
+
+        cache.close();
+        assertThat(cache.getMappedSegmentCount()).isZero();
+        assertThat(cache.get("c::4")).isNull();
+    }
+
+    @Test
+    void compactionMovesLiveRecordsAndKeepsTombstones() {
+        DiskCache cache = open(RECOVERY_TTL_MILLIS);
+        cache.put("c::live", value(1), EXPIRE_MILLIS);
+        cache.put("c::deleted", value(2), EXPIRE_MILLIS);
+        // 覆盖写入使早期 segment 几乎全是失效数据
+        for (int round = 0; round < 4; round++) {
+            for (int i = 0; i < 3; i++) {
+                cache.put("c::" + i, value(round), EXPIRE_MILLIS);
+            }
+        }
+        cache.evict("c::deleted");
+        int before = cache.getSegmentCount();
+
+        cache.compact();
+
+        assertThat(cache.getSegmentCount()).isLessThan(before);
+        assertThat(cache.get("c::live")).isEqualTo(value(1));
+        assertThat(cache.get("c::0")).isEqualTo(value(3));
+        assertThat(cache.get("c::deleted")).isNull();
+
+        DiskCache recovered = reopen(cache, RECOVERY_TTL_MILLIS);
+        assertThat(recovered.get("c::live")).isEqualTo(value(1));
+        assertThat(recovered.get("c::2")).isEqualTo(value(3));
+        assertThat(recovered.get("c::deleted")).isNull();
+    }
+}
@@ -0,0 +1,97 @@
+package com.mx.cache.cache;
+
+import com.mx.cache.annotation.Cacheable;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalCacheTest {
+
+    private static final long EXPIRE_MILLIS = 60_000;
+
+    /**
+     * refreshAfterWrite = 1ms，刷新在调用线程执行
+     */
+    private static LocalCache refreshingCache() {
+        return new LocalCache(EXPIRE_MILLIS, TimeUnit.MILLISECONDS, Cacheable.EvictionPolicy.LRU, 100, 0,
+                Cacheable.LocalStoreMode.BYTES, new ValueCopier.Identity(), 0, EXPIRE_MILLIS, 1, Runnable::run,
+                null);
+    }
+
+    private static long expiresAfterMillis(LocalCache cache, String key) {
+        return cache.getCache().policy().expireVariably().orElseThrow()
+                .getExpiresAfter(key, TimeUnit.MILLISECONDS).orElseThrow();
+    }
+
+    /**
+     * 等待超过 refreshAfterWrite 后读取一次，触发刷新
+     */
+    private static byte[] readAfterRefreshInterval(LocalCache cache, String key) throws InterruptedException {
+        Thread.sleep(5);
+        return cache.get(key);
+    }
+
+    @Test
+    void failedRefreshKeepsEntryAndExpiry() throws Exception {
+        LocalCache cache = refreshingCache();
+        cache.put("c::1", new byte[]{1}, 1_000);
+        AtomicInteger reloads = new AtomicInteger();
+        cache.registerRefreshSource("c::1", () -> {
+            reloads.incrementAndGet();
+            throw new IllegalStateException("source down");
+        });
+
+        assertThat(readAfterRefreshInterval(cache, "c::1")).containsExactly(1);
+        assertThat(reloads).hasValue(1);
+        assertThat(cache.get("c::1")).containsExactly(1);
+        assertThat(expiresAfterMillis(cache, "c::1")).isLessThanOrEqualTo(1_000);
+    }
+
+    @Test
+    void refreshWithoutSourceKeepsExpiry() throws Exception {
+        LocalCache cache = refreshingCache();
+        cache.put("c::1", new byte[]{1}, 1_000);
+
+        assertThat(readAfterRefreshInterval(cache, "c::1")).containsExactly(1);
+        assertThat(expiresAfterMillis(cache, "c::1")).isLessThanOrEqualTo(1_000);
+    }
+
+    @Test
+    void refreshedValueKeepsRequestedExpire() throws Exception {
+        LocalCache cache = refreshingCache();
+        cache.put("c::1", new byte[]{1}, 1_000);
+        cache.registerRefreshSource("c::1", () -> new byte[]{2});
+
+        readAfterRefreshInterval(cache, "c::1");
+        assertThat(cache.get("c::1")).containsExactly(2);
+        assertThat(expiresAfterMillis(cache, "c::1")).isLessThanOrEqualTo(1_000);
+    }
+
+    @Test
+    void offHeapStoreEvictsColdEntriesWhenFull() {
+        // 一个 1KB 的 slab，每个值独占一个 chunk
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(1024, 1024);
+        LocalCache cache = new LocalCache(EXPIRE_MILLIS, TimeUnit.MILLISECONDS, Cacheable.EvictionPolicy.LRU, 100, 0,
+                Cacheable.LocalStoreMode.OFF_HEAP, new ValueCopier.Identity(), 0, allocator);
+        assertThat(cache.isOffHeap()).isTrue();
+
+        cache.put("c::1", new byte[1024]);
+        cache.put("c::2", new byte[1024]);
+
+        assertThat(cache.get("c::2")).hasSize(1024);
+        assertThat(cache.get("c::1")).isNull();
+    }
+
+    @Test
+    void offHeapWithoutAllocatorFallsBackToBytes() {
+        LocalCache cache = new LocalCache(EXPIRE_MILLIS, TimeUnit.MILLISECONDS, Cacheable.EvictionPolicy.LRU, 100, 0,
+                Cacheable.LocalStoreMode.OFF_HEAP, new ValueCopier.Identity(), 0, null);
+
+        cache.put("c::1", new byte[]{1});
+        assertThat(cache.isOffHeap()).isFalse();
+        assertThat(cache.get("c::1")).containsExactly(1);
+    }
+}
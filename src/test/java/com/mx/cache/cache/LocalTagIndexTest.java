@@ -0,0 +1,40 @@
+package com.mx.cache.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalTagIndexTest {
+
+    private final LocalTagIndex index = new LocalTagIndex(100);
+
+    @Test
+    void removeReturnsMembersOnce() {
+        index.add(List.of("t1", "t2"), "c::1", 60_000);
+        index.add(List.of("t1"), "c::2", 60_000);
+
+        assertThat(index.remove("t1")).containsExactlyInAnyOrder("c::1", "c::2");
+        assertThat(index.remove("t1")).isEmpty();
+        assertThat(index.remove("t2")).containsExactly("c::1");
+    }
+
+    @Test
+    void expiredMembersAreNotReturned() throws Exception {
+        index.add(List.of("t1"), "c::short", 1);
+        index.add(List.of("t1"), "c::long", 60_000);
+        Thread.sleep(5);
+
+        assertThat(index.remove("t1")).containsExactly("c::long");
+    }
+
+    @Test
+    void unknownTagAndClear() {
+        assertThat(index.remove("missing")).isEmpty();
+
+        index.add(List.of("t1"), "c::1", 60_000);
+        index.clear();
+        assertThat(index.remove("t1")).isEmpty();
+    }
+}
@@ -0,0 +1,87 @@
+package com.mx.cache.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapSlabAllocatorTest {
+
+    private static final int SLAB_SIZE = 1024;
+
+    private static byte[] data(int length, int fill) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, (byte) fill);
+        return data;
+    }
+
+    @Test
+    void storeAndLoadRoundTrip() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(4 * SLAB_SIZE, SLAB_SIZE);
+
+        OffHeapSlabAllocator.Allocation allocation = allocator.store(data(100, 7));
+
+        assertThat(allocation.getLength()).isEqualTo(100);
+        assertThat(allocator.load(allocation)).isEqualTo(data(100, 7));
+        assertThat(allocator.getAllocatedBytes()).isEqualTo(SLAB_SIZE);
+    }
+
+    @Test
+    void freedChunkIsReusedAndOldAllocationBecomesInvalid() {
+        // 只有一个 slab：同级别的 chunk 用完后只能复用释放的 chunk
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(SLAB_SIZE, SLAB_SIZE);
+        List<OffHeapSlabAllocator.Allocation> allocations = new ArrayList<>();
+        OffHeapSlabAllocator.Allocation allocation;
+        while ((allocation = allocator.store(data(500, 1))) != null) {
+            allocations.add(allocation);
+        }
+        assertThat(allocations).isNotEmpty();
+
+        OffHeapSlabAllocator.Allocation freed = allocations.get(0);
+        allocator.free(freed);
+        assertThat(allocator.load(freed)).isNull();
+
+        OffHeapSlabAllocator.Allocation reused = allocator.store(data(500, 2));
+        assertThat(reused).isNotNull();
+        assertThat(allocator.load(reused)).isEqualTo(data(500, 2));
+        // 旧的分配结果代数已变化，即使 chunk 被重新写入也不会读到新数据
+        assertThat(allocator.load(freed)).isNull();
+        assertThat(allocator.getAllocatedBytes()).isEqualTo(SLAB_SIZE);
+    }
+
+    @Test
+    void doubleFreeDoesNotHandOutChunkTwice() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(SLAB_SIZE, SLAB_SIZE);
+        OffHeapSlabAllocator.Allocation first = allocator.store(data(SLAB_SIZE, 1));
+        assertThat(allocator.store(data(SLAB_SIZE, 1))).isNull();
+
+        allocator.free(first);
+        allocator.free(first);
+
+        assertThat(allocator.store(data(SLAB_SIZE, 2))).isNotNull();
+        assertThat(allocator.store(data(SLAB_SIZE, 3))).isNull();
+    }
+
+    @Test
+    void rejectsOversizedValuesAndRespectsCapacity() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(SLAB_SIZE, SLAB_SIZE);
+
+        assertThat(allocator.store(data(SLAB_SIZE + 1, 1))).isNull();
+        assertThat(allocator.store(data(SLAB_SIZE, 1))).isNotNull();
+        assertThat(allocator.store(data(SLAB_SIZE, 1))).isNull();
+        assertThat(allocator.getAllocatedBytes()).isLessThanOrEqualTo(allocator.getCapacity());
+    }
+
+    @Test
+    void sameSizeClassMatchesOnlyReusableChunks() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(4 * SLAB_SIZE, SLAB_SIZE);
+        OffHeapSlabAllocator.Allocation small = allocator.store(data(60, 1));
+
+        assertThat(allocator.isSameSizeClass(small, 64)).isTrue();
+        assertThat(allocator.isSameSizeClass(small, 500)).isFalse();
+        assertThat(allocator.isSameSizeClass(small, SLAB_SIZE + 1)).isFalse();
+    }
+}
@@ -0,0 +1,101 @@
+package com.mx.cache.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RemoteGetBatcherTest {
+
+    private static final long WINDOW_MICROS = TimeUnit.SECONDS.toMicros(10);
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private final CountDownLatch blockedInLoad = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /**
+     * 读取 "blocked" 时卡在 MGET 中，使后续批次的 leader 看到有其他读取线程而等待窗口；
+     * failing 时其他批次抛出 Error
+     */
+    private RemoteGetBatcher batcher(int maxBatchSize, boolean failing) {
+        return new RemoteGetBatcher(maxBatchSize, WINDOW_MICROS, keys -> {
+            batches.add(new ArrayList<>(keys));
+            if (keys.contains("blocked")) {
+                blockedInLoad.countDown();
+                await(release);
+            } else if (failing) {
+                throw new AssertionError("boom");
+            }
+            List<byte[]> values = new ArrayList<>();
+            for (String key : keys) {
+                values.add(key.getBytes());
+            }
+            return values;
+        });
+    }
+
+    private CompletableFuture<byte[]> blockOneReader(RemoteGetBatcher batcher) throws InterruptedException {
+        CompletableFuture<byte[]> blocked = CompletableFuture.supplyAsync(() -> batcher.get("blocked"));
+        assertThat(blockedInLoad.await(5, TimeUnit.SECONDS)).isTrue();
+        return blocked;
+    }
+
+    @Test
+    void singleReaderDoesNotWaitForWindow() {
+        RemoteGetBatcher batcher = batcher(64, false);
+
+        long start = System.nanoTime();
+        assertThat(batcher.get("k1")).isEqualTo("k1".getBytes());
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(batches).containsExactly(List.of("k1"));
+    }
+
+    @Test
+    void concurrentReadersShareOneLoad() throws Exception {
+        RemoteGetBatcher batcher = batcher(2, false);
+        CompletableFuture<byte[]> blocked = blockOneReader(batcher);
+
+        CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(() -> batcher.get("k1"));
+        CompletableFuture<byte[]> second = CompletableFuture.supplyAsync(() -> batcher.get("k2"));
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("k1".getBytes());
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("k2".getBytes());
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).containsExactlyInAnyOrder("k1", "k2");
+
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void errorInLoaderStillCompletesWaiters() throws Exception {
+        RemoteGetBatcher batcher = batcher(2, true);
+        CompletableFuture<byte[]> blocked = blockOneReader(batcher);
+
+        CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(() -> batcher.get("k1"));
+        CompletableFuture<byte[]> second = CompletableFuture.supplyAsync(() -> batcher.get("k2"));
+        CompletableFuture.allOf(first, second).handle((v, e) -> null).get(5, TimeUnit.SECONDS);
+
+        // leader 抛出 Error，同批的等待者以 null 完成，而不是永久挂起
+        List<CompletableFuture<byte[]>> results = List.of(first, second);
+        assertThat(results).filteredOn(CompletableFuture::isCompletedExceptionally).hasSize(1);
+        assertThat(results).filteredOn(f -> !f.isCompletedExceptionally())
+                .singleElement().extracting(CompletableFuture::join).isNull();
+
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
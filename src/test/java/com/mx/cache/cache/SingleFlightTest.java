@@ -0,0 +1,104 @@
+package com.mx.cache.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+    private SingleFlight.Loader<List<String>> blockingLoader() {
+        return () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new ArrayList<>(List.of("v"));
+        };
+    }
+
+    @Test
+    void waiterSharesLeaderResult() throws Exception {
+        CompletableFuture<List<String>> leader = runAsync(() -> singleFlight.execute("k", blockingLoader()));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<List<String>> waiter = runAsync(() -> singleFlight.execute("k", blockingLoader()));
+
+        awaitWaiterParked();
+        release.countDown();
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isSameAs(leader.get(5, TimeUnit.SECONDS));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void waiterViewGivesWaitersTheirOwnCopy() throws Exception {
+        CompletableFuture<List<String>> leader = runAsync(() -> singleFlight.execute("k", blockingLoader()));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<List<String>> waiter =
+                runAsync(() -> singleFlight.execute("k", blockingLoader(), ArrayList::new));
+
+        awaitWaiterParked();
+        release.countDown();
+        assertThat(waiter.get(5, TimeUnit.SECONDS))
+                .isEqualTo(leader.get(5, TimeUnit.SECONDS))
+                .isNotSameAs(leader.get());
+    }
+
+    @Test
+    void waiterLoadsDirectlyAfterTimeout() throws Throwable {
+        singleFlight.setWaitTimeoutMillis(50);
+        CompletableFuture<List<String>> leader = runAsync(() -> singleFlight.execute("k", blockingLoader()));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<String> direct = singleFlight.execute("k", () -> {
+            loads.incrementAndGet();
+            return List.of("direct");
+        });
+        assertThat(direct).containsExactly("direct");
+        assertThat(leader).isNotDone();
+
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+        assertThat(loads).hasValue(2);
+    }
+
+    /**
+     * 等待线程（第二个启动的线程）已挂起在加载线程的结果上，之后再放行加载线程
+     */
+    private void awaitWaiterParked() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Thread waiter = threads.size() > 1 ? threads.get(1) : null;
+            if (waiter != null && waiter.getState() == Thread.State.TIMED_WAITING) {
+                return;
+            }
+            Thread.sleep(1);
+        }
+        throw new AssertionError("waiter did not start waiting");
+    }
+
+    private <T> CompletableFuture<T> runAsync(SingleFlight.Loader<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(call.load());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        threads.add(thread);
+        thread.start();
+        return future;
+    }
+}
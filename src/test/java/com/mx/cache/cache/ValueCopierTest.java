@@ -0,0 +1,137 @@
+package com.mx.cache.cache;
+
+import com.mx.cache.annotation.Cacheable;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ValueCopierTest {
+
+    record User(String name, List<String> tags) {
+    }
+
+    static class MutableUser {
+        private String name;
+
+        MutableUser() {
+        }
+
+        MutableUser(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * 缓存方法声明的返回类型
+     */
+    interface Api {
+        Map<String, List<Integer>> map();
+
+        ArrayList<String> arrayList();
+
+        HashMap<String, List<Integer>> hashMap();
+
+        Map<String, ArrayList<Integer>> mapOfArrayLists();
+    }
+
+    private static Type returnType(String method) throws NoSuchMethodException {
+        return Api.class.getMethod(method).getGenericReturnType();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    private static LocalCache objectCache(ValueCopier copier) {
+        return new LocalCache(60_000, TimeUnit.MILLISECONDS, Cacheable.EvictionPolicy.LRU, 100, 0,
+                Cacheable.LocalStoreMode.OBJECT, copier, 0);
+    }
+
+    @Test
+    void kryoFreezesCollectionsOnWriteAndReturnsSameInstance() {
+        LocalCache cache = objectCache(new ValueCopier.Kryo());
+        User user = new User("a", new ArrayList<>(List.of("x")));
+        cache.putValue("c::1", user);
+        user.tags().add("changed");
+
+        Object first = cache.getValue("c::1");
+        assertThat(first).isSameAs(cache.getValue("c::1"));
+        assertThat(((User) first).tags()).containsExactly("x");
+        assertThatThrownBy(() -> ((User) first).tags().add("y")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void kryoFreezesMaps() throws Exception {
+        LocalCache cache = objectCache(new ValueCopier.Kryo());
+        Map<String, List<Integer>> value = new HashMap<>();
+        value.put("k", new ArrayList<>(List.of(1)));
+        cache.putValue("c::1", value, 0, returnType("map"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, List<Integer>> cached = (Map<String, List<Integer>>) cache.getValue("c::1");
+        assertThat(cached).containsEntry("k", List.of(1));
+        assertThatThrownBy(() -> cached.get("k").add(2)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void kryoKeepsDeclaredCollectionTypes() throws Exception {
+        LocalCache cache = objectCache(new ValueCopier.Kryo());
+        cache.putValue("c::list", new ArrayList<>(List.of("x")), 0, returnType("arrayList"));
+        Map<String, List<Integer>> map = new HashMap<>();
+        map.put("k", new ArrayList<>(List.of(1)));
+        cache.putValue("c::map", map, 0, returnType("hashMap"));
+        Map<String, ArrayList<Integer>> nested = new HashMap<>();
+        nested.put("k", new ArrayList<>(List.of(1)));
+        cache.putValue("c::nested", nested, 0, returnType("mapOfArrayLists"));
+
+        ArrayList<Object> list = cast(cache.getValue("c::list"));
+        assertThat(list).containsExactly("x").isNotSameAs(cache.getValue("c::list"));
+        HashMap<Object, Object> hashMap = cast(cache.getValue("c::map"));
+        assertThat(hashMap).containsEntry("k", List.of(1));
+        Map<String, ArrayList<Integer>> nestedHit = cast(cache.getValue("c::nested"));
+        ArrayList<Integer> inner = nestedHit.get("k");
+        inner.add(2);
+        assertThat(((Map<?, ?>) cache.getValue("c::nested")).get("k")).isEqualTo(List.of(1));
+    }
+
+    @Test
+    void kryoCopiesMutableBeansOnEveryHit() {
+        LocalCache cache = objectCache(new ValueCopier.Kryo());
+        cache.putValue("c::1", new MutableUser("a"));
+
+        MutableUser first = (MutableUser) cache.getValue("c::1");
+        first.name = "changed";
+
+        MutableUser second = (MutableUser) cache.getValue("c::1");
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.name).isEqualTo("a");
+    }
+
+    @Test
+    void identitySharesInstance() {
+        LocalCache cache = objectCache(new ValueCopier.Identity());
+        MutableUser user = new MutableUser("a");
+        cache.putValue("c::1", user);
+
+        assertThat(cache.getValue("c::1")).isSameAs(user);
+    }
+
+    @Test
+    void immutableTypes() {
+        assertThat(ImmutableValues.isImmutable(String.class)).isTrue();
+        assertThat(ImmutableValues.isImmutable(java.time.LocalDate.class)).isTrue();
+        assertThat(ImmutableValues.isImmutable(Cacheable.LocalStoreMode.class)).isTrue();
+        assertThat(ImmutableValues.isImmutable(User.class)).isFalse();
+        assertThat(ImmutableValues.isImmutable(MutableUser.class)).isFalse();
+        assertThat(ImmutableValues.freeze(new MutableUser("a"), null)).isSameAs(ImmutableValues.MUTABLE);
+    }
+}
@@ -0,0 +1,174 @@
+package com.mx.cache.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteBehindQueueTest {
+
+    /**
+     * 记录每批写入；blocked 时在 pipelinePut 中等待放行，模拟在途批次
+     */
+    private static final class RecordingRemoteCache extends RemoteCache {
+        private final List<List<WriteBehindQueue.PendingWrite>> batches = new ArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean blocked;
+
+        RecordingRemoteCache() {
+            super(null);
+        }
+
+        @Override
+        public void pipelinePut(Collection<WriteBehindQueue.PendingWrite> writes) {
+            synchronized (batches) {
+                batches.add(new ArrayList<>(writes));
+            }
+            if (blocked) {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void put(String key, byte[] value, long expire, TimeUnit unit, Collection<String> tags) {
+            pipelinePut(List.of(new WriteBehindQueue.PendingWrite(key, value, unit.toMillis(expire), tags)));
+        }
+    }
+
+    private final RecordingRemoteCache remote = new RecordingRemoteCache();
+    private WriteBehindQueue queue;
+
+    private WriteBehindQueue newQueue(int capacity, int flushSize, WriteBehindQueue.Backpressure backpressure) {
+        // 刷新间隔足够长，测试中只由 flush() 显式刷新
+        queue = new WriteBehindQueue(remote, capacity, flushSize, 60_000, backpressure);
+        return queue;
+    }
+
+    @AfterEach
+    void tearDown() {
+        remote.release.countDown();
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    private CompletableFuture<Void> flushInBackground() throws InterruptedException {
+        remote.blocked = true;
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(queue::flush);
+        assertThat(remote.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        return flush;
+    }
+
+    @Test
+    void inFlightWriteStaysReadable() throws Exception {
+        newQueue(100, 100, null).put("c::1", new byte[]{1}, 1, TimeUnit.MINUTES);
+
+        CompletableFuture<Void> flush = flushInBackground();
+        assertThat(queue.peek("c::1")).containsExactly(1);
+
+        remote.release.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        assertThat(queue.peek("c::1")).isNull();
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void overwriteDuringFlushIsKeptForNextBatch() throws Exception {
+        newQueue(100, 100, null).put("c::1", new byte[]{1}, 1, TimeUnit.MINUTES);
+
+        CompletableFuture<Void> flush = flushInBackground();
+        queue.put("c::1", new byte[]{2}, 1, TimeUnit.MINUTES);
+
+        remote.release.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        // 同一次 flush 会继续写出被覆盖的新值
+        assertThat(queue.size()).isZero();
+        assertThat(remote.batches).hasSize(2);
+        assertThat(remote.batches.get(1).get(0).getValue()).containsExactly(2);
+    }
+
+    @Test
+    void cancelWaitsForInFlightBatch() throws Exception {
+        newQueue(100, 100, null).put("c::1", new byte[]{1}, 1, TimeUnit.MINUTES);
+
+        CompletableFuture<Void> flush = flushInBackground();
+        CompletableFuture<Void> cancel = CompletableFuture.runAsync(() -> queue.cancel("c::1"));
+        Thread.sleep(100);
+        assertThat(cancel).isNotDone();
+        assertThat(queue.peek("c::1")).isNull();
+
+        remote.release.countDown();
+        cancel.get(5, TimeUnit.SECONDS);
+        flush.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void cancelOfOtherKeyDoesNotWait() throws Exception {
+        newQueue(100, 100, null).put("c::1", new byte[]{1}, 1, TimeUnit.MINUTES);
+
+        CompletableFuture<Void> flush = flushInBackground();
+        queue.cancel("c::2");
+
+        remote.release.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void repeatedWritesToSameKeyAreCoalesced() {
+        newQueue(100, 100, null);
+        queue.put("c::1", new byte[]{1}, 1, TimeUnit.MINUTES);
+        queue.put("c::1", new byte[]{2}, 1, TimeUnit.MINUTES);
+        queue.put("c::2", new byte[]{3}, 1, TimeUnit.MINUTES);
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.peek("c::1")).containsExactly(2);
+
+        queue.flush();
+
+        assertThat(remote.batches).hasSize(1);
+        assertThat(remote.batches.get(0)).extracting(WriteBehindQueue.PendingWrite::getKey)
+                .containsExactlyInAnyOrder("c::1", "c::2");
+        assertThat(remote.batches.get(0)).filteredOn(write -> write.getKey().equals("c::1"))
+                .singleElement().extracting(WriteBehindQueue.PendingWrite::getValue).isEqualTo(new byte[]{2});
+    }
+
+    @Test
+    void cancelledWritesAreNotFlushed() {
+        newQueue(100, 100, null);
+        queue.put("a::1", new byte[]{1}, 1, TimeUnit.MINUTES);
+        queue.put("a::2", new byte[]{2}, 1, TimeUnit.MINUTES);
+        queue.put("b::1", new byte[]{3}, 1, TimeUnit.MINUTES);
+
+        queue.cancel("b::1");
+        queue.cancelByPrefix("a::");
+        queue.flush();
+
+        assertThat(queue.size()).isZero();
+        assertThat(remote.batches).isEmpty();
+    }
+
+    @Test
+    void fullQueueWritesThroughWithCallerRuns() {
+        newQueue(1, 100, WriteBehindQueue.Backpressure.CALLER_RUNS);
+        queue.put("c::1", new byte[]{1}, 1, TimeUnit.MINUTES);
+        queue.put("c::2", new byte[]{2}, 1, TimeUnit.MINUTES);
+        // 覆盖已有 key 不占用新的容量
+        queue.put("c::1", new byte[]{3}, 1, TimeUnit.MINUTES);
+
+        assertThat(remote.batches).hasSize(1);
+        assertThat(remote.batches.get(0).get(0).getKey()).isEqualTo("c::2");
+        assertThat(queue.peek("c::1")).containsExactly(3);
+    }
+}
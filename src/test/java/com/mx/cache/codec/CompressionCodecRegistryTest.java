@@ -0,0 +1,93 @@
+package com.mx.cache.codec;
+
+import com.mx.cache.util.CompressUtils;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressionCodecRegistryTest {
+
+    private final CompressionCodecRegistry registry = new CompressionCodecRegistry(null);
+
+    private static byte[] compressible() {
+        byte[] data = new byte[4096];
+        Arrays.fill(data, (byte) 'a');
+        return data;
+    }
+
+    private static byte[] incompressible() {
+        byte[] data = new byte[64];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31 + 7);
+        }
+        return data;
+    }
+
+    @Test
+    void compressedRoundTrip() throws Exception {
+        byte[] data = compressible();
+
+        for (String codec : new String[]{GzipCompressionCodec.NAME, Lz4CompressionCodec.NAME}) {
+            byte[] compressed = registry.compress(data, 0, data.length, codec);
+            assertThat(compressed.length).isLessThan(data.length);
+            assertThat(registry.decompress(compressed, true)).isEqualTo(data);
+        }
+    }
+
+    @Test
+    void incompressibleDataIsStoredWithHeader() throws Exception {
+        byte[] data = incompressible();
+
+        byte[] stored = registry.compress(data, 0, data.length, Lz4CompressionCodec.NAME);
+
+        assertThat(stored).hasSize(CompressionCodecRegistry.HEADER_SIZE + data.length);
+        assertThat(stored[3]).isEqualTo(CompressionCodecRegistry.STORED_ID);
+        assertThat(registry.decompress(stored, true)).isEqualTo(data);
+    }
+
+    @Test
+    void storedRoundTripKeepsDataThatLooksLikeHeaderOrGzip() {
+        // 未压缩的值本身以 GZIP 魔数开头，带头部后不会被误当作旧版本 GZIP 数据
+        byte[] data = {(byte) 0x1F, (byte) 0x8B, 1, 2, 3};
+
+        byte[] stored = registry.stored(data, 0, data.length);
+
+        assertThat(registry.decompress(stored, true)).isEqualTo(data);
+    }
+
+    @Test
+    void headerIsParsedAfterCompressionIsSwitchedOff() throws Exception {
+        byte[] data = compressible();
+        byte[] compressed = registry.compress(data, 0, data.length, Lz4CompressionCodec.NAME);
+        byte[] stored = registry.stored(data, 0, data.length);
+
+        assertThat(registry.decompress(compressed, false)).isEqualTo(data);
+        assertThat(registry.decompress(stored, false)).isEqualTo(data);
+        // 未开启压缩的缓存不识别旧版本的无头部 GZIP 数据
+        byte[] gzip = CompressUtils.compress(data);
+        assertThat(registry.decompress(gzip, false)).isSameAs(gzip);
+    }
+
+    @Test
+    void corruptCompressedDataThrows() throws Exception {
+        byte[] data = compressible();
+        byte[] compressed = registry.compress(data, 0, data.length, Lz4CompressionCodec.NAME);
+        byte[] corrupt = Arrays.copyOf(compressed, compressed.length / 2);
+
+        assertThatThrownBy(() -> registry.decompress(corrupt, true)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> registry.decompress(corrupt, false)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void legacyDataWithoutHeaderIsReadInZipCache() {
+        byte[] json = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        byte[] data = compressible();
+
+        assertThat(registry.decompress(json, true)).isSameAs(json);
+        assertThat(registry.decompress(CompressUtils.compress(data), true)).isEqualTo(data);
+    }
+}
@@ -0,0 +1,81 @@
+package com.mx.cache.invalidation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InvalidationMessageTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        InvalidationMessage message = new InvalidationMessage("node-1",
+                Map.of("user", Set.of("user::1", "user::中文"), "order", Set.of("order::9")),
+                Set.of("catalog", InvalidationMessage.ALL_CACHES));
+
+        InvalidationMessage decoded = InvalidationMessage.decode(message.encode());
+
+        assertThat(decoded.getNodeId()).isEqualTo("node-1");
+        assertThat(decoded.getKeys()).isEqualTo(message.getKeys());
+        assertThat(decoded.getClearedCaches()).isEqualTo(message.getClearedCaches());
+        assertThat(decoded.size()).isEqualTo(5);
+    }
+
+    @Test
+    void emptyMessageRoundTrip() {
+        InvalidationMessage decoded = InvalidationMessage.decode(
+                new InvalidationMessage("node-1", Map.of(), Set.of()).encode());
+
+        assertThat(decoded.isEmpty()).isTrue();
+        assertThat(decoded.getNodeId()).isEqualTo("node-1");
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] data = new InvalidationMessage("node-1", Map.of(), Set.of()).encode();
+        data[0] = 99;
+
+        assertThatThrownBy(() -> InvalidationMessage.decode(data)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void busCoalescesKeysAndIgnoresOwnMessages() {
+        List<InvalidationMessage> published = new ArrayList<>();
+        List<InvalidationMessage> applied = new ArrayList<>();
+        InvalidationTransport loopback = new InvalidationTransport() {
+            private final List<Consumer<InvalidationMessage>> listeners = new ArrayList<>();
+
+            @Override
+            public void publish(InvalidationMessage message) {
+                published.add(message);
+                InvalidationMessage decoded = InvalidationMessage.decode(message.encode());
+                listeners.forEach(listener -> listener.accept(decoded));
+            }
+
+            @Override
+            public void subscribe(Consumer<InvalidationMessage> listener) {
+                listeners.add(listener);
+            }
+        };
+        try (InvalidationBus bus = new InvalidationBus("node-1", loopback, 60_000, 100)) {
+            bus.subscribe(applied::add);
+            bus.invalidate("user", "user::1");
+            bus.invalidate("user", "user::1");
+            bus.invalidate("order", "order::1");
+            bus.invalidateAll("order");
+
+            bus.flush();
+
+            assertThat(published).hasSize(1);
+            assertThat(published.get(0).getKeys()).isEqualTo(Map.of("user", Set.of("user::1")));
+            assertThat(published.get(0).getClearedCaches()).containsExactly("order");
+            assertThat(applied).isEmpty();
+        }
+    }
+}
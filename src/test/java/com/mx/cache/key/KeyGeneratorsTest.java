@@ -0,0 +1,98 @@
+package com.mx.cache.key;
+
+import com.mx.cache.util.SpelUtils;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyGeneratorsTest {
+
+    @SuppressWarnings("unused")
+    public Object find(Object ids) {
+        return null;
+    }
+
+    @SuppressWarnings("unused")
+    public Object findByQuery(Query query) {
+        return null;
+    }
+
+    public static class Query {
+        private final Object ids;
+
+        public Query(Object ids) {
+            this.ids = ids;
+        }
+
+        public Object getIds() {
+            return ids;
+        }
+    }
+
+    private static final String[] PARAM = {"ids"};
+    private static final String[] QUERY = {"query"};
+
+    @Test
+    void parameterKeyMatchesSpel() throws Exception {
+        Method method = getClass().getMethod("find", Object.class);
+        KeyGenerator generator = KeyGenerators.compile("#ids", method, PARAM);
+        assertThat(generator).isInstanceOf(ParameterKeyGenerator.class);
+        SpelKeyGenerator spel = new SpelKeyGenerator(SpelUtils.parse("#ids"), PARAM);
+
+        for (Object value : Arrays.asList(new long[]{1, 2}, new String[]{"a", "b"}, List.of(1, 2), 42L, "x", null)) {
+            Object[] args = {value};
+            assertThat(generator.generate(method, args)).isEqualTo(spel.generate(method, args));
+        }
+        assertThat(generator.generate(method, new Object[]{new long[]{1, 2}})).isEqualTo("1,2");
+        assertThat(generator.generate(method, new Object[]{List.of(1, 2)})).isEqualTo("1,2");
+        assertThat(generator.generate(method, new Object[]{null})).isNull();
+    }
+
+    @Test
+    void arrayKeyIsStableAcrossCalls() throws Exception {
+        Method method = getClass().getMethod("find", Object.class);
+        KeyGenerator generator = KeyGenerators.compile("#ids", method, PARAM);
+        assertThat(generator.generate(method, new Object[]{new long[]{7, 8}}))
+                .isEqualTo(generator.generate(method, new Object[]{new long[]{7, 8}}));
+    }
+
+    @Test
+    void propertyKeyMatchesSpel() throws Exception {
+        Method method = getClass().getMethod("findByQuery", Query.class);
+        KeyGenerator generator = KeyGenerators.compile("#query.ids", method, QUERY);
+        assertThat(generator).isInstanceOf(PropertyKeyGenerator.class);
+        SpelKeyGenerator spel = new SpelKeyGenerator(SpelUtils.parse("#query.ids"), QUERY);
+
+        for (Object value : Arrays.asList(new long[]{1, 2}, new String[]{"a", "b"}, List.of(1, 2), 42L, null)) {
+            Object[] args = {new Query(value)};
+            assertThat(generator.generate(method, args)).isEqualTo(spel.generate(method, args));
+        }
+        assertThat(generator.generate(method, new Object[]{null})).isNull();
+    }
+
+    @Test
+    void keyListElementsMatchSingleKeys() {
+        assertThat(KeyGenerators.toKeyStrings(Arrays.asList(1L, null, new long[]{1, 2})))
+                .containsExactly("1", KeyGenerators.toKeyString(new long[]{1, 2}));
+        assertThat(KeyGenerators.toKeyStrings(new Object[]{"a", 2})).containsExactly("a", "2");
+        assertThat(KeyGenerators.toKeyStrings(3)).containsExactly("3");
+        assertThat(KeyGenerators.toKeyStrings(null)).isEmpty();
+    }
+
+    @Test
+    void spelSupportsMethodsIndexingAndTypeReferences() throws Exception {
+        Method method = getClass().getMethod("findByQuery", Query.class);
+        Object[] args = {new Query(List.of(3, 4))};
+
+        assertThat(new SpelKeyGenerator(SpelUtils.parse("#query.getIds().size() + ':' + #root[0].ids[1]"), QUERY)
+                .generate(method, args)).isEqualTo("2:4");
+        assertThat(new SpelKeyGenerator(SpelUtils.parse("T(String).valueOf(#query.ids[0])"), QUERY)
+                .generate(method, args)).isEqualTo("3");
+        assertThat(new SpelKeyGenerator(SpelUtils.parse("#query?.ids ?: 'none'"), QUERY)
+                .generate(method, new Object[]{null})).isEqualTo("none");
+    }
+}
@@ -0,0 +1,125 @@
+package com.mx.cache.metadata;
+
+import com.mx.cache.annotation.CacheEvict;
+import com.mx.cache.annotation.CachePut;
+import com.mx.cache.annotation.Cacheable;
+import com.mx.cache.codec.CompressionCodecRegistry;
+import com.mx.cache.codec.Lz4CompressionCodec;
+import com.mx.cache.serializer.CacheSerializerRegistry;
+import com.mx.cache.serializer.KryoCacheSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachePlanTest {
+
+    static class Service {
+        @Cacheable(cacheNames = "user", key = "#id", zip = true, hotKey = true, maxKeySize = 64)
+        public String zipped(Long id) {
+            return null;
+        }
+
+        @Cacheable(cacheNames = "user", key = "#id", zip = true, zipCodec = "missing")
+        public String unknownCodec(Long id) {
+            return null;
+        }
+    }
+
+    static class KeyedService {
+        @Cacheable(cacheNames = "user", key = "#ids")
+        public String find(long[] ids) {
+            return null;
+        }
+
+        @CachePut(cacheNames = "user", key = "#ids")
+        public String update(long[] ids) {
+            return null;
+        }
+
+        @CacheEvict(cacheNames = "user", key = "#ids")
+        public void remove(long[] ids) {
+        }
+    }
+
+    static class BrokenEvictService {
+        @CacheEvict(cacheNames = "user")
+        public void noKey(Long id) {
+        }
+    }
+
+    static class BrokenService {
+        @Cacheable(cacheNames = {}, key = "#id")
+        public String noCacheName(Long id) {
+            return null;
+        }
+    }
+
+    private final CacheSerializerRegistry serializerRegistry =
+            new CacheSerializerRegistry(new DefaultListableBeanFactory(), null);
+    private final CompressionCodecRegistry codecRegistry = new CompressionCodecRegistry(null);
+
+    private static CachePlan plan(String methodName) throws NoSuchMethodException {
+        Method method = Service.class.getMethod(methodName, Long.class);
+        return CachePlan.of(method, method.getAnnotation(Cacheable.class), new String[]{"id"});
+    }
+
+    @Test
+    void bindResolvesSerializerAndCodecOnce() throws Exception {
+        CachePlan plan = plan("zipped").bind(serializerRegistry, codecRegistry);
+
+        assertThat(plan.getSerializer()).isInstanceOf(KryoCacheSerializer.class);
+        assertThat(plan.getCompressionCodec()).isInstanceOf(Lz4CompressionCodec.class);
+        assertThat(plan.isHotKey()).isTrue();
+        assertThat(plan.getMaxKeySize()).isEqualTo(64);
+    }
+
+    @Test
+    void unknownCodecFailsBind() throws Exception {
+        CachePlan plan = plan("unknownCodec");
+
+        assertThatThrownBy(() -> plan.bind(serializerRegistry, codecRegistry))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("unknownCodec");
+        assertThat(plan.getSerializer()).isNull();
+    }
+
+    @Test
+    void putAndEvictKeysMatchCacheableKey() throws Exception {
+        String[] paramNames = {"ids"};
+        Object[] args = {new long[]{1, 2}};
+        Method find = KeyedService.class.getMethod("find", long[].class);
+        Method update = KeyedService.class.getMethod("update", long[].class);
+        Method remove = KeyedService.class.getMethod("remove", long[].class);
+
+        String key = CachePlan.of(find, find.getAnnotation(Cacheable.class), paramNames)
+                .getKeyGenerator().generate(find, args);
+        assertThat(key).isEqualTo("1,2");
+        assertThat(CachePutPlan.of(update, update.getAnnotation(CachePut.class), paramNames)
+                .getKeyGenerator().generate(update, args)).isEqualTo(key);
+        assertThat(CacheEvictPlan.of(remove, remove.getAnnotation(CacheEvict.class), paramNames)
+                .getKeyGenerator().generate(remove, args)).isEqualTo(key);
+    }
+
+    @Test
+    void evictWithoutTargetFailsScan() {
+        CacheAnnotationScanner scanner = new CacheAnnotationScanner();
+
+        assertThatThrownBy(() -> scanner.postProcessAfterInitialization(new BrokenEvictService(), "brokenEvictService"))
+                .isInstanceOf(BeanInitializationException.class)
+                .hasMessageContaining("noKey");
+    }
+
+    @Test
+    void invalidAnnotationFailsScan() {
+        CacheAnnotationScanner scanner = new CacheAnnotationScanner();
+
+        assertThatThrownBy(() -> scanner.postProcessAfterInitialization(new BrokenService(), "brokenService"))
+                .isInstanceOf(BeanInitializationException.class)
+                .hasMessageContaining("noCacheName");
+    }
+}
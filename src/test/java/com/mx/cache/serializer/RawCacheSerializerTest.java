@@ -0,0 +1,39 @@
+package com.mx.cache.serializer;
+
+import com.mx.cache.util.PooledBuffer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RawCacheSerializerTest {
+
+    private final RawCacheSerializer serializer = new RawCacheSerializer();
+
+    @Test
+    void serializedBytesAreNotSharedWithCaller() {
+        byte[] value = {1, 2, 3};
+        byte[] serialized = serializer.serialize(value);
+
+        PooledBuffer buffer = PooledBuffer.acquire();
+        try {
+            serializer.serialize(value, buffer);
+            byte[] pooled = buffer.toByteArray();
+            value[0] = 9;
+
+            assertThat(serialized).containsExactly(1, 2, 3);
+            assertThat(pooled).containsExactly(1, 2, 3);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    void deserializedBytesAreNotSharedWithCache() {
+        byte[] cached = {1, 2, 3};
+        byte[] value = serializer.deserialize(cached, byte[].class);
+        value[0] = 9;
+
+        assertThat(cached).containsExactly(1, 2, 3);
+        assertThat(serializer.deserialize(cached, String.class)).isEqualTo("\u0001\u0002\u0003");
+    }
+}